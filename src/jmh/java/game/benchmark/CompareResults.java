@@ -0,0 +1,94 @@
+package game.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with {@code -rf json}, typically a
+ * baseline from the {@code benchmarks} directory and a new run. For every
+ * benchmark the score and the allocated bytes per operation are printed with
+ * their change. Benchmarks that are slower by more than the threshold, or
+ * allocate more, are reported as regressions and make the exit status 1.
+ * <p>
+ * Usage: {@code CompareResults baseline.json current.json [thresholdPercent]}
+ */
+public class CompareResults {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private record Result(String unit, double score, double allocation) {
+    }
+
+    /**
+     * @param path a JMH result file in JSON format
+     * @return the results by benchmark name and parameters
+     * @throws IOException if the file cannot be read
+     */
+    private static Map<String, Result> read(Path path) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (var benchmark : new ObjectMapper().readTree(path.toFile())) {
+            var name = new StringBuilder(benchmark.get("benchmark").asText());
+            var params = benchmark.get("params");
+            if (params != null) {
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    var param = it.next();
+                    name.append(':').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            var primary = benchmark.get("primaryMetric");
+            double allocation = Double.NaN;
+            var secondary = benchmark.get("secondaryMetrics");
+            if (secondary != null) {
+                for (Iterator<Map.Entry<String, JsonNode>> it = secondary.fields(); it.hasNext(); ) {
+                    var metric = it.next();
+                    if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                        allocation = metric.getValue().get("score").asDouble();
+                    }
+                }
+            }
+            results.put(name.toString(), new Result(primary.get("scoreUnit").asText(),
+                    primary.get("score").asDouble(), allocation));
+        }
+        return results;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults baseline.json current.json [thresholdPercent]");
+            System.exit(2);
+        }
+        var baseline = read(Path.of(args[0]));
+        var current = read(Path.of(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        int regressions = 0;
+        System.out.printf("%-60s %14s %14s %8s %12s %12s%n", "Benchmark", "Baseline", "Current", "Change", "B/op before", "B/op after");
+        for (var entry : current.entrySet()) {
+            var now = entry.getValue();
+            var before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-60s %14s %11.3f %-2s%n", entry.getKey(), "-", now.score(), now.unit());
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score() * 100;
+            // Throughput modes report operations per time, where a lower score is worse
+            boolean slower = now.unit().startsWith("ops/") ? change < -threshold : change > threshold;
+            boolean allocates = now.allocation() > before.allocation() + 0.5;
+            String flag = slower || allocates ? "  REGRESSION" : "";
+            if (!flag.isEmpty()) {
+                regressions++;
+            }
+            System.out.printf("%-60s %11.3f %-2s %11.3f %-2s %+7.1f%% %12.1f %12.1f%s%n", entry.getKey(),
+                    before.score(), before.unit(), now.score(), now.unit(), change,
+                    before.allocation(), now.allocation(), flag);
+        }
+        System.out.printf("%d regressions above %.1f%%%n", regressions, threshold);
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+}
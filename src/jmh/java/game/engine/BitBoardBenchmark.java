@@ -0,0 +1,83 @@
+package game.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures move generation, win detection and random games on {@link BitBoard},
+ * for comparison with the same operations on {@link game.model.GameModel}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BitBoardBenchmark {
+
+    private static final int MAX_PLIES = 200;
+
+    private final int[] moves = new int[BitBoard.MAX_MOVES];
+    private BitBoard board;
+    private int lastMove;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        board = BitBoard.initial();
+        board.generateMoves(moves);
+        lastMove = moves[0];
+        board.makeMove(lastMove);
+        random = new SplittableRandom(1);
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return board.generateMoves(moves);
+    }
+
+    @Benchmark
+    public int winningLine() {
+        return board.winningLine(lastMove);
+    }
+
+    @Benchmark
+    public void makeUnmakeAll(Blackhole blackhole) {
+        int count = board.generateMoves(moves);
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            blackhole.consume(board.getHash());
+            board.unmakeMove(moves[i]);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int randomPlayout() {
+        var position = BitBoard.initial();
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            int count = position.generateMoves(moves);
+            if (count == 0) {
+                return ply;
+            }
+            int move = moves[random.nextInt(count)];
+            position.makeMove(move);
+            if (position.winningLine(move) != 0) {
+                return ply + 1;
+            }
+        }
+        return MAX_PLIES;
+    }
+}
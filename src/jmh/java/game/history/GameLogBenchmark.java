@@ -0,0 +1,48 @@
+package game.history;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the binary encoding of a finished game for the game log, to compare
+ * with the JSON export in {@code DataExportBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameLogBenchmark {
+
+    private GameRecord record;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        var moves = new int[40];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = i * 7 % 32;
+        }
+        record = new GameRecord("Blue player", "Red player", "2022-05-01", moves);
+        buffer = ByteBuffer.allocateDirect(GameLog.recordBytes(record)).order(GameLog.BYTE_ORDER);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        buffer.clear();
+        GameLog.encode(record, buffer);
+        return buffer;
+    }
+}
@@ -0,0 +1,52 @@
+package game.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JSON export of the result of a game. {@code newMapper} matches
+ * the GUI, which creates an {@link ObjectMapper} for every finished game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataExportBenchmark {
+
+    private Data data;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        data = new Data();
+        data.setWinner("Blue player");
+        data.setLooser("Red player");
+        data.setDate("2022-05-01");
+        writer = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writer();
+    }
+
+    @Benchmark
+    public byte[] newMapper() throws Exception {
+        return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsBytes(data);
+    }
+
+    @Benchmark
+    public byte[] sharedWriter() throws Exception {
+        return writer.writeValueAsBytes(data);
+    }
+}
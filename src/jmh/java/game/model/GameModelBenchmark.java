@@ -0,0 +1,120 @@
+package game.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hot paths of {@link GameModel} used by the GUI on every click:
+ * move validation, move generation, win detection and circle lookup.
+ * Move generation and win detection from the last move are also measured on a
+ * 32 × 32 board with 16 circles each and 5 in a row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameModelBenchmark {
+
+    private final int[] moves = new int[8 * GameModel.DIRECTION_COUNT];
+    private GameModel model;
+    private List<Position> noLine;
+    private List<Position> diagonalLine;
+    private List<Position> rowLine;
+    private GameModel largeModel;
+    private final int[] largeMoves = new int[32 * GameModel.DIRECTION_COUNT];
+
+    @Setup
+    public void setUp() {
+        model = new GameModel(
+                new Circle(CircleType.BLUE, new Position(1, 1)),
+                new Circle(CircleType.RED, new Position(0, 1)),
+                new Circle(CircleType.BLUE, new Position(2, 2)),
+                new Circle(CircleType.RED, new Position(0, 3)),
+                new Circle(CircleType.BLUE, new Position(4, 1)),
+                new Circle(CircleType.RED, new Position(4, 0)),
+                new Circle(CircleType.BLUE, new Position(4, 3)),
+                new Circle(CircleType.RED, new Position(2, 1)));
+        noLine = List.of(new Position(1, 1), new Position(2, 2), new Position(4, 1), new Position(4, 3));
+        diagonalLine = List.of(new Position(4, 1), new Position(1, 1), new Position(2, 2), new Position(3, 3));
+        rowLine = List.of(new Position(0, 0), new Position(3, 1), new Position(3, 2), new Position(3, 3));
+        largeModel = new GameModel(new GameRules(32, 32, 16, 5));
+    }
+
+    @Benchmark
+    public boolean isValidMove() {
+        return model.isValidMove(0, Direction.RIGHT);
+    }
+
+    @Benchmark
+    public void getValidMoves(Blackhole blackhole) {
+        for (int i = 0; i < model.getCircleCount(); i++) {
+            blackhole.consume(model.getValidMoves(i));
+        }
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return model.generateMoves(moves);
+    }
+
+    @Benchmark
+    public boolean isWinWithoutLine() {
+        return model.isWin(noLine);
+    }
+
+    @Benchmark
+    public boolean isWinRow() {
+        return model.isWin(rowLine);
+    }
+
+    @Benchmark
+    public boolean isWinAt() {
+        return model.isWinAt(model.getCircleCell(2));
+    }
+
+    @Benchmark
+    public int generateMovesLargeBoard() {
+        return largeModel.generateMoves(largeMoves);
+    }
+
+    @Benchmark
+    public boolean isWinAtLargeBoard() {
+        return largeModel.isWinAt(largeModel.getCircleCell(4));
+    }
+
+    @Benchmark
+    public boolean diagWins() {
+        return model.diagWins(diagonalLine);
+    }
+
+    @Benchmark
+    public void getCircleID(Blackhole blackhole) {
+        for (int row = 0; row < GameModel.MAX_ROW_SIZE; row++) {
+            for (int col = 0; col < GameModel.MAX_COL_SIZE; col++) {
+                blackhole.consume(model.getCircleID(new Position(row, col)));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getPositionAt(Blackhole blackhole) {
+        var position = model.getCirclePosition(0);
+        for (var direction : Direction.values()) {
+            blackhole.consume(position.getPositionAt(direction));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package game.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full random games played through {@link GameModel} the way the GUI
+ * does: the active player picks one of its circles with a valid move and a
+ * valid direction, then the model is checked for a win.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayoutBenchmark {
+
+    private static final int MAX_PLIES = 200;
+
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        random = new SplittableRandom(1);
+    }
+
+    @Benchmark
+    public int randomPlayout() {
+        var model = new GameModel();
+        List<Integer> movable = new ArrayList<>();
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            model.increasePlayerTurn();
+            var type = model.getPlayerTurn() % 2 == 0 ? CircleType.BLUE : CircleType.RED;
+            movable.clear();
+            for (int i = 0; i < model.getCircleCount(); i++) {
+                if (model.getCircleType(i) == type && !model.getValidMoves(i).isEmpty()) {
+                    movable.add(i);
+                }
+            }
+            if (movable.isEmpty()) {
+                return ply;
+            }
+            int circleID = movable.get(random.nextInt(movable.size()));
+            var directions = new ArrayList<>(model.getValidMoves(circleID));
+            model.move(circleID, directions.get(random.nextInt(directions.size())));
+            if (model.isWin(model.getCirclePositions())) {
+                return ply + 1;
+            }
+        }
+        return MAX_PLIES;
+    }
+
+    @Benchmark
+    public int randomPlayoutWithEncodedMoves() {
+        var model = new GameModel();
+        int[] moves = new int[model.getCircleCount() * GameModel.DIRECTION_COUNT];
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            model.increasePlayerTurn();
+            int count = model.generateMoves(moves);
+            if (count == 0) {
+                return ply;
+            }
+            model.makeMove(moves[random.nextInt(count)]);
+            if (model.isWin(model.getCirclePositions())) {
+                return ply + 1;
+            }
+        }
+        return MAX_PLIES;
+    }
+}
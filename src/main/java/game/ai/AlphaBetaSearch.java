@@ -0,0 +1,330 @@
+package game.ai;
+
+import game.engine.BitBoard;
+import game.engine.WinLines;
+import game.trace.Trace;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Negamax alpha-beta search over a {@link BitBoard} with iterative deepening,
+ * move ordering and a hard time budget.
+ * Results are kept in a {@link TranspositionTable}, which may be shared with
+ * other searches. Moves are ordered by the best move of the previous
+ * iteration, the move stored in the table, killer moves and the history
+ * heuristic. A side that cannot move loses.
+ * An instance is not thread-safe, every searching thread needs its own.
+ */
+public class AlphaBetaSearch {
+
+    /**
+     * Score of a won position, reduced by the number of plies to the win
+     */
+    public static final int WIN = 30_000;
+
+    /**
+     * Maximum depth of the search
+     */
+    public static final int MAX_PLY = 64;
+
+    /**
+     * Size of the transposition table created by {@link #AlphaBetaSearch()}
+     */
+    public static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private static final int INFINITY = WIN + 1;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int THREAT_SCORE = 40;
+    private static final int REACHABLE_THREAT_SCORE = 120;
+    private static final int SINGLE_SCORE = 4;
+
+    private final int[][] moves = new int[MAX_PLY + 1][BitBoard.MAX_MOVES];
+    private final int[][] orderScores = new int[MAX_PLY + 1][BitBoard.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[] history = new int[1 << 10];
+    private final TranspositionTable table;
+
+    private BitBoard board;
+    private long nodes;
+    private long deadline;
+    private boolean timeCheckEnabled;
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+    private boolean aborted;
+    private int rootBestMove;
+
+    /**
+     * Creates a search with a transposition table of its own.
+     */
+    public AlphaBetaSearch() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates a search using the transposition table specified.
+     *
+     * @param table a table, possibly shared with other searches
+     */
+    public AlphaBetaSearch(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * @return the transposition table of the search
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Searches the position with iterative deepening until the time budget is
+     * used up, a forced result is found, or {@link #MAX_PLY} is reached.
+     *
+     * @param position the position to search, it is not modified
+     * @param timeBudgetMillis the hard limit of the search time
+     * @return the result of the deepest completed iteration
+     */
+    public SearchResult search(BitBoard position, long timeBudgetMillis) {
+        return search(position, timeBudgetMillis, MAX_PLY);
+    }
+
+    /**
+     * Searches the position with iterative deepening up to the depth specified.
+     * The first iteration is always completed, regardless of the time budget.
+     *
+     * @param position the position to search, it is not modified
+     * @param timeBudgetMillis the hard limit of the search time
+     * @param maxDepth the deepest iteration to search
+     * @return the result of the deepest completed iteration
+     */
+    public SearchResult search(BitBoard position, long timeBudgetMillis, int maxDepth) {
+        table.newSearch();
+        long probes = table.getProbes();
+        long hits = table.getHits();
+        var result = search(position, System.nanoTime() + timeBudgetMillis * 1_000_000L, maxDepth, 1, new AtomicBoolean());
+        SearchMetrics.record(result, table.getProbes() - probes, table.getHits() - hits);
+        return result;
+    }
+
+    /**
+     * Searches without starting a new generation of the transposition table,
+     * so that several searches can work on the same position at once.
+     *
+     * @param position the position to search, it is not modified
+     * @param deadline the {@link System#nanoTime()} at which the search must return
+     * @param maxDepth the deepest iteration to search
+     * @param firstDepth the first iteration to search
+     * @param stopSignal a signal that makes the search return once it is set
+     * @return the result of the deepest completed iteration
+     */
+    SearchResult search(BitBoard position, long deadline, int maxDepth, int firstDepth, AtomicBoolean stopSignal) {
+        long start = System.nanoTime();
+        board = new BitBoard(position);
+        nodes = 0;
+        this.deadline = deadline;
+        this.stopSignal = stopSignal;
+        aborted = false;
+        timeCheckEnabled = false;
+        rootBestMove = -1;
+        clearOrdering();
+
+        int bestMove = -1;
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = Math.max(1, firstDepth); depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if (aborted) {
+                break;
+            }
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            Trace.searchIteration(depth, score, nodes);
+            timeCheckEnabled = true;
+            if (bestMove == -1 || Math.abs(score) >= WIN - MAX_PLY) {
+                break;
+            }
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to return as soon as possible.
+     * May be called from any thread.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    private void clearOrdering() {
+        for (var killer : killers) {
+            killer[0] = -1;
+            killer[1] = -1;
+        }
+        Arrays.fill(history, 0);
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if (timeCheckEnabled && (nodes % TIME_CHECK_INTERVAL == 0)
+                && (stopSignal.get() || System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (depth == 0 || ply == MAX_PLY) {
+            return evaluate();
+        }
+        int alphaOrig = alpha;
+        long key = board.getHash();
+        int hashMove = -1;
+        long entry = table.probe(key);
+        if (entry != 0) {
+            hashMove = TranspositionTable.moveOf(entry);
+            if (ply > 0 && TranspositionTable.depthOf(entry) >= depth) {
+                int score = fromTable(TranspositionTable.scoreOf(entry), ply);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+        int[] plyMoves = moves[ply];
+        int count = board.generateMoves(plyMoves);
+        if (count == 0) {
+            return -(WIN - ply);
+        }
+        scoreMoves(ply, count, hashMove);
+
+        int best = -INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            board.makeMove(move);
+            int score;
+            if (board.winningLine(move) != 0) {
+                score = WIN - (ply + 1);
+            } else {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            }
+            board.unmakeMove(move);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                storeCutoff(move, ply, depth);
+                break;
+            }
+        }
+        int bound = best <= alphaOrig ? TranspositionTable.BOUND_UPPER
+                : best >= beta ? TranspositionTable.BOUND_LOWER : TranspositionTable.BOUND_EXACT;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private static int toTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -(WIN - MAX_PLY)) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -(WIN - MAX_PLY)) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private void scoreMoves(int ply, int count, int hashMove) {
+        int[] plyMoves = moves[ply];
+        int[] scores = orderScores[ply];
+        for (int i = 0; i < count; i++) {
+            int move = plyMoves[i];
+            if (ply == 0 && move == rootBestMove) {
+                scores[i] = Integer.MAX_VALUE;
+            } else if (move == hashMove) {
+                scores[i] = Integer.MAX_VALUE - 1;
+            } else if (move == killers[ply][0]) {
+                scores[i] = Integer.MAX_VALUE - 2;
+            } else if (move == killers[ply][1]) {
+                scores[i] = Integer.MAX_VALUE - 3;
+            } else {
+                scores[i] = history[move];
+            }
+        }
+    }
+
+    private int pickMove(int ply, int index, int count) {
+        int[] plyMoves = moves[ply];
+        int[] scores = orderScores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = plyMoves[best];
+        plyMoves[best] = plyMoves[index];
+        plyMoves[index] = move;
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    private void storeCutoff(int move, int ply, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        history[move] = Math.min(history[move] + depth * depth, Integer.MAX_VALUE / 2);
+    }
+
+    /**
+     * @return a static score of the position from the point of view of the side to move
+     */
+    int evaluate() {
+        int side = board.getSideToMove();
+        return evaluateSide(board.getPieces(side), board.getPieces(side ^ 1))
+                - evaluateSide(board.getPieces(side ^ 1), board.getPieces(side));
+    }
+
+    private static int evaluateSide(int own, int other) {
+        int score = 0;
+        for (int i = 0; i < WinLines.count(); i++) {
+            int line = WinLines.line(i);
+            if ((line & other) != 0) {
+                continue;
+            }
+            int ownInLine = Integer.bitCount(line & own);
+            if (ownInLine == 2) {
+                int gap = line & ~own;
+                int helpers = BitBoard.neighbours(Integer.numberOfTrailingZeros(gap)) & own & ~line;
+                score += helpers != 0 ? REACHABLE_THREAT_SCORE : THREAT_SCORE;
+            } else if (ownInLine == 1) {
+                score += SINGLE_SCORE;
+            }
+        }
+        return score;
+    }
+}
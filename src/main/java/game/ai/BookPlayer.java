@@ -0,0 +1,39 @@
+package game.ai;
+
+import game.book.OpeningBook;
+import game.engine.BitBoard;
+
+/**
+ * Player making the moves of an opening book without searching, and the
+ * moves of another player once the game has left the book.
+ */
+public class BookPlayer implements Player {
+
+    private final OpeningBook book;
+    private final Player fallback;
+
+    /**
+     * @param book the opening book, it may be shared with other players
+     * @param fallback the player choosing the moves of positions not in the book
+     */
+    public BookPlayer(OpeningBook book, Player fallback) {
+        this.book = book;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void newGame(long seed) {
+        fallback.newGame(seed);
+    }
+
+    @Override
+    public int chooseMove(BitBoard position) {
+        int move = book.lookup(position);
+        return move != -1 ? move : fallback.chooseMove(position);
+    }
+
+    @Override
+    public void close() {
+        fallback.close();
+    }
+}
@@ -0,0 +1,41 @@
+package game.ai;
+
+import game.engine.BitBoard;
+
+/**
+ * Player choosing the most visited move of a {@link MonteCarloSearch}.
+ * The tree is kept between the moves of a game.
+ */
+public class MonteCarloPlayer implements Player {
+
+    private final MonteCarloSearch search;
+    private final long timeBudgetMillis;
+    private final long maxPlayouts;
+
+    /**
+     * @param threads the number of playout threads
+     * @param timeBudgetMillis the time limit of a move
+     * @param maxPlayouts the playout limit of a move
+     */
+    public MonteCarloPlayer(int threads, long timeBudgetMillis, long maxPlayouts) {
+        search = new MonteCarloSearch(threads);
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    @Override
+    public void newGame(long seed) {
+        search.clear();
+        search.setSeed(seed);
+    }
+
+    @Override
+    public int chooseMove(BitBoard position) {
+        return search.search(position, timeBudgetMillis, maxPlayouts).bestMove();
+    }
+
+    @Override
+    public void close() {
+        search.close();
+    }
+}
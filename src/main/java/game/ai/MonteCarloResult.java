@@ -0,0 +1,22 @@
+package game.ai;
+
+/**
+ * Represents the outcome of a {@link MonteCarloSearch}.
+ *
+ * @param bestMove the encoded most visited move, or -1 if the side to move has no move
+ * @param winRate the share of points won by the side to move in the playouts through the best move, between 0 and 1
+ * @param playouts the number of playouts of the search
+ * @param reusedVisits the number of visits of the root kept from the previous search
+ * @param treeNodes the number of nodes of the tree after the search
+ * @param elapsedNanos the wall-clock time of the search
+ */
+public record MonteCarloResult(int bestMove, double winRate, long playouts, long reusedVisits, long treeNodes,
+                               long elapsedNanos) {
+
+    /**
+     * @return the number of playouts per second
+     */
+    public long playoutsPerSecond() {
+        return elapsedNanos == 0 ? 0 : playouts * 1_000_000_000L / elapsedNanos;
+    }
+}
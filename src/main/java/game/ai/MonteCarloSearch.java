@@ -0,0 +1,367 @@
+package game.ai;
+
+import game.engine.BitBoard;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monte Carlo tree search with the UCT selection rule, running random
+ * playouts on any number of threads over one shared tree.
+ * The tree is updated without locks: the visits and points of a node are
+ * packed into one {@code long} changed by atomic additions, and children are
+ * published with a compare-and-set. A thread descending into a node counts a
+ * visit right away, which acts as a virtual loss until its playout result is
+ * added, so concurrent threads spread over different branches.
+ * The subtree of the position reached after the opponent's reply is kept for
+ * the next search. A side that cannot move loses, as in {@link AlphaBetaSearch}.
+ */
+public class MonteCarloSearch implements AutoCloseable {
+
+    /**
+     * Weight of the exploration term of the UCT formula
+     */
+    public static final double EXPLORATION = 1.0;
+
+    /**
+     * Number of moves after which a playout is a draw
+     */
+    public static final int MAX_PLAYOUT_PLIES = 200;
+
+    /**
+     * Number of tree nodes above which leaves are no longer expanded
+     */
+    public static final int MAX_TREE_NODES = 4_000_000;
+
+    private static final int EXPANSION_VISITS = 2;
+    private static final int WIN_POINTS = 2;
+    private static final int DRAW_POINTS = 1;
+    private static final long VISIT = 1L << 32;
+    private static final int DRAW = -1;
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final int threads;
+    private final ExecutorService executor;
+    private final AtomicLong treeNodes = new AtomicLong();
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+    private Node root;
+    private BitBoard rootPosition;
+    private long seed = System.nanoTime();
+
+    /**
+     * @param threads the number of playout threads
+     */
+    public MonteCarloSearch(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.threads = threads;
+        int pool = POOL_NUMBER.incrementAndGet();
+        var threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "mcts-" + pool + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the number of playout threads
+     */
+    public int getThreadCount() {
+        return threads;
+    }
+
+    /**
+     * Seeds the playouts of the following searches. A search limited only by
+     * the number of playouts on one thread is repeatable for the same seed.
+     *
+     * @param seed the seed
+     */
+    public synchronized void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Discards the tree kept from the previous search.
+     */
+    public synchronized void clear() {
+        root = null;
+        rootPosition = null;
+        treeNodes.set(0);
+    }
+
+    /**
+     * Runs playouts from the position until either budget is used up.
+     * Only one search may run at a time.
+     *
+     * @param position the position to search, it is not modified
+     * @param timeBudgetMillis the limit of the search time
+     * @param maxPlayouts the limit of the number of playouts
+     * @return the most visited move with the statistics of the search
+     */
+    public synchronized MonteCarloResult search(BitBoard position, long timeBudgetMillis, long maxPlayouts) {
+        long start = System.nanoTime();
+        long deadline = start + timeBudgetMillis * 1_000_000L;
+        var signal = new AtomicBoolean();
+        stopSignal = signal;
+        reuseOrCreateRoot(position);
+        long reusedVisits = root.visits();
+        if (!position.hasMoves()) {
+            return new MonteCarloResult(-1, 0, 0, reusedVisits, treeNodes.get(), System.nanoTime() - start);
+        }
+
+        var searchRoot = root;
+        if (searchRoot.children == null) {
+            expand(searchRoot, new BitBoard(position), new int[BitBoard.MAX_MOVES]);
+        }
+        var playouts = new AtomicLong();
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            var random = new SplittableRandom(seed + i * 0x9E37_79B9_7F4A_7C15L);
+            workers.add(executor.submit(() -> runPlayouts(searchRoot, position, random, deadline, maxPlayouts, playouts, signal)));
+        }
+        seed = new SplittableRandom(seed).nextLong();
+        try {
+            for (var worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            signal.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            signal.set(true);
+            throw new IllegalStateException(e.getCause());
+        }
+
+        Node best = null;
+        for (var child : root.children) {
+            if (best == null || child.visits() > best.visits()) {
+                best = child;
+            }
+        }
+        long visits = best.visits();
+        double winRate = visits == 0 ? 0 : (double) best.points() / (WIN_POINTS * visits);
+        return new MonteCarloResult(best.move, winRate, Math.min(playouts.get(), maxPlayouts), reusedVisits,
+                treeNodes.get(), System.nanoTime() - start);
+    }
+
+    private void reuseOrCreateRoot(BitBoard position) {
+        if (root != null && root.children != null) {
+            if (rootPosition.equals(position)) {
+                return;
+            }
+            var board = new BitBoard(rootPosition);
+            for (var child : root.children) {
+                board.makeMove(child.move);
+                var grandchildren = child.children;
+                if (grandchildren != null) {
+                    for (var grandchild : grandchildren) {
+                        board.makeMove(grandchild.move);
+                        boolean found = board.equals(position);
+                        board.unmakeMove(grandchild.move);
+                        if (found) {
+                            root = grandchild;
+                            rootPosition = new BitBoard(position);
+                            treeNodes.set(countNodes(root));
+                            return;
+                        }
+                    }
+                }
+                board.unmakeMove(child.move);
+            }
+        }
+        root = new Node(-1, false);
+        rootPosition = new BitBoard(position);
+        treeNodes.set(1);
+    }
+
+    private static long countNodes(Node root) {
+        long count = 0;
+        var pending = new ArrayList<Node>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            var node = pending.remove(pending.size() - 1);
+            count++;
+            if (node.children != null) {
+                pending.addAll(Arrays.asList(node.children));
+            }
+        }
+        return count;
+    }
+
+    private void runPlayouts(Node root, BitBoard position, SplittableRandom random, long deadline,
+                             long maxPlayouts, AtomicLong playouts, AtomicBoolean signal) {
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        Node[] path = new Node[64];
+        int rootSide = position.getSideToMove();
+        while (!signal.get() && System.nanoTime() < deadline && playouts.getAndIncrement() < maxPlayouts) {
+            var board = new BitBoard(position);
+            path[0] = root;
+            root.addVisit();
+            int length = 1;
+            var node = root;
+            int winner;
+            while (true) {
+                if (node.moverWins) {
+                    winner = board.getSideToMove() ^ 1;
+                    break;
+                }
+                var children = node.children;
+                if (children == null) {
+                    if (node != root && (node.visits() < EXPANSION_VISITS || treeNodes.get() >= MAX_TREE_NODES)) {
+                        winner = playout(board, moves, random);
+                        break;
+                    }
+                    children = expand(node, board, moves);
+                }
+                node = select(children, node.visits());
+                node.addVisit();
+                board.makeMove(node.move);
+                if (length == path.length) {
+                    path = Arrays.copyOf(path, length * 2);
+                }
+                path[length++] = node;
+            }
+            for (int depth = 0; depth < length; depth++) {
+                int mover = depth % 2 == 0 ? rootSide ^ 1 : rootSide;
+                if (winner == mover) {
+                    path[depth].addPoints(WIN_POINTS);
+                } else if (winner == DRAW) {
+                    path[depth].addPoints(DRAW_POINTS);
+                }
+            }
+        }
+    }
+
+    private Node[] expand(Node node, BitBoard board, int[] moves) {
+        int count = board.generateMoves(moves);
+        var children = new Node[count];
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            boolean moverWins = board.winningLine(moves[i]) != 0 || !board.hasMoves();
+            board.unmakeMove(moves[i]);
+            children[i] = new Node(moves[i], moverWins);
+        }
+        if (Node.CHILDREN.compareAndSet(node, null, children)) {
+            treeNodes.addAndGet(count);
+            return children;
+        }
+        return node.children;
+    }
+
+    private static Node select(Node[] children, long parentVisits) {
+        double logParent = Math.log(Math.max(1, parentVisits));
+        Node best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (var child : children) {
+            if (child.moverWins) {
+                return child;
+            }
+            long stats = child.stats;
+            long visits = stats >>> 32;
+            if (visits == 0) {
+                return child;
+            }
+            double value = (double) (int) stats / (WIN_POINTS * visits) + EXPLORATION * Math.sqrt(logParent / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private static int playout(BitBoard board, int[] moves, SplittableRandom random) {
+        for (int ply = 0; ply < MAX_PLAYOUT_PLIES; ply++) {
+            int count = board.generateMoves(moves);
+            if (count == 0) {
+                return board.getSideToMove() ^ 1;
+            }
+            int move = moves[random.nextInt(count)];
+            board.makeMove(move);
+            if (board.winningLine(move) != 0) {
+                return board.getSideToMove() ^ 1;
+            }
+        }
+        return DRAW;
+    }
+
+    /**
+     * Asks a running search to return as soon as possible.
+     * May be called from any thread.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Stops the playout threads.
+     */
+    @Override
+    public void close() {
+        stop();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Node of the search tree, holding the statistics of the move leading to it
+     * from the point of view of the player who made the move.
+     */
+    private static final class Node {
+
+        private static final VarHandle STATS;
+        private static final VarHandle CHILDREN;
+
+        static {
+            try {
+                var lookup = MethodHandles.lookup();
+                STATS = lookup.findVarHandle(Node.class, "stats", long.class);
+                CHILDREN = lookup.findVarHandle(Node.class, "children", Node[].class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final int move;
+        final boolean moverWins;
+        /**
+         * Visits in the upper half, points in the lower half
+         */
+        volatile long stats;
+        volatile Node[] children;
+
+        Node(int move, boolean moverWins) {
+            this.move = move;
+            this.moverWins = moverWins;
+        }
+
+        void addVisit() {
+            STATS.getAndAdd(this, VISIT);
+        }
+
+        void addPoints(int points) {
+            STATS.getAndAdd(this, (long) points);
+        }
+
+        long visits() {
+            return stats >>> 32;
+        }
+
+        int points() {
+            return (int) stats;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package game.ai;
+
+import game.engine.BitBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy SMP search: every thread runs its own {@link AlphaBetaSearch} on the
+ * same position and they only cooperate through a shared
+ * {@link TranspositionTable}. Helper threads start at staggered depths so they
+ * fill the table with entries the main thread needs next.
+ * The search ends when the main thread completes or a helper completes the
+ * last iteration, and the deepest completed result of all threads is returned.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final TranspositionTable table;
+    private final AlphaBetaSearch[] searches;
+    private final ExecutorService executor;
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+
+    /**
+     * Creates a parallel search with a transposition table of its own.
+     *
+     * @param threads the number of search threads
+     */
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(AlphaBetaSearch.DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates a parallel search.
+     *
+     * @param threads the number of search threads
+     * @param table the table shared by the threads
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.table = table;
+        searches = new AlphaBetaSearch[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new AlphaBetaSearch(table);
+        }
+        int pool = POOL_NUMBER.incrementAndGet();
+        var threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "search-" + pool + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the number of search threads
+     */
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    /**
+     * @return the transposition table shared by the threads
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Searches the position until the time budget is used up, a forced result
+     * is found, or {@link AlphaBetaSearch#MAX_PLY} is reached.
+     *
+     * @param position the position to search, it is not modified
+     * @param timeBudgetMillis the hard limit of the search time
+     * @return the deepest completed result, with the nodes of all threads
+     */
+    public SearchResult search(BitBoard position, long timeBudgetMillis) {
+        return search(position, timeBudgetMillis, AlphaBetaSearch.MAX_PLY);
+    }
+
+    /**
+     * Searches the position up to the depth specified.
+     * Only one search may run at a time.
+     *
+     * @param position the position to search, it is not modified
+     * @param timeBudgetMillis the hard limit of the search time
+     * @param maxDepth the deepest iteration to search
+     * @return the deepest completed result, with the nodes of all threads
+     */
+    public synchronized SearchResult search(BitBoard position, long timeBudgetMillis, int maxDepth) {
+        long start = System.nanoTime();
+        long deadline = start + timeBudgetMillis * 1_000_000L;
+        var signal = new AtomicBoolean();
+        stopSignal = signal;
+        table.newSearch();
+        long probes = table.getProbes();
+        long hits = table.getHits();
+
+        List<Future<SearchResult>> helpers = new ArrayList<>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++) {
+            var search = searches[i];
+            int firstDepth = 1 + i % 2;
+            helpers.add(executor.submit(() -> {
+                var result = search.search(position, deadline, maxDepth, firstDepth, signal);
+                if (result.depth() >= maxDepth || result.isDecisive()) {
+                    signal.set(true);
+                }
+                return result;
+            }));
+        }
+        var main = executor.submit(() -> searches[0].search(position, deadline, maxDepth, 1, signal));
+        try {
+            SearchResult best = main.get();
+            signal.set(true);
+            long nodes = best.nodes();
+            for (var helper : helpers) {
+                var result = helper.get();
+                nodes += result.nodes();
+                if (result.depth() > best.depth() && result.bestMove() != -1) {
+                    best = result;
+                }
+            }
+            var result = new SearchResult(best.bestMove(), best.score(), best.depth(), nodes, System.nanoTime() - start);
+            SearchMetrics.record(result, table.getProbes() - probes, table.getHits() - hits);
+            return result;
+        } catch (InterruptedException e) {
+            signal.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            signal.set(true);
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Asks a running search to return as soon as possible.
+     * May be called from any thread.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Stops the search threads.
+     */
+    @Override
+    public void close() {
+        stop();
+        executor.shutdownNow();
+    }
+}
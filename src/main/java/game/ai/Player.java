@@ -0,0 +1,32 @@
+package game.ai;
+
+import game.engine.BitBoard;
+
+/**
+ * Represents a player that chooses moves without user interaction.
+ * An instance is used by one thread at a time.
+ */
+public interface Player extends AutoCloseable {
+
+    /**
+     * Called before every game, so that players drawing random numbers play
+     * the same game again for the same seed.
+     *
+     * @param seed the seed of the game
+     */
+    default void newGame(long seed) {
+    }
+
+    /**
+     * @param position the position in which the player is to move, it must not be modified
+     * @return the encoded move, or -1 if the player has no valid move
+     */
+    int chooseMove(BitBoard position);
+
+    /**
+     * Stops the threads of the player, it must not be used afterwards.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,95 @@
+package game.ai;
+
+import game.book.OpeningBook;
+import game.tablebase.MappedTablebase;
+import game.tablebase.RetrogradeSolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Creates players from textual specifications, used by the command-line tools.
+ * A specification is a type optionally followed by comma-separated options:
+ * <ul>
+ *     <li>{@code random}</li>
+ *     <li>{@code search:depth=6,ms=1000,hash=16}, every option is optional</li>
+ *     <li>{@code mcts:ms=1000,playouts=100000,threads=1}, every option is optional</li>
+ *     <li>{@code tablebase:file=tablebase.bin}</li>
+ * </ul>
+ * The {@code search} and {@code mcts} players also take a {@code book=book.bin}
+ * option, making them play the moves of that {@link OpeningBook} without searching.
+ */
+public final class Players {
+
+    private static final int DEFAULT_DEPTH = 6;
+    private static final long DEFAULT_MILLIS = 60_000;
+    private static final int DEFAULT_HASH_MEGABYTES = 4;
+    private static final long DEFAULT_PLAYOUTS = 10_000;
+
+    private Players() {
+    }
+
+    /**
+     * @param specification the specification of a player
+     * @return a factory creating an independent player on every call
+     * @throws IllegalArgumentException if the specification is invalid
+     */
+    public static Supplier<Player> parse(String specification) {
+        int colon = specification.indexOf(':');
+        String type = colon < 0 ? specification : specification.substring(0, colon);
+        Map<String, String> options = new HashMap<>();
+        if (colon >= 0) {
+            for (var option : specification.substring(colon + 1).split(",")) {
+                var keyValue = option.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("Invalid option: " + option);
+                }
+                options.put(keyValue[0].trim(), keyValue[1].trim());
+            }
+        }
+        Supplier<Player> factory = switch (type) {
+            case "random" -> RandomPlayer::new;
+            case "search" -> {
+                int depth = Integer.parseInt(options.getOrDefault("depth", String.valueOf(DEFAULT_DEPTH)));
+                long millis = Long.parseLong(options.getOrDefault("ms", String.valueOf(DEFAULT_MILLIS)));
+                int hash = Integer.parseInt(options.getOrDefault("hash", String.valueOf(DEFAULT_HASH_MEGABYTES)));
+                yield () -> new SearchPlayer(new TranspositionTable(hash), millis, depth);
+            }
+            case "mcts" -> {
+                long millis = Long.parseLong(options.getOrDefault("ms", String.valueOf(DEFAULT_MILLIS)));
+                long playouts = Long.parseLong(options.getOrDefault("playouts", String.valueOf(DEFAULT_PLAYOUTS)));
+                int threads = Integer.parseInt(options.getOrDefault("threads", "1"));
+                yield () -> new MonteCarloPlayer(threads, millis, playouts);
+            }
+            case "tablebase" -> {
+                var path = Path.of(options.getOrDefault("file", RetrogradeSolver.DEFAULT_FILE));
+                MappedTablebase tablebase;
+                try {
+                    tablebase = MappedTablebase.open(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                yield () -> new TablebasePlayer(tablebase);
+            }
+            default -> throw new IllegalArgumentException("Unknown player: " + type);
+        };
+        var bookFile = options.get("book");
+        if (bookFile == null) {
+            return factory;
+        }
+        if (!type.equals("search") && !type.equals("mcts")) {
+            throw new IllegalArgumentException("Player without book: " + type);
+        }
+        OpeningBook book;
+        try {
+            book = OpeningBook.open(Path.of(bookFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return () -> new BookPlayer(book, factory.get());
+    }
+}
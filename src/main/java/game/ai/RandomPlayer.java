@@ -0,0 +1,25 @@
+package game.ai;
+
+import game.engine.BitBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Player choosing uniformly among the valid moves.
+ */
+public class RandomPlayer implements Player {
+
+    private final int[] moves = new int[BitBoard.MAX_MOVES];
+    private SplittableRandom random = new SplittableRandom();
+
+    @Override
+    public void newGame(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int chooseMove(BitBoard position) {
+        int count = position.generateMoves(moves);
+        return count == 0 ? -1 : moves[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,74 @@
+package game.ai;
+
+import game.engine.BitBoard;
+
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Command-line report of how {@link ParallelSearch} scales with the number of
+ * threads. The time to reach a fixed depth from the starter position is
+ * measured at 1, 2, 4, 8 and all available threads, each with an empty table.
+ * {@link MonteCarloSearch} is then given the same time at every thread count,
+ * and its playouts per second are reported.
+ * <p>
+ * Usage: {@code ScalingReport [depth] [tableMegabytes] [repetitions]}
+ */
+public class ScalingReport {
+
+    private static final long NO_TIME_LIMIT_MILLIS = 24L * 60 * 60 * 1000;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 24;
+        int tableMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        var threadCounts = new TreeSet<Integer>();
+        for (int threads = 1; threads <= 8; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        System.out.printf("Time to depth %d from the starter position, %d MB table, %d cores, best of %d%n",
+                depth, tableMegabytes, cores, repetitions);
+        System.out.printf("%8s %12s %8s %14s %14s%n", "threads", "time (ms)", "speedup", "nodes", "nodes/s");
+        var table = new TranspositionTable(tableMegabytes);
+        double baseline = 0;
+        var times = new TreeMap<Integer, Long>();
+        for (int threads : threadCounts) {
+            SearchResult best = null;
+            try (var search = new ParallelSearch(threads, table)) {
+                for (int i = 0; i < repetitions; i++) {
+                    table.clear();
+                    var result = search.search(BitBoard.initial(), NO_TIME_LIMIT_MILLIS, depth);
+                    if (best == null || result.elapsedNanos() < best.elapsedNanos()) {
+                        best = result;
+                    }
+                }
+            }
+            double millis = best.elapsedNanos() / 1e6;
+            if (baseline == 0) {
+                baseline = millis;
+            }
+            times.put(threads, Math.max(1, best.elapsedNanos() / 1_000_000));
+            System.out.printf("%8d %12.1f %8.2f %14d %14d%n",
+                    threads, millis, baseline / millis, best.nodes(), best.nodesPerSecond());
+        }
+
+        System.out.printf("%nMonte Carlo tree search in the same time%n");
+        System.out.printf("%8s %12s %8s %14s %14s%n", "threads", "time (ms)", "speedup", "playouts", "playouts/s");
+        baseline = 0;
+        for (var entry : times.entrySet()) {
+            MonteCarloResult result;
+            try (var search = new MonteCarloSearch(entry.getKey())) {
+                result = search.search(BitBoard.initial(), entry.getValue(), Long.MAX_VALUE);
+            }
+            if (baseline == 0) {
+                baseline = result.playoutsPerSecond();
+            }
+            System.out.printf("%8d %12.1f %8.2f %14d %14d%n", entry.getKey(), result.elapsedNanos() / 1e6,
+                    result.playoutsPerSecond() / baseline, result.playouts(), result.playoutsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package game.ai;
+
+import game.metrics.Counter;
+import game.metrics.LatencyHistogram;
+import game.metrics.MetricsRegistry;
+
+/**
+ * Search metrics of the {@link MetricsRegistry#global() global registry},
+ * updated once per search rather than per node.
+ */
+final class SearchMetrics {
+
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.global();
+    private static final Counter SEARCHES = REGISTRY.counter("game_search_total", "Searches finished");
+    private static final Counter NODES = REGISTRY.counter("game_search_nodes_total", "Nodes searched");
+    private static final LatencyHistogram TIME = REGISTRY.histogram("game_search_time_nanoseconds", "Wall-clock time of a search");
+    private static final Counter PROBES = REGISTRY.counter("game_tt_probes_total", "Transposition table probes");
+    private static final Counter HITS = REGISTRY.counter("game_tt_hits_total", "Transposition table probes finding their position");
+
+    private static volatile double lastNodesPerSecond;
+
+    static {
+        REGISTRY.gauge("game_search_nodes_per_second", "Nodes per second of the last search", () -> lastNodesPerSecond);
+        REGISTRY.gauge("game_tt_hit_rate", "Share of transposition table probes finding their position",
+                () -> PROBES.getCount() == 0 ? 0 : (double) HITS.getCount() / PROBES.getCount());
+    }
+
+    private SearchMetrics() {
+    }
+
+    /**
+     * @param result a finished search
+     * @param probes the transposition table probes of the search
+     * @param hits the successful probes of the search
+     */
+    static void record(SearchResult result, long probes, long hits) {
+        SEARCHES.increment();
+        NODES.add(result.nodes());
+        TIME.record(result.elapsedNanos());
+        PROBES.add(probes);
+        HITS.add(hits);
+        lastNodesPerSecond = result.nodesPerSecond();
+    }
+}
@@ -0,0 +1,35 @@
+package game.ai;
+
+import game.engine.BitBoard;
+
+/**
+ * Player choosing the best move of an {@link AlphaBetaSearch}.
+ * The search is deterministic if only the depth limits it.
+ */
+public class SearchPlayer implements Player {
+
+    private final AlphaBetaSearch search;
+    private final long timeBudgetMillis;
+    private final int maxDepth;
+
+    /**
+     * @param table the transposition table of the search
+     * @param timeBudgetMillis the time limit of a move
+     * @param maxDepth the depth limit of a move
+     */
+    public SearchPlayer(TranspositionTable table, long timeBudgetMillis, int maxDepth) {
+        search = new AlphaBetaSearch(table);
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxDepth = maxDepth;
+    }
+
+    @Override
+    public void newGame(long seed) {
+        search.getTable().clear();
+    }
+
+    @Override
+    public int chooseMove(BitBoard position) {
+        return search.search(position, timeBudgetMillis, maxDepth).bestMove();
+    }
+}
@@ -0,0 +1,27 @@
+package game.ai;
+
+/**
+ * Represents the outcome of a search.
+ *
+ * @param bestMove the encoded best move, or -1 if the side to move has no move
+ * @param score the score of the best move from the point of view of the side to move
+ * @param depth the deepest completed iteration
+ * @param nodes the number of nodes visited
+ * @param elapsedNanos the wall-clock time of the search
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long elapsedNanos) {
+
+    /**
+     * @return the number of nodes visited per second
+     */
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * @return true if the score is a forced win or loss
+     */
+    public boolean isDecisive() {
+        return Math.abs(score) >= AlphaBetaSearch.WIN - AlphaBetaSearch.MAX_PLY;
+    }
+}
@@ -0,0 +1,24 @@
+package game.ai;
+
+import game.engine.BitBoard;
+import game.tablebase.MappedTablebase;
+
+/**
+ * Player choosing perfect moves from a tablebase.
+ */
+public class TablebasePlayer implements Player {
+
+    private final MappedTablebase tablebase;
+
+    /**
+     * @param tablebase the tablebase, it may be shared with other players
+     */
+    public TablebasePlayer(MappedTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    @Override
+    public int chooseMove(BitBoard position) {
+        return tablebase.bestMove(position);
+    }
+}
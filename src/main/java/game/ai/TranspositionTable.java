@@ -0,0 +1,260 @@
+package game.ai;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size transposition table that may be shared by several search threads
+ * without locks.
+ * The table is an off-heap buffer aligned to cache lines, each 64-byte line is
+ * a bucket of four entries. An entry is two longs, the key xor the data and the
+ * data, so a torn write by a concurrent thread is detected on probe and treated
+ * as a miss. Within a bucket, deeper and more recent entries are kept.
+ */
+public class TranspositionTable {
+
+    /**
+     * Bound type of an empty entry
+     */
+    public static final int BOUND_NONE = 0;
+
+    /**
+     * Bound type of an exact score
+     */
+    public static final int BOUND_EXACT = 1;
+
+    /**
+     * Bound type of a score that is at least the stored one
+     */
+    public static final int BOUND_LOWER = 2;
+
+    /**
+     * Bound type of a score that is at most the stored one
+     */
+    public static final int BOUND_UPPER = 3;
+
+    private static final int CACHE_LINE = 64;
+    private static final int ENTRIES_PER_BUCKET = 4;
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+    private static final int FILL_SAMPLE_BUCKETS = 1000;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer buffer;
+    private final long bucketMask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Creates a table of at most the size specified, rounded down to a power of two buckets.
+     *
+     * @param sizeMegabytes the size of the table
+     */
+    public TranspositionTable(int sizeMegabytes) {
+        if (sizeMegabytes <= 0 || sizeMegabytes > 1024) {
+            throw new IllegalArgumentException();
+        }
+        long buckets = Long.highestOneBit((long) sizeMegabytes * 1024 * 1024 / CACHE_LINE);
+        buffer = ByteBuffer.allocateDirect((int) (buckets * CACHE_LINE) + CACHE_LINE)
+                .alignedSlice(CACHE_LINE)
+                .order(ByteOrder.nativeOrder());
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Starts a new search, so entries of earlier searches are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Looks up the entry of a position.
+     *
+     * @param key the hash of the position
+     * @return the packed data of the entry, or 0 if there is none, see the static accessors
+     */
+    public long probe(long key) {
+        probes.increment();
+        int base = bucketOffset(key);
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+            int offset = base + i * ENTRY_BYTES;
+            long data = (long) LONGS.getOpaque(buffer, offset + Long.BYTES);
+            long check = (long) LONGS.getOpaque(buffer, offset);
+            if (data != 0 && (check ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of a search of a position.
+     *
+     * @param key the hash of the position
+     * @param move the best move found, or -1
+     * @param score the score, already adjusted to be independent of the distance from the root
+     * @param depth the remaining depth of the search
+     * @param bound {@link #BOUND_EXACT}, {@link #BOUND_LOWER} or {@link #BOUND_UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int currentGeneration = generation;
+        int base = bucketOffset(key);
+        int target = -1;
+        int worstValue = Integer.MAX_VALUE;
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+            int offset = base + i * ENTRY_BYTES;
+            long data = (long) LONGS.getOpaque(buffer, offset + Long.BYTES);
+            long check = (long) LONGS.getOpaque(buffer, offset);
+            if (data == 0) {
+                target = offset;
+                break;
+            }
+            if ((check ^ data) == key) {
+                if (depth < depthOf(data) && generationOf(data) == currentGeneration && bound != BOUND_EXACT) {
+                    return;
+                }
+                if (move == -1) {
+                    move = moveOf(data);
+                }
+                target = offset;
+                break;
+            }
+            int age = (currentGeneration - generationOf(data)) & 0xFF;
+            int value = depthOf(data) - 8 * age;
+            if (value < worstValue) {
+                worstValue = value;
+                target = offset;
+            }
+        }
+        long data = pack(move, score, depth, bound, currentGeneration);
+        LONGS.setOpaque(buffer, target, key ^ data);
+        LONGS.setOpaque(buffer, target + Long.BYTES, data);
+        stores.increment();
+    }
+
+    /**
+     * Removes every entry and resets the statistics.
+     * Must not be called while a search is running.
+     */
+    public void clear() {
+        for (int offset = 0; offset < buffer.capacity(); offset += Long.BYTES) {
+            LONGS.set(buffer, offset, 0L);
+        }
+        probes.reset();
+        hits.reset();
+        stores.reset();
+    }
+
+    /**
+     * @return the number of probes since the last {@link #clear()}
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * @return the number of successful probes since the last {@link #clear()}
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of stores since the last {@link #clear()}
+     */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * @return the ratio of successful probes
+     */
+    public double getHitRate() {
+        long probeCount = probes.sum();
+        return probeCount == 0 ? 0 : (double) hits.sum() / probeCount;
+    }
+
+    /**
+     * Estimates the ratio of entries written in the current search from a sample of buckets.
+     *
+     * @return a value between 0 and 1
+     */
+    public double getFillRate() {
+        int currentGeneration = generation;
+        long buckets = Math.min(bucketMask + 1, FILL_SAMPLE_BUCKETS);
+        int used = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+                long data = (long) LONGS.getOpaque(buffer, bucket * CACHE_LINE + i * ENTRY_BYTES + Long.BYTES);
+                if (data != 0 && generationOf(data) == currentGeneration) {
+                    used++;
+                }
+            }
+        }
+        return (double) used / (buckets * ENTRIES_PER_BUCKET);
+    }
+
+    /**
+     * @return the number of entries the table can hold
+     */
+    public long capacity() {
+        return (bucketMask + 1) * ENTRIES_PER_BUCKET;
+    }
+
+    private int bucketOffset(long key) {
+        return (int) (key & bucketMask) * CACHE_LINE;
+    }
+
+    private static long pack(int move, int score, int depth, int bound, int generation) {
+        return (score & 0xFFFFL)
+                | (long) (move & 0x3FF) << 16
+                | (long) (depth & 0xFF) << 26
+                | (long) bound << 34
+                | (long) generation << 36;
+    }
+
+    /**
+     * @param data the packed data of an entry
+     * @return the stored move, or -1
+     */
+    public static int moveOf(long data) {
+        int move = (int) (data >>> 16) & 0x3FF;
+        return move == 0x3FF ? -1 : move;
+    }
+
+    /**
+     * @param data the packed data of an entry
+     * @return the stored score
+     */
+    public static int scoreOf(long data) {
+        return (short) data;
+    }
+
+    /**
+     * @param data the packed data of an entry
+     * @return the stored depth
+     */
+    public static int depthOf(long data) {
+        return (int) (data >>> 26) & 0xFF;
+    }
+
+    /**
+     * @param data the packed data of an entry
+     * @return the stored bound type
+     */
+    public static int boundOf(long data) {
+        return (int) (data >>> 34) & 0x3;
+    }
+
+    private static int generationOf(long data) {
+        return (int) (data >>> 36) & 0xFF;
+    }
+}
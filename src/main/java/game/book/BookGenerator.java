@@ -0,0 +1,149 @@
+package game.book;
+
+import game.ai.AlphaBetaSearch;
+import game.ai.TranspositionTable;
+import game.engine.BitBoard;
+import game.engine.Symmetry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds an {@link OpeningBook} offline: every position reachable within the
+ * first plies from the starter position, with either side moving first, is
+ * searched to a fixed depth and its best move is stored. Positions are
+ * deduplicated under {@link Symmetry} before searching, and the searches are
+ * spread over a fixed number of threads, each with its own transposition table.
+ * The table is kept between the positions of a thread, so among equally good
+ * moves the one stored may depend on the number of threads.
+ * <p>
+ * Usage: {@code BookGenerator [--plies N] [--depth N] [--threads N] [--hash MB] [--output FILE]}
+ */
+public class BookGenerator {
+
+    private static final long NO_TIME_LIMIT_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final int plies;
+    private final int depth;
+    private final int threads;
+    private final int hashMegabytes;
+
+    /**
+     * @param plies the number of plies from the starter position covered by the book
+     * @param depth the depth of the search of every position
+     * @param threads the number of threads searching positions
+     * @param hashMegabytes the size of the transposition table of every thread
+     */
+    public BookGenerator(int plies, int depth, int threads, int hashMegabytes) {
+        if (plies < 1 || depth < 1 || threads < 1 || hashMegabytes < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.plies = plies;
+        this.depth = depth;
+        this.threads = threads;
+        this.hashMegabytes = hashMegabytes;
+    }
+
+    /**
+     * @return the canonical positions reached in fewer than {@code plies} moves
+     * in which the side to move has a move, in breadth-first order
+     */
+    public List<BitBoard> positions() {
+        var initial = BitBoard.initial();
+        var level = List.of(initial,
+                new BitBoard(initial.getPieces(BitBoard.BLUE), initial.getPieces(BitBoard.RED), initial.getSideToMove() ^ 1));
+        var seen = new HashSet<Long>();
+        List<BitBoard> positions = new ArrayList<>();
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        for (int ply = 0; ply < plies && !level.isEmpty(); ply++) {
+            List<BitBoard> next = new ArrayList<>();
+            for (var board : level) {
+                var canonical = Symmetry.canonical(board);
+                if (!seen.add(OpeningBook.hashOf(canonical)) || !canonical.hasMoves()) {
+                    continue;
+                }
+                positions.add(canonical);
+                int count = canonical.generateMoves(moves);
+                for (int i = 0; i < count; i++) {
+                    var child = new BitBoard(canonical);
+                    child.makeMove(moves[i]);
+                    if (child.winningLine(moves[i]) == 0) {
+                        next.add(child);
+                    }
+                }
+            }
+            level = next;
+        }
+        return positions;
+    }
+
+    /**
+     * Searches the positions and writes the book.
+     *
+     * @param path the file to write
+     * @return the number of positions in the book
+     * @throws IOException if the file cannot be written
+     */
+    public int generate(Path path) throws IOException {
+        var positions = positions();
+        long[] hashes = new long[positions.size()];
+        short[] moves = new short[positions.size()];
+        var next = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    var search = new AlphaBetaSearch(new TranspositionTable(hashMegabytes));
+                    for (int index = next.getAndIncrement(); index < positions.size(); index = next.getAndIncrement()) {
+                        var position = positions.get(index);
+                        hashes[index] = OpeningBook.hashOf(position);
+                        moves[index] = (short) search.search(position, NO_TIME_LIMIT_MILLIS, depth).bestMove();
+                    }
+                }));
+            }
+            for (var worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        OpeningBook.write(path, hashes, moves);
+        return positions.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Invalid option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        int plies = Integer.parseInt(options.getOrDefault("plies", "8"));
+        int depth = Integer.parseInt(options.getOrDefault("depth", "12"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int hash = Integer.parseInt(options.getOrDefault("hash", "16"));
+        var path = Path.of(options.getOrDefault("output", OpeningBook.DEFAULT_FILE));
+
+        long start = System.nanoTime();
+        int count = new BookGenerator(plies, depth, threads, hash).generate(path);
+        System.err.printf("%d positions written to %s in %.1f s%n", count, path.toAbsolutePath(), (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,184 @@
+package game.book;
+
+import game.engine.BitBoard;
+import game.engine.Symmetry;
+import game.engine.Zobrist;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Opening book served straight from a memory-mapped file.
+ * The file starts with a {@value #HEADER_BYTES}-byte header: the magic number,
+ * the format version and the number of positions. It is followed by the
+ * {@link Zobrist} hashes of the positions, which are canonical under
+ * {@link Symmetry}, as sorted 64-bit values, and then by the best move of
+ * every position as a 16-bit value in the same order. All numbers are
+ * little-endian. A lookup maps the position to its canonical representative,
+ * finds its hash by binary search and maps the move back.
+ * Lookups only use absolute reads of the mapped buffer, so an instance can be
+ * shared by any number of threads.
+ */
+public final class OpeningBook {
+
+    /**
+     * Name of the opening book used by the GUI if it exists
+     */
+    public static final String DEFAULT_FILE = "book.bin";
+
+    /**
+     * Magic number at the start of an opening book
+     */
+    public static final int MAGIC = 0x5454424B;
+
+    /**
+     * Version of the format
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    public static final int HEADER_BYTES = 16;
+
+    /**
+     * Byte order of the file
+     */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final ByteBuffer buffer;
+    private final int count;
+
+    private OpeningBook(ByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    /**
+     * Maps an opening book written by {@link #write(Path, long[], short[])}.
+     *
+     * @param path the opening book
+     * @return the book
+     * @throws IOException if the file cannot be read or is not an opening book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(BYTE_ORDER);
+            long count = header.getLong(8);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || count < 0
+                    || count > (Integer.MAX_VALUE - HEADER_BYTES) / (Long.BYTES + Short.BYTES)) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            long expectedSize = HEADER_BYTES + count * (Long.BYTES + Short.BYTES);
+            if (channel.size() != expectedSize) {
+                throw new IOException("Unexpected opening book size: " + channel.size());
+            }
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize).order(BYTE_ORDER);
+            return new OpeningBook(buffer, (int) count);
+        }
+    }
+
+    /**
+     * @param path the opening book
+     * @return the book, or an empty {@code Optional} if the file does not exist or cannot be mapped
+     */
+    public static Optional<OpeningBook> openIfExists(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(open(path));
+        } catch (IOException e) {
+            Logger.warn("Cannot open the opening book {}, it is not used: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes an opening book, replacing the file if it exists.
+     *
+     * @param path the file to write
+     * @param hashes the hashes of canonical positions, without duplicates
+     * @param moves the best move of every position, in the same order
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, long[] hashes, short[] moves) throws IOException {
+        if (hashes.length != moves.length) {
+            throw new IllegalArgumentException("Hashes and moves differ in length");
+        }
+        Integer[] order = new Integer[hashes.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        var buffer = ByteBuffer.allocate(HEADER_BYTES + hashes.length * (Long.BYTES + Short.BYTES)).order(BYTE_ORDER);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(hashes.length);
+        for (int i = 0; i < order.length; i++) {
+            if (i > 0 && hashes[order[i]] == hashes[order[i - 1]]) {
+                throw new IllegalArgumentException("Duplicate hash: " + hashes[order[i]]);
+            }
+            buffer.putLong(hashes[order[i]]);
+        }
+        for (var index : order) {
+            buffer.putShort(moves[index]);
+        }
+        buffer.flip();
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * @param canonical a position that is canonical under {@link Symmetry}
+     * @return the key of the position in a book
+     */
+    public static long hashOf(BitBoard canonical) {
+        return Zobrist.hash(canonical.getPieces(BitBoard.BLUE), canonical.getPieces(BitBoard.RED),
+                canonical.getSideToMove());
+    }
+
+    /**
+     * @return the number of positions in the book
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param board a position, it is not modified
+     * @return the book move of the position, or -1 if the position is not in the book
+     */
+    public int lookup(BitBoard board) {
+        int transform = Symmetry.canonicalTransform(board);
+        long hash = hashOf(Symmetry.transform(transform, board));
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long value = buffer.getLong(HEADER_BYTES + middle * Long.BYTES);
+            if (value < hash) {
+                low = middle + 1;
+            } else if (value > hash) {
+                high = middle - 1;
+            } else {
+                int move = Symmetry.transformMove(transform,
+                        buffer.getShort(HEADER_BYTES + count * Long.BYTES + middle * Short.BYTES));
+                return board.isLegal(move) ? move : -1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,356 @@
+package game.engine;
+
+import game.model.CircleType;
+import game.model.Direction;
+import game.model.GameModel;
+import game.model.Position;
+
+/**
+ * Represents a headless, allocation-free copy of the game state.
+ * The board is packed into one bit mask per {@link CircleType}, where bit
+ * {@code row * COLS + col} is set if a circle of that type stands on the cell.
+ * Moves are encoded as ints, see {@link #encodeMove(int, int)}.
+ */
+public final class BitBoard {
+
+    /**
+     * Height of the board
+     */
+    public static final int ROWS = GameModel.MAX_ROW_SIZE;
+
+    /**
+     * Width of the board
+     */
+    public static final int COLS = GameModel.MAX_COL_SIZE;
+
+    /**
+     * Number of cells on the board
+     */
+    public static final int CELLS = ROWS * COLS;
+
+    /**
+     * Mask with every cell of the board set
+     */
+    public static final int FULL_MASK = (1 << CELLS) - 1;
+
+    /**
+     * Upper bound of the number of moves in any position
+     */
+    public static final int MAX_MOVES = 4 * Direction.values().length;
+
+    /**
+     * Side to move value of the blue player
+     */
+    public static final int BLUE = 0;
+
+    /**
+     * Side to move value of the red player
+     */
+    public static final int RED = 1;
+
+    private static final int CELL_BITS = 5;
+    private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+
+    private static final int[] NEIGHBOURS = new int[CELLS];
+
+    static {
+        for (int cell = 0; cell < CELLS; cell++) {
+            var position = positionOf(cell);
+            int mask = 0;
+            for (var direction : Direction.values()) {
+                var neighbour = position.getPositionAt(direction);
+                if (isOnBoard(neighbour.row(), neighbour.col())) {
+                    mask |= 1 << cellOf(neighbour.row(), neighbour.col());
+                }
+            }
+            NEIGHBOURS[cell] = mask;
+        }
+    }
+
+    private final int[] pieces = new int[2];
+    private int sideToMove;
+    private long hash;
+
+    /**
+     * Creates a {@code BitBoard} from the masks specified.
+     *
+     * @param blue the cells occupied by blue circles
+     * @param red the cells occupied by red circles
+     * @param sideToMove {@link #BLUE} or {@link #RED}
+     */
+    public BitBoard(int blue, int red, int sideToMove) {
+        if ((blue & red) != 0 || ((blue | red) & ~FULL_MASK) != 0 || (sideToMove & ~1) != 0) {
+            throw new IllegalArgumentException();
+        }
+        pieces[BLUE] = blue;
+        pieces[RED] = red;
+        this.sideToMove = sideToMove;
+        hash = Zobrist.hash(blue, red, sideToMove);
+    }
+
+    /**
+     * Creates a copy of the {@code BitBoard} specified.
+     *
+     * @param other the board to copy
+     */
+    public BitBoard(BitBoard other) {
+        this(other.pieces[BLUE], other.pieces[RED], other.sideToMove);
+    }
+
+    /**
+     * @return a board that corresponds to the starter state of {@link GameModel}, blue to move
+     */
+    public static BitBoard initial() {
+        int blue = 1 << cellOf(0, 0) | 1 << cellOf(0, 2) | 1 << cellOf(ROWS - 1, 1) | 1 << cellOf(ROWS - 1, 3);
+        int red = 1 << cellOf(0, 1) | 1 << cellOf(0, 3) | 1 << cellOf(ROWS - 1, 0) | 1 << cellOf(ROWS - 1, 2);
+        return new BitBoard(blue, red, BLUE);
+    }
+
+    /**
+     * Creates a {@code BitBoard} from the circles of a {@link GameModel}.
+     * The side to move is determined by {@link GameModel#getPlayerTurn()} the same
+     * way {@link GameModel#getCirclePositions()} does.
+     *
+     * @param model the model to convert
+     * @return a board holding the same state as the model
+     */
+    public static BitBoard of(GameModel model) {
+        int sideToMove = model.getPlayerTurn() % 2 == 0 ? BLUE : RED;
+        int blue = 0;
+        int red = 0;
+        for (int i = 0; i < model.getCircleCount(); i++) {
+            int bit = 1 << model.getCircleCell(i);
+            if (model.getCircleType(i) == CircleType.BLUE) {
+                blue |= bit;
+            } else {
+                red |= bit;
+            }
+        }
+        return new BitBoard(blue, red, sideToMove);
+    }
+
+    /**
+     * @param type the type of the circles
+     * @return the cells occupied by circles of the type specified
+     */
+    public int getPieces(CircleType type) {
+        return pieces[type.ordinal()];
+    }
+
+    /**
+     * @param side {@link #BLUE} or {@link #RED}
+     * @return the cells occupied by the side specified
+     */
+    public int getPieces(int side) {
+        return pieces[side];
+    }
+
+    /**
+     * @return the cells occupied by any circle
+     */
+    public int getOccupied() {
+        return pieces[BLUE] | pieces[RED];
+    }
+
+    /**
+     * @return {@link #BLUE} or {@link #RED}
+     */
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * @return the {@link Zobrist} hash of the state, maintained incrementally
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Writes every legal move of the side to move into the buffer specified.
+     *
+     * @param moves a buffer of at least {@link #MAX_MOVES} elements
+     * @return the number of moves written
+     */
+    public int generateMoves(int[] moves) {
+        int empty = ~getOccupied() & FULL_MASK;
+        int count = 0;
+        for (int own = pieces[sideToMove]; own != 0; own &= own - 1) {
+            int from = Integer.numberOfTrailingZeros(own);
+            for (int targets = NEIGHBOURS[from] & empty; targets != 0; targets &= targets - 1) {
+                moves[count++] = encodeMove(from, Integer.numberOfTrailingZeros(targets));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return true if the side to move has at least one legal move
+     */
+    public boolean hasMoves() {
+        int empty = ~getOccupied() & FULL_MASK;
+        for (int own = pieces[sideToMove]; own != 0; own &= own - 1) {
+            if ((NEIGHBOURS[Integer.numberOfTrailingZeros(own)] & empty) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param move an encoded move
+     * @return true if the side to move may play the move
+     */
+    public boolean isLegal(int move) {
+        int from = moveFrom(move);
+        int to = moveTo(move);
+        return from < CELLS && to < CELLS
+                && (pieces[sideToMove] & (1 << from)) != 0
+                && (NEIGHBOURS[from] & (1 << to)) != 0
+                && (getOccupied() & (1 << to)) == 0;
+    }
+
+    /**
+     * Moves a circle of the side to move and passes the turn.
+     * The move is not validated, see {@link #isLegal(int)}.
+     *
+     * @param move an encoded move
+     */
+    public void makeMove(int move) {
+        pieces[sideToMove] ^= (1 << moveFrom(move)) | (1 << moveTo(move));
+        hash ^= Zobrist.moveKey(sideToMove, move);
+        sideToMove ^= 1;
+    }
+
+    /**
+     * Takes back a move previously made by {@link #makeMove(int)}.
+     *
+     * @param move the encoded move to take back
+     */
+    public void unmakeMove(int move) {
+        sideToMove ^= 1;
+        pieces[sideToMove] ^= (1 << moveFrom(move)) | (1 << moveTo(move));
+        hash ^= Zobrist.moveKey(sideToMove, move);
+    }
+
+    /**
+     * Checks whether the move just made by {@link #makeMove(int)} won the game.
+     * Only the lines through the destination cell are tested.
+     *
+     * @param move the encoded move just made
+     * @return the mask of the winning line, or 0 if the move did not win
+     */
+    public int winningLine(int move) {
+        return WinLines.winningLine(pieces[sideToMove ^ 1], moveTo(move));
+    }
+
+    /**
+     * @param side {@link #BLUE} or {@link #RED}
+     * @return true if the side specified has three circles in a line
+     */
+    public boolean hasLine(int side) {
+        return WinLines.winningLine(pieces[side]) != 0;
+    }
+
+    /**
+     * @param cell the index of a cell
+     * @return the cells four-adjacent to the cell specified
+     */
+    public static int neighbours(int cell) {
+        return NEIGHBOURS[cell];
+    }
+
+    /**
+     * @param from the cell the circle moves from
+     * @param to the cell the circle moves to
+     * @return the encoded move
+     */
+    public static int encodeMove(int from, int to) {
+        return from | (to << CELL_BITS);
+    }
+
+    /**
+     * @param move an encoded move
+     * @return the cell the circle moves from
+     */
+    public static int moveFrom(int move) {
+        return move & CELL_MASK;
+    }
+
+    /**
+     * @param move an encoded move
+     * @return the cell the circle moves to
+     */
+    public static int moveTo(int move) {
+        return (move >>> CELL_BITS) & CELL_MASK;
+    }
+
+    /**
+     * @param row the row of a cell
+     * @param col the column of a cell
+     * @return the index of the cell
+     */
+    public static int cellOf(int row, int col) {
+        return row * COLS + col;
+    }
+
+    /**
+     * @param position a position on the board
+     * @return the index of the cell
+     */
+    public static int cellOf(Position position) {
+        return cellOf(position.row(), position.col());
+    }
+
+    /**
+     * @param cell the index of a cell
+     * @return the position of the cell
+     */
+    public static Position positionOf(int cell) {
+        return Position.of(cell / COLS, cell % COLS);
+    }
+
+    /**
+     * @param move an encoded move
+     * @return the direction in which the circle moves
+     */
+    public static Direction directionOf(int move) {
+        int from = moveFrom(move);
+        int to = moveTo(move);
+        return Direction.of(to / COLS - from / COLS, to % COLS - from % COLS);
+    }
+
+    private static boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < ROWS && col >= 0 && col < COLS;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BitBoard other)) {
+            return false;
+        }
+        return pieces[BLUE] == other.pieces[BLUE] && pieces[RED] == other.pieces[RED]
+                && sideToMove == other.sideToMove;
+    }
+
+    @Override
+    public int hashCode() {
+        return (pieces[BLUE] * 31 + pieces[RED]) * 2 + sideToMove;
+    }
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder();
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                int bit = 1 << cellOf(row, col);
+                builder.append((pieces[BLUE] & bit) != 0 ? 'B' : (pieces[RED] & bit) != 0 ? 'R' : '.');
+            }
+            builder.append('\n');
+        }
+        return builder.append(sideToMove == BLUE ? "BLUE" : "RED").append(" to move").toString();
+    }
+}
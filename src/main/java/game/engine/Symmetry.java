@@ -0,0 +1,161 @@
+package game.engine;
+
+/**
+ * Symmetries of the game: the left-right mirror, the top-bottom mirror, their
+ * combination, and the swap of the two colours together with the side to move.
+ * Each of the eight transforms maps any position to one with the same outcome
+ * for the side to move, and every transform is its own inverse.
+ * The canonical representative of a position is its image with the smallest
+ * {@link #key(int, int, int)}, so caches, books and tablebases only have to
+ * store canonical positions.
+ */
+public final class Symmetry {
+
+    /**
+     * Number of transforms, including the identity
+     */
+    public static final int COUNT = 8;
+
+    /**
+     * The transform that leaves every position unchanged
+     */
+    public static final int IDENTITY = 0;
+
+    private static final int MIRROR_COLS = 1;
+    private static final int MIRROR_ROWS = 2;
+    private static final int SWAP_COLOURS = 4;
+
+    private static final int[][] CELL_MAP = new int[COUNT][BitBoard.CELLS];
+
+    static {
+        for (int transform = 0; transform < COUNT; transform++) {
+            for (int row = 0; row < BitBoard.ROWS; row++) {
+                for (int col = 0; col < BitBoard.COLS; col++) {
+                    int newRow = (transform & MIRROR_ROWS) != 0 ? BitBoard.ROWS - 1 - row : row;
+                    int newCol = (transform & MIRROR_COLS) != 0 ? BitBoard.COLS - 1 - col : col;
+                    CELL_MAP[transform][BitBoard.cellOf(row, col)] = BitBoard.cellOf(newRow, newCol);
+                }
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /**
+     * @param transform a transform between 0 and {@link #COUNT}
+     * @return true if the transform swaps the colours and the side to move
+     */
+    public static boolean swapsColours(int transform) {
+        return (transform & SWAP_COLOURS) != 0;
+    }
+
+    /**
+     * @param transform a transform between 0 and {@link #COUNT}
+     * @param cell the index of a cell
+     * @return the image of the cell
+     */
+    public static int transformCell(int transform, int cell) {
+        return CELL_MAP[transform][cell];
+    }
+
+    /**
+     * @param transform a transform between 0 and {@link #COUNT}
+     * @param cells a mask of cells
+     * @return the image of the cells
+     */
+    public static int transformCells(int transform, int cells) {
+        if ((transform & (MIRROR_COLS | MIRROR_ROWS)) == 0) {
+            return cells;
+        }
+        int[] map = CELL_MAP[transform];
+        int image = 0;
+        for (; cells != 0; cells &= cells - 1) {
+            image |= 1 << map[Integer.numberOfTrailingZeros(cells)];
+        }
+        return image;
+    }
+
+    /**
+     * Maps a move of a position to the corresponding move of its image.
+     * As every transform is its own inverse, the same call maps moves of the
+     * image back to the original position.
+     *
+     * @param transform a transform between 0 and {@link #COUNT}
+     * @param move an encoded move
+     * @return the image of the move
+     */
+    public static int transformMove(int transform, int move) {
+        return BitBoard.encodeMove(CELL_MAP[transform][BitBoard.moveFrom(move)], CELL_MAP[transform][BitBoard.moveTo(move)]);
+    }
+
+    /**
+     * @param transform a transform between 0 and {@link #COUNT}
+     * @param board a position
+     * @return the image of the position
+     */
+    public static BitBoard transform(int transform, BitBoard board) {
+        int blue = transformCells(transform, board.getPieces(BitBoard.BLUE));
+        int red = transformCells(transform, board.getPieces(BitBoard.RED));
+        if (swapsColours(transform)) {
+            return new BitBoard(red, blue, board.getSideToMove() ^ 1);
+        }
+        return new BitBoard(blue, red, board.getSideToMove());
+    }
+
+    /**
+     * @param blue the cells occupied by blue circles
+     * @param red the cells occupied by red circles
+     * @param sideToMove {@link BitBoard#BLUE} or {@link BitBoard#RED}
+     * @return a number identifying the position, used to order the images of a position
+     */
+    public static long key(int blue, int red, int sideToMove) {
+        return (long) blue << (BitBoard.CELLS + 1) | (long) red << 1 | sideToMove;
+    }
+
+    /**
+     * @param board a position
+     * @return the transform mapping the position to its canonical representative
+     */
+    public static int canonicalTransform(BitBoard board) {
+        return canonicalTransform(board.getPieces(BitBoard.BLUE), board.getPieces(BitBoard.RED), board.getSideToMove());
+    }
+
+    /**
+     * @param blue the cells occupied by blue circles
+     * @param red the cells occupied by red circles
+     * @param sideToMove {@link BitBoard#BLUE} or {@link BitBoard#RED}
+     * @return the transform mapping the position to its canonical representative
+     */
+    public static int canonicalTransform(int blue, int red, int sideToMove) {
+        int best = IDENTITY;
+        long bestKey = key(blue, red, sideToMove);
+        for (int transform = 1; transform < COUNT; transform++) {
+            int newBlue = transformCells(transform, blue);
+            int newRed = transformCells(transform, red);
+            long key = swapsColours(transform) ? key(newRed, newBlue, sideToMove ^ 1) : key(newBlue, newRed, sideToMove);
+            if (key < bestKey) {
+                bestKey = key;
+                best = transform;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param board a position
+     * @return the canonical representative of the position
+     */
+    public static BitBoard canonical(BitBoard board) {
+        return transform(canonicalTransform(board), board);
+    }
+
+    /**
+     * @param board a position
+     * @return the key of the canonical representative, equal for all symmetric positions
+     */
+    public static long canonicalKey(BitBoard board) {
+        var canonical = canonical(board);
+        return key(canonical.getPieces(BitBoard.BLUE), canonical.getPieces(BitBoard.RED), canonical.getSideToMove());
+    }
+}
@@ -0,0 +1,109 @@
+package game.engine;
+
+import game.model.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed table of every line of three adjacent cells on the board,
+ * vertically, horizontally or diagonally. Each line is a bit mask over the
+ * cells of {@link BitBoard}, and the lines are also indexed by cell so that
+ * only the lines through a moved circle have to be tested.
+ */
+public final class WinLines {
+
+    /**
+     * Number of circles needed in a line to win
+     */
+    public static final int LINE_LENGTH = 3;
+
+    private static final int[][] STEPS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private static final int[] LINES;
+    private static final int[][] LINES_BY_CELL = new int[BitBoard.CELLS][];
+
+    static {
+        List<Integer> lines = new ArrayList<>();
+        for (int row = 0; row < BitBoard.ROWS; row++) {
+            for (int col = 0; col < BitBoard.COLS; col++) {
+                for (var step : STEPS) {
+                    int lastRow = row + step[0] * (LINE_LENGTH - 1);
+                    int lastCol = col + step[1] * (LINE_LENGTH - 1);
+                    if (lastRow < BitBoard.ROWS && lastCol >= 0 && lastCol < BitBoard.COLS) {
+                        int mask = 0;
+                        for (int i = 0; i < LINE_LENGTH; i++) {
+                            mask |= 1 << BitBoard.cellOf(row + step[0] * i, col + step[1] * i);
+                        }
+                        lines.add(mask);
+                    }
+                }
+            }
+        }
+        LINES = lines.stream().mapToInt(Integer::intValue).toArray();
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            int bit = 1 << cell;
+            LINES_BY_CELL[cell] = lines.stream().mapToInt(Integer::intValue).filter(line -> (line & bit) != 0).toArray();
+        }
+    }
+
+    private WinLines() {
+    }
+
+    /**
+     * @return the number of lines on the board
+     */
+    public static int count() {
+        return LINES.length;
+    }
+
+    /**
+     * @param index the index of a line, between 0 and {@link #count()}
+     * @return the mask of the line
+     */
+    public static int line(int index) {
+        return LINES[index];
+    }
+
+    /**
+     * Tests only the lines through the cell specified, which is enough after a
+     * circle was moved to that cell.
+     *
+     * @param pieces the cells occupied by the circles of one player
+     * @param cell the cell a circle of the player was moved to
+     * @return the mask of a completed line through the cell, or 0 if there is none
+     */
+    public static int winningLine(int pieces, int cell) {
+        for (int line : LINES_BY_CELL[cell]) {
+            if ((pieces & line) == line) {
+                return line;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param pieces the cells occupied by the circles of one player
+     * @return the mask of a completed line anywhere on the board, or 0 if there is none
+     */
+    public static int winningLine(int pieces) {
+        for (int line : LINES) {
+            if ((pieces & line) == line) {
+                return line;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param line the mask of a line
+     * @return the positions of the cells of the line, in cell order
+     */
+    public static List<Position> toPositions(int line) {
+        List<Position> positions = new ArrayList<>(LINE_LENGTH);
+        for (int cells = line; cells != 0; cells &= cells - 1) {
+            positions.add(BitBoard.positionOf(Integer.numberOfTrailingZeros(cells)));
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,87 @@
+package game.engine;
+
+import game.model.CircleType;
+import game.model.GameModel;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist hashing of the game state: one random key per {@link CircleType}
+ * and cell, plus a key for the side to move. The keys are generated from a
+ * fixed seed, so hashes are stable between runs and can be stored in files.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5EED_7AC7_0E5L;
+
+    private static final long[][] PIECE_KEYS = new long[2][BitBoard.CELLS];
+
+    private static final long SIDE_KEY;
+
+    static {
+        var random = new SplittableRandom(SEED);
+        for (var keys : PIECE_KEYS) {
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                keys[cell] = random.nextLong();
+            }
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param side {@link BitBoard#BLUE} or {@link BitBoard#RED}
+     * @param cell the index of a cell
+     * @return the key of a circle of the side standing on the cell
+     */
+    public static long pieceKey(int side, int cell) {
+        return PIECE_KEYS[side][cell];
+    }
+
+    /**
+     * @return the key toggled whenever the side to move changes
+     */
+    public static long sideKey() {
+        return SIDE_KEY;
+    }
+
+    /**
+     * @param side {@link BitBoard#BLUE} or {@link BitBoard#RED}
+     * @param move an encoded move of the side
+     * @return the value to xor into a hash when the side makes or takes back the move
+     */
+    public static long moveKey(int side, int move) {
+        return PIECE_KEYS[side][BitBoard.moveFrom(move)] ^ PIECE_KEYS[side][BitBoard.moveTo(move)] ^ SIDE_KEY;
+    }
+
+    /**
+     * @param blue the cells occupied by blue circles
+     * @param red the cells occupied by red circles
+     * @param sideToMove {@link BitBoard#BLUE} or {@link BitBoard#RED}
+     * @return the hash of the state
+     */
+    public static long hash(int blue, int red, int sideToMove) {
+        long hash = sideToMove == BitBoard.RED ? SIDE_KEY : 0;
+        for (int cells = blue; cells != 0; cells &= cells - 1) {
+            hash ^= PIECE_KEYS[BitBoard.BLUE][Integer.numberOfTrailingZeros(cells)];
+        }
+        for (int cells = red; cells != 0; cells &= cells - 1) {
+            hash ^= PIECE_KEYS[BitBoard.RED][Integer.numberOfTrailingZeros(cells)];
+        }
+        return hash;
+    }
+
+    /**
+     * @param model a game model
+     * @return the hash of the circle positions and the parity of {@link GameModel#getPlayerTurn()}
+     */
+    public static long hash(GameModel model) {
+        long hash = model.getPlayerTurn() % 2 == 0 ? 0 : SIDE_KEY;
+        for (int i = 0; i < model.getCircleCount(); i++) {
+            hash ^= PIECE_KEYS[model.getCircleType(i).ordinal()][BitBoard.cellOf(model.getCirclePosition(i))];
+        }
+        return hash;
+    }
+}
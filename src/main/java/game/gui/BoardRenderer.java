@@ -0,0 +1,40 @@
+package game.gui;
+
+import game.model.GameModel;
+import game.model.Position;
+
+/**
+ * Draws the board of the game. The controller tells the renderer what has
+ * changed, and the renderer reports the clicks on cells.
+ */
+interface BoardRenderer {
+
+    /**
+     * Flag of a cell whose circle can be selected or which the selected circle can move to
+     */
+    int SELECTABLE = 1;
+
+    /**
+     * Flag of a cell of the winning line
+     */
+    int WINNING = 2;
+
+    /**
+     * Removes the circles drawn, then draws the circles of the model.
+     *
+     * @param model the model of a new game
+     */
+    void placeCircles(GameModel model);
+
+    /**
+     * @param from the old position of a circle
+     * @param to the new position of the circle
+     */
+    void moveCircle(Position from, Position to);
+
+    /**
+     * @param position the position of a cell
+     * @param flags the combination of {@link #SELECTABLE} and {@link #WINNING} the cell has
+     */
+    void setCellFlags(Position position, int flags);
+}
@@ -0,0 +1,176 @@
+package game.gui;
+
+import game.model.CircleType;
+import game.model.GameModel;
+import game.model.Position;
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Draws the board on a single {@link Canvas} in place of the grid pane,
+ * keeping its size, padding and gaps. Changes only update the state of the
+ * cells and mark the canvas dirty; an {@link AnimationTimer} redraws it at most
+ * once per frame, so any number of moves between two frames costs one redraw.
+ * A selectable cell is highlighted under the mouse, like the {@code :hover}
+ * style of the grid.
+ */
+class CanvasBoardRenderer implements BoardRenderer {
+
+    private static final double CIRCLE_RADIUS = 50;
+    private static final double BORDER_WIDTH = 1;
+    private static final double SELECTABLE_BORDER_WIDTH = 5;
+
+    private final Canvas canvas;
+    private final int rows;
+    private final int cols;
+    private final double left;
+    private final double top;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final double hgap;
+    private final double vgap;
+
+    /**
+     * The type of the circle on each cell, null if the cell is empty
+     */
+    private final CircleType[][] circles;
+    private final int[][] flags;
+    private int hoverRow = -1;
+    private int hoverCol = -1;
+    private boolean dirty = true;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (dirty) {
+                dirty = false;
+                draw();
+            }
+        }
+    };
+
+    /**
+     * Replaces the grid pane in its parent with a canvas of the same size and position.
+     *
+     * @param board the grid pane of the board, with its row and column constraints
+     * @param onClick receives the position of a clicked cell
+     */
+    CanvasBoardRenderer(GridPane board, Consumer<Position> onClick) {
+        rows = board.getRowCount();
+        cols = board.getColumnCount();
+        double width = board.getPrefWidth();
+        double height = board.getPrefHeight();
+        var padding = board.getPadding();
+        left = padding.getLeft();
+        top = padding.getTop();
+        hgap = board.getHgap();
+        vgap = board.getVgap();
+        cellWidth = (width - left - padding.getRight() - hgap * (cols - 1)) / cols;
+        cellHeight = (height - top - padding.getBottom() - vgap * (rows - 1)) / rows;
+        circles = new CircleType[rows][cols];
+        flags = new int[rows][cols];
+
+        canvas = new Canvas(width, height);
+        canvas.setLayoutX(board.getLayoutX());
+        canvas.setLayoutY(board.getLayoutY());
+        canvas.setOnMouseClicked(event -> {
+            var position = cellAt(event);
+            if (position != null) {
+                onClick.accept(position);
+            }
+        });
+        canvas.setOnMouseMoved(this::updateHover);
+        canvas.setOnMouseExited(this::updateHover);
+        var children = ((Pane) board.getParent()).getChildren();
+        children.set(children.indexOf(board), canvas);
+        timer.start();
+    }
+
+    @Override
+    public void placeCircles(GameModel model) {
+        for (var row : circles) {
+            Arrays.fill(row, null);
+        }
+        for (int i = 0; i < model.getCircleCount(); i++) {
+            var position = model.getCirclePosition(i);
+            circles[position.row()][position.col()] = model.getCircleType(i);
+        }
+        dirty = true;
+    }
+
+    @Override
+    public void moveCircle(Position from, Position to) {
+        circles[to.row()][to.col()] = circles[from.row()][from.col()];
+        circles[from.row()][from.col()] = null;
+        dirty = true;
+    }
+
+    @Override
+    public void setCellFlags(Position position, int flags) {
+        this.flags[position.row()][position.col()] = flags;
+        dirty = true;
+    }
+
+    private Position cellAt(MouseEvent event) {
+        int col = (int) Math.floor((event.getX() - left) / (cellWidth + hgap));
+        int row = (int) Math.floor((event.getY() - top) / (cellHeight + vgap));
+        if (row < 0 || row >= rows || col < 0 || col >= cols
+                || event.getX() - left - col * (cellWidth + hgap) > cellWidth
+                || event.getY() - top - row * (cellHeight + vgap) > cellHeight) {
+            return null;
+        }
+        return Position.of(row, col);
+    }
+
+    private void updateHover(MouseEvent event) {
+        var position = event.getEventType() == MouseEvent.MOUSE_EXITED ? null : cellAt(event);
+        int row = position == null ? -1 : position.row();
+        int col = position == null ? -1 : position.col();
+        if (row != hoverRow || col != hoverCol) {
+            hoverRow = row;
+            hoverCol = col;
+            dirty = true;
+        }
+    }
+
+    private void draw() {
+        var graphics = canvas.getGraphicsContext2D();
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                drawCell(graphics, row, col);
+            }
+        }
+    }
+
+    private void drawCell(GraphicsContext graphics, int row, int col) {
+        double x = left + col * (cellWidth + hgap);
+        double y = top + row * (cellHeight + vgap);
+        boolean selectable = (flags[row][col] & SELECTABLE) != 0;
+        if ((flags[row][col] & WINNING) != 0) {
+            graphics.setFill(Color.GREEN);
+            graphics.fillRect(x, y, cellWidth, cellHeight);
+        } else if (selectable && row == hoverRow && col == hoverCol) {
+            graphics.setFill(Color.SILVER);
+            graphics.fillRect(x, y, cellWidth, cellHeight);
+        }
+        double borderWidth = selectable ? SELECTABLE_BORDER_WIDTH : BORDER_WIDTH;
+        graphics.setStroke(Color.BLACK);
+        graphics.setLineWidth(borderWidth);
+        graphics.strokeRect(x + borderWidth / 2, y + borderWidth / 2, cellWidth - borderWidth, cellHeight - borderWidth);
+        var type = circles[row][col];
+        if (type != null) {
+            double radius = Math.min(CIRCLE_RADIUS, Math.min(cellWidth, cellHeight) / 2 - borderWidth);
+            graphics.setFill(Color.valueOf(type.name()));
+            graphics.fillOval(x + cellWidth / 2 - radius, y + cellHeight / 2 - radius, 2 * radius, 2 * radius);
+        }
+    }
+}
@@ -1,15 +1,88 @@
 package game.gui;
 
+import game.history.GameLog;
+import game.history.GameLogWriter;
+import game.history.PlayerStatsStore;
+import game.metrics.PrometheusDump;
+import game.trace.EventTracer;
+import game.trace.Trace;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.tinylog.Logger;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
 
 public class GameApplication extends Application {
 
+    /**
+     * Number of unsynced games that triggers a sync of the game log, set by the {@code game.log.syncEvery} system property
+     */
+    private static final int LOG_SYNC_EVERY = Integer.getInteger("game.log.syncEvery", GameLogWriter.DEFAULT_SYNC_EVERY_RECORDS);
+
+    /**
+     * Time after which unsynced games are synced, set by the {@code game.log.syncMillis} system property
+     */
+    private static final long LOG_SYNC_MILLIS = Long.getLong("game.log.syncMillis", GameLogWriter.DEFAULT_SYNC_INTERVAL_MILLIS);
+
+    private static volatile GameLogWriter gameLog;
+
+    private static volatile PlayerStatsStore playerStats;
+
+    private static volatile EventTracer tracer;
+
+    private static volatile PrometheusDump metricsDump;
+
+    private static volatile GameController gameController;
+
+    /**
+     * @return the log the finished games are appended to, empty if it could not be opened
+     */
+    static Optional<GameLogWriter> getGameLog() {
+        return Optional.ofNullable(gameLog);
+    }
+
+    /**
+     * @return the statistics of the players in the game log, empty if they could not be loaded
+     */
+    static Optional<PlayerStatsStore> getPlayerStats() {
+        return Optional.ofNullable(playerStats);
+    }
+
+    /**
+     * @param controller the controller of the game being played, stopped when the application exits
+     */
+    static void setGameController(GameController controller) {
+        gameController = controller;
+    }
+
+    @Override
+    public void init() {
+        metricsDump = PrometheusDump.startFromProperties().orElse(null);
+        try {
+            tracer = Trace.startFromProperty().orElse(null);
+        } catch (IOException e) {
+            Logger.error(e, "Cannot open the trace file, events will not be traced");
+        }
+        try {
+            gameLog = GameLogWriter.open(Path.of(GameLog.DEFAULT_FILE), LOG_SYNC_EVERY, LOG_SYNC_MILLIS);
+        } catch (IOException e) {
+            Logger.error(e, "Cannot open the game log, finished games will not be saved");
+            return;
+        }
+        try {
+            playerStats = PlayerStatsStore.open(Path.of(PlayerStatsStore.DEFAULT_FILE), Path.of(GameLog.DEFAULT_FILE));
+        } catch (IOException e) {
+            Logger.error(e, "Cannot load the player statistics");
+        }
+    }
+
     @Override
     public void start(Stage stage) throws IOException {
         Parent root = FXMLLoader.load(getClass().getResource("/start.fxml"));
@@ -19,4 +92,58 @@ public class GameApplication extends Application {
         stage.setScene(scene);
         stage.show();
     }
+
+    @Override
+    public void stop() throws IOException {
+        IOException failure = null;
+        List<ShutdownStep> steps = List.of(
+                () -> {
+                    if (gameController != null) {
+                        gameController.stop();
+                    }
+                },
+                () -> {
+                    if (gameLog != null) {
+                        gameLog.close();
+                    }
+                },
+                () -> {
+                    if (playerStats != null) {
+                        playerStats.save();
+                    }
+                },
+                () -> {
+                    if (tracer != null) {
+                        Trace.install(null);
+                        tracer.close();
+                    }
+                },
+                () -> {
+                    if (metricsDump != null) {
+                        metricsDump.close();
+                    }
+                });
+        for (var step : steps) {
+            try {
+                step.run();
+            } catch (IOException | RuntimeException e) {
+                var cause = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : e;
+                if (failure == null) {
+                    failure = cause instanceof IOException io ? io : new IOException(cause);
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * A step of {@link #stop()}, every step runs even if an earlier one fails
+     */
+    private interface ShutdownStep {
+        void run() throws IOException;
+    }
 }
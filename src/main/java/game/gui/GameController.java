@@ -1,29 +1,33 @@
 package game.gui;
 
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.Optional;
+import java.util.Set;
 
 import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
-import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
-import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
 
 import org.tinylog.Logger;
 
+import game.ai.ParallelSearch;
+import game.ai.SearchResult;
+import game.book.OpeningBook;
+import game.engine.BitBoard;
+import game.history.GameRecord;
+import game.model.CircleType;
+import game.tablebase.MappedTablebase;
+import game.tablebase.RetrogradeSolver;
 import game.model.Direction;
-import game.model.Position;
 import game.model.GameModel;
+import game.model.Position;
 import game.model.Data;
 
 public class GameController {
@@ -40,16 +44,82 @@ public class GameController {
         this.redPlayerName = redPlayerName;
     }
 
+    /**
+     * Time a computer player may spend on a move
+     */
+    private static final long COMPUTER_TIME_BUDGET_MILLIS = 1000;
+
+    private final Set<CircleType> computerPlayers = EnumSet.noneOf(CircleType.class);
+
+    /**
+     * Number of threads of the computer player, set by the {@code game.searchThreads} system property
+     */
+    private static final int SEARCH_THREADS = Integer.getInteger("game.searchThreads", Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Tablebase of perfect moves, used by the computer player instead of searching if the file exists
+     */
+    private static final Optional<MappedTablebase> TABLEBASE = MappedTablebase.openIfExists(Path.of(RetrogradeSolver.DEFAULT_FILE));
+
+    /**
+     * Opening book, whose moves the computer player makes without searching if the file exists
+     */
+    private static final Optional<OpeningBook> BOOK = OpeningBook.openIfExists(Path.of(OpeningBook.DEFAULT_FILE));
+
+    /**
+     * Created for the first computer move, so that games between humans start no search threads
+     */
+    private ParallelSearch search;
+
+    private Task<SearchResult> computerTask;
+
+    public void setComputerPlayer(CircleType type, boolean computer) {
+        if (computer) {
+            computerPlayers.add(type);
+        } else {
+            computerPlayers.remove(type);
+        }
+    }
+
     private boolean selectionPhaseOne = true;
 
     private List<Position> selectablePositions = new ArrayList<>();
 
     private Position selectedPosition;
 
-    private GameModel model = new GameModel();
+    private ObservableGameModel model = new ObservableGameModel();
 
     private boolean isGameOver = false;
 
+    private final int[] moveBuffer = new int[model.getCircleCount() * GameModel.DIRECTION_COUNT];
+
+    /**
+     * Renderer of the board, {@code grid} or {@code canvas}, set by the {@code game.renderer} system property
+     */
+    private static final String RENDERER = System.getProperty("game.renderer", "grid");
+
+    private BoardRenderer renderer;
+
+    /**
+     * The flags each cell should have, and the flags it was last rendered with, see {@link BoardRenderer}
+     */
+    private int[][] cellFlags;
+    private int[][] renderedFlags;
+
+    /**
+     * The cells whose flags changed since the last rendering, each listed once
+     */
+    private final List<Position> dirtyCells = new ArrayList<>();
+    private boolean[][] dirty;
+
+    private final List<Position> winningCells = new ArrayList<>();
+
+    private final GameRecorder recorder = new GameRecorder(record ->
+            GameApplication.getGameLog().ifPresent(log -> {
+                log.append(record);
+                GameApplication.getPlayerStats().ifPresent(stats -> stats.record(record));
+            }));
+
     @FXML
     private GridPane board;
 
@@ -61,6 +131,73 @@ public class GameController {
         resetGame();
     }
 
+    /**
+     * Takes back the last move, and the moves of a computer opponent before it,
+     * so that a human player is to move again.
+     */
+    @FXML
+    public void handleUndoButton(){
+        if (!model.canUndo()) {
+            return;
+        }
+        cancelComputerTurn();
+        hideSelectableCells();
+        hideWinningCells();
+        if (isGameOver) {
+            recorder.takeBack();
+        } else {
+            model.decreasePlayerTurn();
+        }
+        isGameOver = false;
+        model.unmakeMove();
+        while (model.canUndo() && isSingleComputerTurn()) {
+            model.decreasePlayerTurn();
+            model.unmakeMove();
+        }
+        Logger.info("Undo, {} moves made", model.getMoveCount());
+        model.decreasePlayerTurn();
+        startTurn();
+    }
+
+    /**
+     * Makes the last taken back move again, and the moves of a computer
+     * opponent after it.
+     */
+    @FXML
+    public void handleRedoButton(){
+        if (!model.canRedo() || isGameOver) {
+            return;
+        }
+        cancelComputerTurn();
+        hideSelectableCells();
+        do {
+            model.redoMove();
+            if (model.isLastMoveWin()) {
+                setWinLabel();
+                isGameOver = true;
+                showWinningCells();
+                recordGame();
+                Logger.info("{} won the game!", getActivePlayer());
+                return;
+            }
+            model.increasePlayerTurn();
+        } while (model.canRedo() && isSingleComputerTurn());
+        Logger.info("Redo, {} moves made", model.getMoveCount());
+        model.decreasePlayerTurn();
+        startTurn();
+    }
+
+    private boolean isSingleComputerTurn() {
+        return computerPlayers.size() == 1 && computerPlayers.contains(getActiveType());
+    }
+
+    private void startTurn() {
+        selectionPhaseOne = true;
+        setSelectablePositions();
+        showSelectableCells();
+        awaitMove();
+    }
+
     @FXML
     private void initialize() {
         Logger.info("Starting the game...");
@@ -68,67 +205,50 @@ public class GameController {
         createCircles();
         setSelectablePositions();
         showSelectableCells();
-        Platform.runLater(this::setUpNextTurn);
+        Platform.runLater(() -> {
+            setUpNextTurn();
+            awaitMove();
+        });
     }
 
     private void resetGame(){
-        clearBoard();
+        recorder.flush();
+        cancelComputerTurn();
+        hideWinningCells();
         hideSelectableCells();
         isGameOver = false;
         selectionPhaseOne = true;
-        model = new GameModel();
-        createBoard();
+        model = new ObservableGameModel();
         createCircles();
         setSelectablePositions();
         showSelectableCells();
         Logger.info("Restarting the game...");
+        awaitMove();
     }
 
     private void createBoard() {
-        for (int i = 0; i < board.getRowCount(); i++) {
-            for (int j = 0; j < board.getColumnCount(); j++) {
-                var cell = createCell();
-                board.add(cell, j, i);
-            }
-        }
-    }
-
-    private StackPane createCell() {
-        var cell = new StackPane();
-        cell.getStyleClass().add("cell");
-        cell.setOnMouseClicked(this::handleMouseClick);
-        return cell;
-    }
-
-    private void clearBoard(){
-        for (int i = 0; i < model.getCircleCount(); i++) {
-            getCell(model.getCirclePosition(i)).getChildren().clear();
-            getCell(model.getCirclePosition(i)).getStyleClass().remove("winningCell");
+        int rows = board.getRowCount();
+        int cols = board.getColumnCount();
+        cellFlags = new int[rows][cols];
+        renderedFlags = new int[rows][cols];
+        dirty = new boolean[rows][cols];
+        if (RENDERER.equals("canvas")) {
+            renderer = new CanvasBoardRenderer(board, this::handleMouseClick);
+        } else {
+            renderer = new GridBoardRenderer(board, this::handleMouseClick);
         }
     }
 
     private void createCircles() {
         for (int i = 0; i < model.getCircleCount(); i++) {
             model.positionProperty(i).addListener(this::circlePositionChange);
-            var circle = createCircle(Color.valueOf(model.getCircleType(i).name()));
-            getCell(model.getCirclePosition(i)).getChildren().add(circle);
         }
+        renderer.placeCircles(model);
     }
 
-    private Circle createCircle(Color color) {
-        var circle = new Circle(50);
-        circle.setFill(color);
-        return circle;
-    }
-
-    @FXML
-    private void handleMouseClick(MouseEvent event) {
-        var cell = (StackPane) event.getSource();
-        var row = GridPane.getRowIndex(cell);
-        var col = GridPane.getColumnIndex(cell);
-        var position = new Position(row, col);
-        Logger.debug("Click on cell: " + position);
-        if (!isGameOver){
+    private void handleMouseClick(Position position) {
+        Logger.trace("Click on cell: {}", position);
+        if (!isGameOver && computerTask == null){
             handleClickOnCell(position);
         }
     }
@@ -144,7 +264,7 @@ public class GameController {
             if (selectablePositions.contains(position)) {
                 var circleID = model.getCircleID(selectedPosition).getAsInt();
                 var direction = Direction.of(position.row() - selectedPosition.row(), position.col() - selectedPosition.col());
-                Logger.debug("Moving piece {} {}", circleID, direction);
+                Logger.trace("Moving piece {} {}", circleID, direction);
                 model.move(circleID, direction);
                 handleNextTurn();
             }
@@ -152,17 +272,13 @@ public class GameController {
     }
 
     private void handleNextTurn(){
-        if (model.isWin(model.getCirclePositions())){
+        if (model.isLastMoveWin()){
             hideSelectableCells();
             setWinLabel();
             isGameOver = true;
             showWinningCells();
-            try {
-                exportData();
-            }catch (Exception e){
-                Logger.debug("Error");
-            }
-            Logger.info(getActivePlayer() + " won the game!");
+            recordGame();
+            Logger.info("{} won the game!", getActivePlayer());
         }
         else {
             switchSelectionPhase();
@@ -183,23 +299,32 @@ public class GameController {
         return bluePlayerName;
     }
 
-    private void exportData() throws Exception{
-        var objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private void recordGame(){
         var data = new Data();
         data.setWinner(getActivePlayer());
         data.setLooser(getPassivePlayer());
         data.setDate(String.valueOf(LocalDate.now()));
-        try(var writer = new FileWriter("data.json")){
-            objectMapper.writeValue(writer, data);
+        var moves = new int[model.getMoveCount()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = model.getMove(i);
         }
-        Logger.debug(objectMapper.readValue(new FileReader("data.json"), Data.class));
+        recorder.finish(GameRecord.of(data, moves));
+        Logger.debug(data);
+    }
+
+    private void hideWinningCells(){
+        for (var winningCell : winningCells) {
+            setCellFlag(winningCell, BoardRenderer.WINNING, false);
+        }
+        winningCells.clear();
     }
 
     private void showWinningCells(){
-        for (var winningPositions : model.winningPositions) {
-            var cell = getCell(winningPositions);
-            cell.getStyleClass().add("winningCell");
+        winningCells.addAll(model.getWinningLine());
+        for (var winningCell : winningCells) {
+            setCellFlag(winningCell, BoardRenderer.WINNING, true);
         }
+        renderDirtyCells();
     }
 
     private void switchSelectionPhase() {
@@ -207,6 +332,115 @@ public class GameController {
         hideSelectableCells();
         setSelectablePositions();
         showSelectableCells();
+        if (selectionPhaseOne) {
+            awaitMove();
+        }
+    }
+
+    /**
+     * Lets the player to move make a move, or ends the game if they have no
+     * valid move: as in the search engines and on the server, they lose.
+     * The turn goes back to the winner, as after a winning move.
+     */
+    private void awaitMove() {
+        if (model.generateMoves(moveBuffer) > 0) {
+            startComputerTurn();
+            return;
+        }
+        hideSelectableCells();
+        renderDirtyCells();
+        model.decreasePlayerTurn();
+        setWinLabel();
+        isGameOver = true;
+        recordGame();
+        Logger.info("{} won the game, {} has no valid move", getActivePlayer(), getPassivePlayer());
+    }
+
+    private CircleType getActiveType() {
+        if (model.getPlayerTurn() % 2 == 0) {
+            return CircleType.BLUE;
+        }
+        return CircleType.RED;
+    }
+
+    private void startComputerTurn() {
+        if (isGameOver || !selectionPhaseOne || computerTask != null || !computerPlayers.contains(getActiveType())) {
+            return;
+        }
+        if (search == null) {
+            search = new ParallelSearch(SEARCH_THREADS);
+        }
+        var position = BitBoard.of(model);
+        var parallelSearch = search;
+        var task = new Task<SearchResult>() {
+            @Override
+            protected SearchResult call() {
+                if (TABLEBASE.isPresent()) {
+                    long start = System.nanoTime();
+                    int move = TABLEBASE.get().bestMove(position);
+                    return new SearchResult(move, 0, 0, 0, System.nanoTime() - start);
+                }
+                if (BOOK.isPresent()) {
+                    long start = System.nanoTime();
+                    int move = BOOK.get().lookup(position);
+                    if (move != -1) {
+                        return new SearchResult(move, 0, 0, 0, System.nanoTime() - start);
+                    }
+                }
+                return parallelSearch.search(position, COMPUTER_TIME_BUDGET_MILLIS);
+            }
+
+            @Override
+            protected void cancelled() {
+                parallelSearch.stop();
+            }
+        };
+        task.setOnSucceeded(event -> playComputerMove(task, task.getValue()));
+        task.setOnFailed(event -> {
+            Logger.error(task.getException(), "Computer search failed");
+            computerTask = null;
+        });
+        computerTask = task;
+        var thread = new Thread(task, "computer-player");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Records the finished game, cancels the move of the computer player and
+     * stops its search threads, called when the application exits.
+     */
+    void stop() {
+        recorder.flush();
+        cancelComputerTurn();
+        if (search != null) {
+            search.close();
+            search = null;
+        }
+    }
+
+    private void cancelComputerTurn() {
+        if (computerTask != null) {
+            computerTask.cancel();
+            computerTask = null;
+        }
+    }
+
+    private void playComputerMove(Task<SearchResult> task, SearchResult result) {
+        if (task != computerTask) {
+            return;
+        }
+        computerTask = null;
+        Logger.debug("Computer searched to depth {}: {} nodes in {} ms, {} nodes/s",
+                result.depth(), result.nodes(), result.elapsedNanos() / 1_000_000, result.nodesPerSecond());
+        Logger.debug("Transposition table hit rate {}, fill rate {}",
+                search.getTable().getHitRate(), search.getTable().getFillRate());
+        if (result.bestMove() == -1) {
+            Logger.warn("Computer found no move for {}", getActivePlayer());
+            return;
+        }
+        handleClickOnCell(BitBoard.positionOf(BitBoard.moveFrom(result.bestMove())));
+        handleClickOnCell(BitBoard.positionOf(BitBoard.moveTo(result.bestMove())));
     }
 
     public void increasePlayerTurn(){
@@ -246,35 +480,51 @@ public class GameController {
 
     private void showSelectableCells() {
         for (var selectablePosition : selectablePositions) {
-            var cell = getCell(selectablePosition);
-            cell.getStyleClass().add("selectable");
+            setCellFlag(selectablePosition, BoardRenderer.SELECTABLE, true);
         }
-        Logger.info("Selectable positions: " + selectablePositions);
+        renderDirtyCells();
+        Logger.trace("Selectable positions: {}", selectablePositions);
     }
 
+    /**
+     * Only marks the cells, they are restyled by the next {@link #renderDirtyCells()}
+     * of a show method, so a cell that stays selectable is not touched.
+     */
     private void hideSelectableCells() {
         for (var selectablePosition : selectablePositions) {
-            var cell = getCell(selectablePosition);
-            cell.getStyleClass().remove("selectable");
+            setCellFlag(selectablePosition, BoardRenderer.SELECTABLE, false);
+        }
+    }
+
+    private void setCellFlag(Position position, int flag, boolean on) {
+        int row = position.row();
+        int col = position.col();
+        cellFlags[row][col] = on ? cellFlags[row][col] | flag : cellFlags[row][col] & ~flag;
+        if (!dirty[row][col]) {
+            dirty[row][col] = true;
+            dirtyCells.add(position);
         }
     }
 
-    private StackPane getCell(Position position) {
-        for (var child : board.getChildren()) {
-            if (GridPane.getRowIndex(child) != null && GridPane.getRowIndex(child) == position.row() &&
-                GridPane.getColumnIndex(child) != null && GridPane.getColumnIndex(child) == position.col()) {
-                return (StackPane) child;
+    /**
+     * Passes the cells whose flags changed since they were last rendered to the renderer.
+     */
+    private void renderDirtyCells() {
+        for (var position : dirtyCells) {
+            int row = position.row();
+            int col = position.col();
+            if (cellFlags[row][col] != renderedFlags[row][col]) {
+                renderer.setCellFlags(position, cellFlags[row][col]);
+                renderedFlags[row][col] = cellFlags[row][col];
             }
+            dirty[row][col] = false;
         }
-        throw new AssertionError();
+        dirtyCells.clear();
     }
 
     private void circlePositionChange(ObservableValue<? extends Position> observable, Position oldPosition, Position newPosition) {
-        Logger.debug("Move: {} -> {}", oldPosition, newPosition);
-        StackPane oldCell = getCell(oldPosition);
-        StackPane newCell = getCell(newPosition);
-        newCell.getChildren().addAll(oldCell.getChildren());
-        oldCell.getChildren().clear();
+        Logger.trace("Move: {} -> {}", oldPosition, newPosition);
+        renderer.moveCircle(oldPosition, newPosition);
     }
 
 
@@ -0,0 +1,57 @@
+package game.gui;
+
+import game.history.GameRecord;
+import org.tinylog.Logger;
+
+import java.util.function.Consumer;
+
+/**
+ * Keeps the result of the game on the board until it is final. A win can be
+ * taken back with Undo, so the result is only written when the next game is
+ * started or the application exits, and at most once per game.
+ */
+final class GameRecorder {
+
+    private final Consumer<GameRecord> sink;
+
+    private GameRecord result;
+
+    /**
+     * @param sink receives the final result of every game
+     */
+    GameRecorder(Consumer<GameRecord> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * @param record the result of the game, replacing a result taken back before
+     */
+    void finish(GameRecord record) {
+        result = record;
+    }
+
+    /**
+     * Forgets the result, called when the last move of a finished game is taken back.
+     */
+    void takeBack() {
+        result = null;
+    }
+
+    /**
+     * Writes the result if the game is finished, called when the game is left.
+     * A result that cannot be written is logged and dropped, so that a failing
+     * game log does not keep the next game from starting.
+     */
+    void flush() {
+        if (result == null) {
+            return;
+        }
+        var record = result;
+        result = null;
+        try {
+            sink.accept(record);
+        } catch (RuntimeException e) {
+            Logger.error(e, "Cannot record the game won by {}", record.winner());
+        }
+    }
+}
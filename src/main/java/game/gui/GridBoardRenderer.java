@@ -0,0 +1,81 @@
+package game.gui;
+
+import game.model.GameModel;
+import game.model.Position;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Draws the board as a {@link GridPane} of {@link StackPane} cells styled by
+ * {@code gameStyle.css}, with a {@link Circle} node moved between the cells.
+ */
+class GridBoardRenderer implements BoardRenderer {
+
+    /**
+     * The cells of the board by row and column
+     */
+    private final StackPane[][] cells;
+
+    /**
+     * @param board the grid pane, filled with one cell per row and column
+     * @param onClick receives the position of a clicked cell
+     */
+    GridBoardRenderer(GridPane board, Consumer<Position> onClick) {
+        cells = new StackPane[board.getRowCount()][board.getColumnCount()];
+        for (int i = 0; i < cells.length; i++) {
+            for (int j = 0; j < cells[i].length; j++) {
+                var position = Position.of(i, j);
+                var cell = new StackPane();
+                cell.getStyleClass().add("cell");
+                cell.setOnMouseClicked(event -> onClick.accept(position));
+                cells[i][j] = cell;
+                board.add(cell, j, i);
+            }
+        }
+    }
+
+    @Override
+    public void placeCircles(GameModel model) {
+        for (var row : cells) {
+            for (var cell : row) {
+                cell.getChildren().clear();
+            }
+        }
+        for (int i = 0; i < model.getCircleCount(); i++) {
+            var circle = new Circle(50);
+            circle.setFill(Color.valueOf(model.getCircleType(i).name()));
+            getCell(model.getCirclePosition(i)).getChildren().add(circle);
+        }
+    }
+
+    @Override
+    public void moveCircle(Position from, Position to) {
+        var oldCell = getCell(from);
+        getCell(to).getChildren().addAll(oldCell.getChildren());
+        oldCell.getChildren().clear();
+    }
+
+    @Override
+    public void setCellFlags(Position position, int flags) {
+        var styleClass = getCell(position).getStyleClass();
+        updateStyleClass(styleClass, "selectable", (flags & SELECTABLE) != 0);
+        updateStyleClass(styleClass, "winningCell", (flags & WINNING) != 0);
+    }
+
+    private static void updateStyleClass(List<String> styleClass, String name, boolean present) {
+        if (!present) {
+            styleClass.remove(name);
+        } else if (!styleClass.contains(name)) {
+            styleClass.add(name);
+        }
+    }
+
+    private StackPane getCell(Position position) {
+        return cells[position.row()][position.col()];
+    }
+}
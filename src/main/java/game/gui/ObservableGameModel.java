@@ -0,0 +1,55 @@
+package game.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
+import game.model.Circle;
+import game.model.GameModel;
+import game.model.Position;
+
+/**
+ * Adapter of a {@link GameModel} for the GUI, exposing the positions of the
+ * circles as JavaFX properties. The properties follow the model through a
+ * {@link game.model.MoveListener}, so the core model stays free of JavaFX.
+ */
+public class ObservableGameModel extends GameModel {
+
+    private final List<ReadOnlyObjectWrapper<Position>> positions = new ArrayList<>();
+
+    /**
+     * Creates a model that corresponds to the original starter state of the game.
+     */
+    public ObservableGameModel() {
+        super();
+        bindPositions();
+    }
+
+    /**
+     * Creates a model initializing the positions of the circles with the positions specified.
+     *
+     * @param circles all circle
+     */
+    public ObservableGameModel(Circle... circles) {
+        super(circles);
+        bindPositions();
+    }
+
+    private void bindPositions() {
+        for (int i = 0; i < getCircleCount(); i++) {
+            positions.add(new ReadOnlyObjectWrapper<>(getCirclePosition(i)));
+        }
+        addMoveListener((circleID, oldPosition, newPosition) -> positions.get(circleID).set(newPosition));
+    }
+
+    /**
+     *
+     * @param circleID the number of a circle
+     * @return the positionProperty of the circle specified
+     */
+    public ReadOnlyObjectProperty<Position> positionProperty(int circleID) {
+        return positions.get(circleID).getReadOnlyProperty();
+    }
+}
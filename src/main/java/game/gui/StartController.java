@@ -6,23 +6,50 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.List;
+
+import game.model.CircleType;
 
 public class StartController {
 
+    /**
+     * Number of players shown on the leaderboard
+     */
+    private static final int LEADERBOARD_SIZE = 5;
+
     @FXML
     private TextField blueNameTextField;
 
     @FXML
     private TextField redNameTextField;
 
+    @FXML
+    private CheckBox blueComputerCheckBox;
+
+    @FXML
+    private CheckBox redComputerCheckBox;
+
+    @FXML
+    private Label leaderboardLabel;
+
     @FXML
     private void initialize(){
         blueNameTextField.setText("Blue");
         redNameTextField.setText("Red");
+        var leaderboard = new StringBuilder();
+        var leaders = GameApplication.getPlayerStats().map(stats -> stats.leaderboard(LEADERBOARD_SIZE)).orElse(List.of());
+        for (int i = 0; i < leaders.size(); i++) {
+            var stats = leaders.get(i);
+            leaderboard.append(String.format("%d. %s: %d won, %d lost, longest streak %d%n",
+                    i + 1, stats.name(), stats.wins(), stats.losses(), stats.longestWinStreak()));
+        }
+        leaderboardLabel.setText(leaderboard.toString().strip());
     }
 
     @FXML
@@ -32,6 +59,9 @@ public class StartController {
         GameController controller = fxmlLoader.getController();
         controller.setBluePlayerName(blueNameTextField.getText());
         controller.setRedPlayerName(redNameTextField.getText());
+        controller.setComputerPlayer(CircleType.BLUE, blueComputerCheckBox.isSelected());
+        controller.setComputerPlayer(CircleType.RED, redComputerCheckBox.isSelected());
+        GameApplication.setGameController(controller);
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
         stage.setScene(new Scene(root));
         stage.show();
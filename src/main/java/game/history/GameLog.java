@@ -0,0 +1,236 @@
+package game.history;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Layout of the append-only game log.
+ * The file starts with an {@value #HEADER_BYTES}-byte header: the magic number
+ * and the format version. It is followed by one record per finished game: the
+ * length of the payload, the payload and its CRC-32C checksum. The payload holds
+ * the winner, the loser and the date as length-prefixed UTF-8 strings, the
+ * number of moves and one unsigned byte per move. All numbers are little-endian.
+ * A record cut short by a crash is detected by its length or checksum, the
+ * records before it remain readable.
+ */
+public final class GameLog {
+
+    /**
+     * Name of the game log written by the GUI
+     */
+    public static final String DEFAULT_FILE = "games.log";
+
+    /**
+     * Magic number at the start of a game log
+     */
+    public static final int MAGIC = 0x5454474C;
+
+    /**
+     * Version of the format
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    public static final int HEADER_BYTES = 8;
+
+    /**
+     * Byte order of the file
+     */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Largest payload of a record in bytes
+     */
+    public static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+
+    private GameLog() {
+    }
+
+    /**
+     * @param record a game
+     * @return the size of the record in the file, including its length and checksum
+     * @throws IllegalArgumentException if the record cannot be written
+     */
+    static int recordBytes(GameRecord record) {
+        for (int move : record.moves()) {
+            if (move < 0 || move > 0xFF) {
+                throw new IllegalArgumentException("Invalid move: " + move);
+            }
+        }
+        int payloadBytes = 3 * Short.BYTES + utf8(record.winner()).length + utf8(record.loser()).length
+                + utf8(record.date()).length + Short.BYTES + record.moves().length;
+        if (payloadBytes > MAX_PAYLOAD_BYTES || record.moves().length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Record too long: " + payloadBytes + " bytes");
+        }
+        return 2 * Integer.BYTES + payloadBytes;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a record at the position of the buffer.
+     *
+     * @param record a game
+     * @param buffer a buffer with at least {@link #recordBytes(GameRecord)} bytes remaining, in {@link #BYTE_ORDER}
+     * @throws IllegalArgumentException if a string or the move list is too long
+     */
+    static void encode(GameRecord record, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putInt(0);
+        putString(buffer, record.winner());
+        putString(buffer, record.loser());
+        putString(buffer, record.date());
+        if (record.moves().length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many moves: " + record.moves().length);
+        }
+        buffer.putShort((short) record.moves().length);
+        for (int move : record.moves()) {
+            if (move < 0 || move > 0xFF) {
+                throw new IllegalArgumentException("Invalid move: " + move);
+            }
+            buffer.put((byte) move);
+        }
+        int payloadLength = buffer.position() - start - Integer.BYTES;
+        buffer.putInt(start, payloadLength);
+        var crc = new CRC32C();
+        crc.update(buffer.duplicate().position(start + Integer.BYTES).limit(start + Integer.BYTES + payloadLength));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        var bytes = utf8(value);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String too long: " + bytes.length);
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        var bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static GameRecord decode(ByteBuffer payload) {
+        var winner = getString(payload);
+        var loser = getString(payload);
+        var date = getString(payload);
+        int[] moves = new int[payload.getShort()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = payload.get() & 0xFF;
+        }
+        return new GameRecord(winner, loser, date, moves);
+    }
+
+    /**
+     * Reads every complete record of a game log.
+     *
+     * @param path the game log
+     * @return the games in the order they were written, empty if the file does not exist
+     * @throws IOException if the file cannot be read or is not a game log
+     */
+    public static List<GameRecord> readAll(Path path) throws IOException {
+        List<GameRecord> records = new ArrayList<>();
+        read(path, HEADER_BYTES, records::add);
+        return records;
+    }
+
+    /**
+     * Reads the complete records of a game log from a record boundary.
+     *
+     * @param path the game log
+     * @param position the offset of the first record to read, at least {@value #HEADER_BYTES}
+     * @param consumer receives the games in the order they were written
+     * @return the offset after the last complete record, {@code position} if there is none
+     * @throws IOException if the file cannot be read or is not a game log
+     */
+    public static long read(Path path, long position, Consumer<GameRecord> consumer) throws IOException {
+        if (position < HEADER_BYTES) {
+            throw new IllegalArgumentException("Position inside the header: " + position);
+        }
+        return Math.max(position, scan(path, position, consumer));
+    }
+
+    /**
+     * @param path the game log
+     * @return the length of the file up to the end of the last complete record, 0 if the file does not exist
+     * @throws IOException if the file cannot be read or is not a game log
+     */
+    static long validLength(Path path) throws IOException {
+        return scan(path, HEADER_BYTES, null);
+    }
+
+    private static long scan(Path path, long start, Consumer<GameRecord> consumer) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return 0;
+            }
+            var buffer = ByteBuffer.allocate(READ_BUFFER_BYTES).order(BYTE_ORDER);
+            readFully(channel, buffer.limit(HEADER_BYTES), 0);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a game log: " + path);
+            }
+            long position = start;
+            var crc = new CRC32C();
+            while (position + Integer.BYTES <= channel.size()) {
+                buffer.clear().limit(Integer.BYTES);
+                readFully(channel, buffer, position);
+                int payloadLength = buffer.getInt(0);
+                if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_BYTES
+                        || position + 2L * Integer.BYTES + payloadLength > channel.size()) {
+                    break;
+                }
+                if (buffer.capacity() < payloadLength + Integer.BYTES) {
+                    buffer = ByteBuffer.allocate(payloadLength + Integer.BYTES).order(BYTE_ORDER);
+                }
+                buffer.clear().limit(payloadLength + Integer.BYTES);
+                readFully(channel, buffer, position + Integer.BYTES);
+                crc.reset();
+                crc.update(buffer.array(), 0, payloadLength);
+                if ((int) crc.getValue() != buffer.getInt(payloadLength)) {
+                    break;
+                }
+                if (consumer != null) {
+                    GameRecord record;
+                    try {
+                        record = decode(buffer.flip().limit(payloadLength));
+                    } catch (BufferUnderflowException e) {
+                        break;
+                    }
+                    consumer.accept(record);
+                }
+                position += 2L * Integer.BYTES + payloadLength;
+            }
+            return position;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package game.history;
+
+import game.metrics.Counter;
+import game.metrics.LatencyHistogram;
+import game.metrics.MetricsRegistry;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends games to a {@link GameLog} on a background thread, so that callers
+ * never wait for the disk. Queued records are written in batches through a
+ * buffered file channel. The file is forced to the storage device once
+ * {@code syncEveryRecords} records are unsynced, or {@code syncIntervalMillis}
+ * after the oldest unsynced record was written, whichever comes first; a value
+ * of 0 disables the respective trigger. {@link #flush()} and {@link #close()}
+ * always force the file.
+ * A torn record at the end of the file, left by a crash, is cut off on opening.
+ */
+public class GameLogWriter implements AutoCloseable {
+
+    /**
+     * Number of unsynced records that triggers a sync by default: every batch is synced
+     */
+    public static final int DEFAULT_SYNC_EVERY_RECORDS = 1;
+
+    /**
+     * Time after which unsynced records are synced by default
+     */
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+
+    private static final Counter RECORDS = MetricsRegistry.global().counter("game_log_records_total", "Games written to the game log");
+
+    private static final LatencyHistogram SYNC_LATENCY = MetricsRegistry.global()
+            .histogram("game_log_sync_latency_nanoseconds", "Time to force the game log to the storage device");
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final Object CLOSE = new Object();
+
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(GameLog.BYTE_ORDER);
+    private final int syncEveryRecords;
+    private final long syncIntervalNanos;
+    private final Thread thread;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private GameLogWriter(Path path, FileChannel channel, int syncEveryRecords, long syncIntervalMillis) {
+        this.channel = channel;
+        this.syncEveryRecords = syncEveryRecords;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        thread = new Thread(this::run, "game-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Logger.debug("Appending games to {}", path.toAbsolutePath());
+    }
+
+    /**
+     * Opens a game log with the default sync settings, creating it if needed.
+     *
+     * @param path the game log
+     * @return the writer
+     * @throws IOException if the file cannot be opened or is not a game log
+     */
+    public static GameLogWriter open(Path path) throws IOException {
+        return open(path, DEFAULT_SYNC_EVERY_RECORDS, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Opens a game log, creating it if needed.
+     *
+     * @param path the game log
+     * @param syncEveryRecords the number of unsynced records that triggers a sync, 0 to disable
+     * @param syncIntervalMillis the time after which unsynced records are synced, 0 to disable
+     * @return the writer
+     * @throws IOException if the file cannot be opened or is not a game log
+     */
+    public static GameLogWriter open(Path path, int syncEveryRecords, long syncIntervalMillis) throws IOException {
+        if (syncEveryRecords < 0 || syncIntervalMillis < 0) {
+            throw new IllegalArgumentException();
+        }
+        long validLength = GameLog.validLength(path);
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (validLength == 0) {
+                channel.truncate(0);
+                var header = ByteBuffer.allocate(GameLog.HEADER_BYTES).order(GameLog.BYTE_ORDER);
+                header.putInt(GameLog.MAGIC).putInt(GameLog.VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                channel.force(true);
+            } else if (channel.size() > validLength) {
+                Logger.warn("Cutting off {} bytes of a torn record at the end of {}", channel.size() - validLength, path);
+                channel.truncate(validLength);
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new GameLogWriter(path, channel, syncEveryRecords, syncIntervalMillis);
+    }
+
+    /**
+     * Queues a game to be written, without waiting for the disk.
+     *
+     * @param record a finished game
+     * @throws IllegalArgumentException if the record cannot be written
+     * @throws IllegalStateException if the writer is closed
+     * @throws UncheckedIOException if writing a previous record has failed
+     */
+    public void append(GameRecord record) {
+        GameLog.recordBytes(record);
+        if (closed) {
+            throw new IllegalStateException("Game log is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+        queue.add(record);
+    }
+
+    /**
+     * @return a future completed once every game queued before has been written and synced
+     */
+    public CompletableFuture<Void> flush() {
+        var future = new CompletableFuture<Void>();
+        if (failure != null) {
+            future.completeExceptionally(failure);
+        } else if (closed) {
+            future.complete(null);
+        } else {
+            queue.add(future);
+        }
+        return future;
+    }
+
+    /**
+     * Writes and syncs the queued games, then closes the file.
+     *
+     * @throws IOException if writing has failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            queue.add(CLOSE);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void run() {
+        List<CompletableFuture<Void>> waiting = new ArrayList<>();
+        int unsynced = 0;
+        long oldestUnsynced = 0;
+        boolean stop = false;
+        try {
+            while (!stop) {
+                Object item;
+                if (unsynced > 0 && syncIntervalNanos > 0) {
+                    item = queue.poll(oldestUnsynced + syncIntervalNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } else {
+                    item = queue.take();
+                }
+                boolean forceNow = false;
+                for (; item != null; item = queue.poll()) {
+                    if (item instanceof GameRecord record) {
+                        write(record);
+                        RECORDS.increment();
+                        if (unsynced++ == 0) {
+                            oldestUnsynced = System.nanoTime();
+                        }
+                    } else if (item == CLOSE) {
+                        stop = true;
+                        forceNow = true;
+                    } else {
+                        @SuppressWarnings("unchecked")
+                        var future = (CompletableFuture<Void>) item;
+                        waiting.add(future);
+                        forceNow = true;
+                    }
+                }
+                drainBuffer();
+                boolean countReached = syncEveryRecords > 0 && unsynced >= syncEveryRecords;
+                boolean intervalReached = syncIntervalNanos > 0 && unsynced > 0
+                        && System.nanoTime() - oldestUnsynced >= syncIntervalNanos;
+                if (unsynced > 0 && (forceNow || countReached || intervalReached)) {
+                    long syncStart = System.nanoTime();
+                    channel.force(false);
+                    SYNC_LATENCY.record(System.nanoTime() - syncStart);
+                    unsynced = 0;
+                }
+                waiting.forEach(future -> future.complete(null));
+                waiting.clear();
+            }
+        } catch (IOException e) {
+            Logger.error(e, "Cannot write the game log");
+            failure = e;
+            waiting.forEach(future -> future.completeExceptionally(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Logger.error(e, "Cannot close the game log");
+            }
+        }
+    }
+
+    private void write(GameRecord record) throws IOException {
+        int size = GameLog.recordBytes(record);
+        if (size > buffer.remaining()) {
+            drainBuffer();
+        }
+        if (size > buffer.capacity()) {
+            var large = ByteBuffer.allocate(size).order(GameLog.BYTE_ORDER);
+            GameLog.encode(record, large);
+            writeFully(large.flip());
+        } else {
+            GameLog.encode(record, buffer);
+        }
+    }
+
+    private void drainBuffer() throws IOException {
+        writeFully(buffer.flip());
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
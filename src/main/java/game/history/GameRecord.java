@@ -0,0 +1,34 @@
+package game.history;
+
+import game.model.Data;
+
+/**
+ * Represents a finished game in the game log.
+ *
+ * @param winner the name of the winner
+ * @param loser the name of the loser
+ * @param date the date of the game
+ * @param moves the moves of the game in order, encoded as by {@link game.model.GameModel#encodeMove}
+ */
+public record GameRecord(String winner, String loser, String date, int[] moves) {
+
+    /**
+     * @param data the result of a game
+     * @param moves the moves of the game in order
+     * @return the record of the game
+     */
+    public static GameRecord of(Data data, int[] moves) {
+        return new GameRecord(data.getWinner(), data.getLooser(), data.getDate(), moves.clone());
+    }
+
+    /**
+     * @return the result of the game
+     */
+    public Data toData() {
+        var data = new Data();
+        data.setWinner(winner);
+        data.setLooser(loser);
+        data.setDate(date);
+        return data;
+    }
+}
@@ -0,0 +1,41 @@
+package game.history;
+
+import java.util.Map;
+
+/**
+ * Statistics of a player over every recorded game.
+ *
+ * @param name the name of the player
+ * @param wins the number of games won
+ * @param losses the number of games lost
+ * @param streak the number of games won in a row up to the last game, negative for games lost in a row
+ * @param longestWinStreak the largest number of games won in a row
+ * @param headToHead the results against each opponent by name
+ */
+public record PlayerStats(String name, int wins, int losses, int streak, int longestWinStreak,
+                          Map<String, HeadToHead> headToHead) {
+
+    /**
+     * Results of a player against one opponent.
+     *
+     * @param wins the number of games won against the opponent
+     * @param losses the number of games lost against the opponent
+     */
+    public record HeadToHead(int wins, int losses) {
+    }
+
+    /**
+     * @return the number of games played
+     */
+    public int games() {
+        return wins + losses;
+    }
+
+    /**
+     * @param opponent the name of an opponent
+     * @return the results against the opponent, zero if they have not played
+     */
+    public HeadToHead against(String opponent) {
+        return headToHead.getOrDefault(opponent, new HeadToHead(0, 0));
+    }
+}
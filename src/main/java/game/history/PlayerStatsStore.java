@@ -0,0 +1,286 @@
+package game.history;
+
+import game.metrics.LatencyHistogram;
+import game.metrics.MetricsRegistry;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.zip.CRC32C;
+
+/**
+ * Win and loss statistics of every player by name, kept up to date one game at
+ * a time and ranked for the leaderboard.
+ * The statistics are saved to an index file together with the length of the
+ * {@link GameLog} they cover, so opening the store reads only the index, whose
+ * size depends on the number of players and not on the number of games. Games
+ * appended to the log after the index was saved, for example before a crash,
+ * are replayed from that offset. A missing or damaged index is rebuilt from
+ * the whole log.
+ * <p>
+ * The index starts with the magic number, the format version, the covered log
+ * length and the number of players. Each player follows in rank order: the
+ * name as a length-prefixed UTF-8 string, the wins, losses, streak, longest win
+ * streak and number of opponents, then the rank of each opponent with the wins
+ * and losses against it. A CRC-32C checksum of everything before it ends the
+ * file. All numbers are little-endian.
+ */
+public class PlayerStatsStore {
+
+    /**
+     * Name of the index written by the GUI
+     */
+    public static final String DEFAULT_FILE = "players.idx";
+
+    /**
+     * Leaderboard order: most wins first, then fewest losses, then by name
+     */
+    public static final Comparator<PlayerStats> RANKING = Comparator.comparingInt(PlayerStats::wins).reversed()
+            .thenComparingInt(PlayerStats::losses)
+            .thenComparing(PlayerStats::name);
+
+    private static final int MAGIC = 0x53505454;
+    private static final int VERSION = 1;
+
+    private static final LatencyHistogram SAVE_LATENCY = MetricsRegistry.global()
+            .histogram("game_stats_save_latency_nanoseconds", "Time to write the player statistics index");
+
+    private final Path indexPath;
+    private final Path logPath;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(Comparator.<Entry>comparingInt(entry -> -entry.wins)
+            .thenComparingInt(entry -> entry.losses)
+            .thenComparing(entry -> entry.name));
+    private long logLength;
+
+    private PlayerStatsStore(Path indexPath, Path logPath) {
+        this.indexPath = indexPath;
+        this.logPath = logPath;
+    }
+
+    /**
+     * Loads the statistics from the index and catches up with the game log.
+     *
+     * @param indexPath the index, created by {@link #save()} if it does not exist
+     * @param logPath the game log the statistics are computed from
+     * @return the store
+     * @throws IOException if the game log cannot be read
+     */
+    public static PlayerStatsStore open(Path indexPath, Path logPath) throws IOException {
+        var store = new PlayerStatsStore(indexPath, logPath);
+        boolean loaded = false;
+        try {
+            loaded = store.load();
+        } catch (IOException e) {
+            Logger.warn("Cannot read {}, rebuilding it from {}: {}", indexPath, logPath, e.getMessage());
+        }
+        long logSize = Files.exists(logPath) ? Files.size(logPath) : 0;
+        if (!loaded || store.logLength > logSize) {
+            store.clear();
+        }
+        var replayed = new ArrayList<GameRecord>();
+        long end = GameLog.read(logPath, store.logLength, replayed::add);
+        replayed.forEach(store::apply);
+        store.logLength = end;
+        if (!replayed.isEmpty()) {
+            Logger.debug("Replayed {} games from {}", replayed.size(), logPath);
+        }
+        return store;
+    }
+
+    /**
+     * Adds a game that has been appended to the game log.
+     * A game whose winner and loser have the same name is not counted.
+     *
+     * @param record a finished game
+     */
+    public synchronized void record(GameRecord record) {
+        apply(record);
+        logLength += GameLog.recordBytes(record);
+    }
+
+    /**
+     * @param name the name of a player
+     * @return the statistics of the player, empty if the player has no recorded games
+     */
+    public synchronized Optional<PlayerStats> get(String name) {
+        return Optional.ofNullable(entries.get(name)).map(Entry::snapshot);
+    }
+
+    /**
+     * @param limit the maximum number of players
+     * @return the best players in {@link #RANKING} order
+     */
+    public synchronized List<PlayerStats> leaderboard(int limit) {
+        return ranking.stream().limit(limit).map(Entry::snapshot).toList();
+    }
+
+    /**
+     * @return the number of players with recorded games
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the index, replacing the previous one atomically.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    public synchronized void save() throws IOException {
+        long start = System.nanoTime();
+        List<Entry> ranked = new ArrayList<>(ranking);
+        var ranks = new HashMap<String, Integer>();
+        int size = 4 * Integer.BYTES + Long.BYTES;
+        for (int i = 0; i < ranked.size(); i++) {
+            var entry = ranked.get(i);
+            ranks.put(entry.name, i);
+            size += Short.BYTES + entry.nameBytes.length + 5 * Integer.BYTES + entry.headToHead.size() * 3 * Integer.BYTES;
+        }
+        var buffer = ByteBuffer.allocate(size).order(GameLog.BYTE_ORDER);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(logLength).putInt(ranked.size());
+        for (var entry : ranked) {
+            buffer.putShort((short) entry.nameBytes.length).put(entry.nameBytes);
+            buffer.putInt(entry.wins).putInt(entry.losses).putInt(entry.streak).putInt(entry.longestWinStreak);
+            buffer.putInt(entry.headToHead.size());
+            for (var opponent : entry.headToHead.entrySet()) {
+                buffer.putInt(ranks.get(opponent.getKey())).putInt(opponent.getValue()[0]).putInt(opponent.getValue()[1]);
+            }
+        }
+        var crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue()).flip();
+
+        var temporary = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        SAVE_LATENCY.record(System.nanoTime() - start);
+    }
+
+    private boolean load() throws IOException {
+        if (!Files.exists(indexPath)) {
+            return false;
+        }
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(indexPath)).order(GameLog.BYTE_ORDER);
+        if (buffer.remaining() < 4 * Integer.BYTES + Long.BYTES) {
+            throw new IOException("Index too short");
+        }
+        var crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.limit() - Integer.BYTES);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION
+                || buffer.getInt(buffer.limit() - Integer.BYTES) != (int) crc.getValue()) {
+            throw new IOException("Not a valid player index");
+        }
+        try {
+            buffer.position(2 * Integer.BYTES);
+            logLength = buffer.getLong();
+            var ranked = new Entry[buffer.getInt()];
+            var opponents = new int[ranked.length][];
+            for (int i = 0; i < ranked.length; i++) {
+                var nameBytes = new byte[buffer.getShort()];
+                buffer.get(nameBytes);
+                var entry = new Entry(new String(nameBytes, StandardCharsets.UTF_8));
+                entry.wins = buffer.getInt();
+                entry.losses = buffer.getInt();
+                entry.streak = buffer.getInt();
+                entry.longestWinStreak = buffer.getInt();
+                opponents[i] = new int[buffer.getInt() * 3];
+                for (int j = 0; j < opponents[i].length; j++) {
+                    opponents[i][j] = buffer.getInt();
+                }
+                ranked[i] = entry;
+            }
+            for (int i = 0; i < ranked.length; i++) {
+                for (int j = 0; j < opponents[i].length; j += 3) {
+                    ranked[i].headToHead.put(ranked[opponents[i][j]].name, new int[]{opponents[i][j + 1], opponents[i][j + 2]});
+                }
+                entries.put(ranked[i].name, ranked[i]);
+                ranking.add(ranked[i]);
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Damaged player index", e);
+        }
+        return true;
+    }
+
+    private void clear() {
+        entries.clear();
+        ranking.clear();
+        logLength = GameLog.HEADER_BYTES;
+    }
+
+    private void apply(GameRecord record) {
+        if (key(record.winner()).equals(key(record.loser()))) {
+            return;
+        }
+        var winner = entry(record.winner());
+        var loser = entry(record.loser());
+        ranking.remove(winner);
+        ranking.remove(loser);
+        winner.wins++;
+        winner.streak = Math.max(winner.streak, 0) + 1;
+        winner.longestWinStreak = Math.max(winner.longestWinStreak, winner.streak);
+        winner.headToHead.computeIfAbsent(loser.name, name -> new int[2])[0]++;
+        loser.losses++;
+        loser.streak = Math.min(loser.streak, 0) - 1;
+        loser.headToHead.computeIfAbsent(winner.name, name -> new int[2])[1]++;
+        winner.cached = null;
+        loser.cached = null;
+        ranking.add(winner);
+        ranking.add(loser);
+    }
+
+    private Entry entry(String name) {
+        return entries.computeIfAbsent(key(name), Entry::new);
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name;
+    }
+
+    private static final class Entry {
+
+        final String name;
+        final byte[] nameBytes;
+        final Map<String, int[]> headToHead = new HashMap<>();
+        int wins;
+        int losses;
+        int streak;
+        int longestWinStreak;
+        PlayerStats cached;
+
+        Entry(String name) {
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        }
+
+        PlayerStats snapshot() {
+            if (cached == null) {
+                var results = new HashMap<String, PlayerStats.HeadToHead>();
+                headToHead.forEach((opponent, counts) -> results.put(opponent, new PlayerStats.HeadToHead(counts[0], counts[1])));
+                cached = new PlayerStats(name, wins, losses, streak, longestWinStreak, Map.copyOf(results));
+            }
+            return cached;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package game.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic count backed by a {@link LongAdder}, so threads incrementing it at
+ * once update separate cells instead of contending on one value.
+ */
+public class Counter implements CounterMBean {
+
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Adds one to the count.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * @param amount a non-negative amount added to the count
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,12 @@
+package game.metrics;
+
+/**
+ * JMX view of a {@link Counter}.
+ */
+public interface CounterMBean {
+
+    /**
+     * @return the current count
+     */
+    long getCount();
+}
@@ -0,0 +1,23 @@
+package game.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Value computed whenever it is read, such as a rate derived from counters.
+ */
+public class Gauge implements GaugeMBean {
+
+    private final DoubleSupplier supplier;
+
+    /**
+     * @param supplier computes the value, it may be called from any thread
+     */
+    public Gauge(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public double getValue() {
+        return supplier.getAsDouble();
+    }
+}
@@ -0,0 +1,12 @@
+package game.metrics;
+
+/**
+ * JMX view of a {@link Gauge}.
+ */
+public interface GaugeMBean {
+
+    /**
+     * @return the current value
+     */
+    double getValue();
+}
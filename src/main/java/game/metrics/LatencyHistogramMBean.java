@@ -0,0 +1,47 @@
+package game.metrics;
+
+/**
+ * JMX view of a {@link LatencyHistogram}.
+ */
+public interface LatencyHistogramMBean {
+
+    /**
+     * @return the number of recorded values
+     */
+    long getCount();
+
+    /**
+     * @return the sum of the recorded values
+     */
+    long getSum();
+
+    /**
+     * @return the largest recorded value
+     */
+    long getMax();
+
+    /**
+     * @return the mean of the recorded values
+     */
+    double getMean();
+
+    /**
+     * @return the median of the recorded values
+     */
+    long getP50();
+
+    /**
+     * @return the 90th percentile of the recorded values
+     */
+    long getP90();
+
+    /**
+     * @return the 99th percentile of the recorded values
+     */
+    long getP99();
+
+    /**
+     * @return the 99.9th percentile of the recorded values
+     */
+    long getP999();
+}
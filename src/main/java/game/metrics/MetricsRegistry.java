@@ -0,0 +1,193 @@
+package game.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Named {@link Counter}s, {@link Gauge}s and {@link LatencyHistogram}s, readable
+ * over JMX and as Prometheus text. Metrics are created once and then updated
+ * without going through the registry, so the registry is never on a hot path.
+ * Names follow the Prometheus conventions: {@code snake_case}, counters ending
+ * in {@code _total} and histograms in their unit.
+ * Once {@link #exposeOverJmx(MBeanServer)} has been called, every metric is
+ * registered as an MBean named {@code game:type=<kind>,name=<name>}.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    /**
+     * Domain of the MBeans
+     */
+    public static final String JMX_DOMAIN = "game";
+
+    private record Metric(String help, Object value) {
+    }
+
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+    private MBeanServer server;
+
+    /**
+     * @return the registry the game, the engines and the persistence report to
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @param name the name of the counter
+     * @param help a description of the counter
+     * @return the counter of that name, created if needed
+     * @throws IllegalArgumentException if a metric of another kind has the name
+     */
+    public Counter counter(String name, String help) {
+        return get(name, help, Counter.class, new Counter());
+    }
+
+    /**
+     * @param name the name of the histogram, ending in its unit
+     * @param help a description of the histogram
+     * @return the histogram of that name, created if needed
+     * @throws IllegalArgumentException if a metric of another kind has the name
+     */
+    public LatencyHistogram histogram(String name, String help) {
+        return get(name, help, LatencyHistogram.class, new LatencyHistogram());
+    }
+
+    /**
+     * @param name the name of the gauge
+     * @param help a description of the gauge
+     * @param supplier computes the value of the gauge
+     * @return the gauge of that name, created if needed; an existing gauge keeps its supplier
+     * @throws IllegalArgumentException if a metric of another kind has the name
+     */
+    public Gauge gauge(String name, String help, DoubleSupplier supplier) {
+        return get(name, help, Gauge.class, new Gauge(supplier));
+    }
+
+    private synchronized <T> T get(String name, String help, Class<T> type, T created) {
+        if (!name.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        var metric = metrics.get(name);
+        if (metric == null) {
+            metric = new Metric(help, created);
+            metrics.put(name, metric);
+            if (server != null) {
+                register(server, name, metric.value());
+            }
+        }
+        if (!type.isInstance(metric.value())) {
+            throw new IllegalArgumentException("Metric " + name + " is not a " + type.getSimpleName());
+        }
+        return type.cast(metric.value());
+    }
+
+    /**
+     * Registers every metric, and every metric created later, as an MBean.
+     *
+     * @param server the MBean server, typically the platform MBean server
+     */
+    public synchronized void exposeOverJmx(MBeanServer server) {
+        if (this.server != null) {
+            return;
+        }
+        this.server = server;
+        metrics.forEach((name, metric) -> register(server, name, metric.value()));
+    }
+
+    /**
+     * Unregisters the MBeans of the metrics.
+     */
+    public synchronized void unexposeOverJmx() {
+        if (server == null) {
+            return;
+        }
+        for (var entry : metrics.entrySet()) {
+            try {
+                var objectName = objectName(entry.getKey(), entry.getValue().value());
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        server = null;
+    }
+
+    private static void register(MBeanServer server, String name, Object metric) {
+        try {
+            var objectName = objectName(name, metric);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metric, objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + name, e);
+        }
+    }
+
+    static ObjectName objectName(String name, Object metric) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=" + metric.getClass().getSimpleName() + ",name=" + name);
+    }
+
+    /**
+     * Writes every metric in the Prometheus text exposition format, sorted by name.
+     * Histograms are written as summaries with the 0.5, 0.9, 0.99 and 0.999 quantiles.
+     *
+     * @param output receives the text
+     * @throws IOException if the output cannot be written
+     */
+    public void writePrometheus(Appendable output) throws IOException {
+        for (var entry : metrics.entrySet()) {
+            var name = entry.getKey();
+            var metric = entry.getValue();
+            output.append("# HELP ").append(name).append(' ').append(metric.help().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            if (metric.value() instanceof Counter counter) {
+                output.append("# TYPE ").append(name).append(" counter\n");
+                output.append(name).append(' ').append(Long.toString(counter.getCount())).append('\n');
+            } else if (metric.value() instanceof Gauge gauge) {
+                output.append("# TYPE ").append(name).append(" gauge\n");
+                output.append(name).append(' ').append(format(gauge.getValue())).append('\n');
+            } else if (metric.value() instanceof LatencyHistogram histogram) {
+                output.append("# TYPE ").append(name).append(" summary\n");
+                for (var quantile : new String[]{"0.5", "0.9", "0.99", "0.999"}) {
+                    output.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                            .append(Long.toString(histogram.getValueAtPercentile(Double.parseDouble(quantile) * 100))).append('\n');
+                }
+                output.append(name).append("_sum ").append(Long.toString(histogram.getSum())).append('\n');
+                output.append(name).append("_count ").append(Long.toString(histogram.getCount())).append('\n');
+            }
+        }
+    }
+
+    /**
+     * @return every metric in the Prometheus text exposition format
+     */
+    public String toPrometheus() {
+        var text = new StringBuilder();
+        try {
+            writePrometheus(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return String.format(Locale.ROOT, "%s", value);
+    }
+}
@@ -0,0 +1,118 @@
+package game.metrics;
+
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the metrics of a registry to a file in the Prometheus text format at a
+ * fixed rate on a daemon thread, for a node exporter's textfile collector or for
+ * graphing by hand. Every dump replaces the file atomically, so readers never
+ * see a partial file.
+ */
+public class PrometheusDump implements AutoCloseable {
+
+    /**
+     * System property naming the dump file of the GUI and the command-line tools
+     */
+    public static final String FILE_PROPERTY = "game.metrics.file";
+
+    /**
+     * System property setting the time between dumps in milliseconds
+     */
+    public static final String INTERVAL_PROPERTY = "game.metrics.intervalMillis";
+
+    /**
+     * Time between dumps by default
+     */
+    public static final long DEFAULT_INTERVAL_MILLIS = 10_000;
+
+    private final MetricsRegistry registry;
+    private final Path path;
+    private final ScheduledExecutorService executor;
+
+    private PrometheusDump(MetricsRegistry registry, Path path, long intervalMillis) {
+        this.registry = registry;
+        this.path = path;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::dumpQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param registry the metrics to write
+     * @param path the file to write
+     * @param intervalMillis the time between dumps
+     * @return the running dump
+     */
+    public static PrometheusDump start(MetricsRegistry registry, Path path, long intervalMillis) {
+        if (intervalMillis < 1) {
+            throw new IllegalArgumentException("Invalid interval: " + intervalMillis);
+        }
+        return new PrometheusDump(registry, path, intervalMillis);
+    }
+
+    /**
+     * Exposes the {@link MetricsRegistry#global() global registry} over the platform
+     * MBean server, and starts dumping it if the {@value #FILE_PROPERTY} system property is set.
+     *
+     * @return the running dump, empty if the property is not set
+     */
+    public static Optional<PrometheusDump> startFromProperties() {
+        MetricsRegistry.global().exposeOverJmx(ManagementFactory.getPlatformMBeanServer());
+        var file = System.getProperty(FILE_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return Optional.empty();
+        }
+        long interval = Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_MILLIS);
+        Logger.debug("Dumping metrics to {} every {} ms", Path.of(file).toAbsolutePath(), interval);
+        return Optional.of(start(MetricsRegistry.global(), Path.of(file), interval));
+    }
+
+    /**
+     * Writes the metrics now.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void dump() throws IOException {
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.writeString(temporary, registry.toPrometheus(), StandardCharsets.UTF_8);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void dumpQuietly() {
+        try {
+            dump();
+        } catch (IOException e) {
+            Logger.warn(e, "Cannot write the metrics to {}", path);
+        }
+    }
+
+    /**
+     * Stops the periodic dumps and writes the metrics a last time.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dump();
+    }
+}
@@ -1,19 +1,16 @@
 package game.model;
 
-import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleObjectProperty;
-
 /**
  * Represents the circle
  */
 public class Circle {
 
     private CircleType type;
-    private final ObjectProperty<Position> position = new SimpleObjectProperty<>();
+    private Position position;
 
     public Circle(CircleType type, Position position){
         this.type = type;
-        this.position.set(position);
+        this.position = position;
     }
 
     /**
@@ -26,20 +23,13 @@ public class Circle {
      *
      * @return the position of the circle
      */
-    public Position getPosition() { return position.get(); }
-
-    /**
-     *
-     * @return the positionProperty of the circle
-     */
-    public ObjectProperty<Position> positionProperty() { return position; }
+    public Position getPosition() { return position; }
 
     /**
      * Moves the circle to the specified direction
      * @param direction a direction to which the circle is want to be moved
      */
     public void moveTo(Direction direction){
-        Position newPosition = position.get().getPositionAt(direction);
-        position.set(newPosition);
+        position = position.getPositionAt(direction);
     }
 }
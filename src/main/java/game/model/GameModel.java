@@ -1,33 +1,110 @@
 package game.model;
 
-import javafx.beans.property.ObjectProperty;
+import game.metrics.Counter;
+import game.metrics.MetricsRegistry;
+import game.trace.Trace;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Represents the model of the game
+ * Represents the model of the game.
+ * The model is plain Java without JavaFX, views are notified of moves through
+ * {@link MoveListener}s.
+ * Every move is recorded in a log of encoded moves, so moves can be unmade and
+ * redone, and {@link #snapshot()} captures the state in constant time: the
+ * state arrays are shared with the snapshot and copied on the next change.
+ * The size of the board, the number of circles and the length of a winning
+ * line are given by {@link GameRules}; a line is looked for only through the
+ * cell of the last move, so win detection does not depend on the size of the
+ * board.
  */
 public class GameModel {
 
     /**
-     * Height of a board
+     * Height of the standard board
      */
     public static final int MAX_ROW_SIZE = 5;
 
     /**
-     * Width of a board
+     * Width of the standard board
      */
     public static final int MAX_COL_SIZE = 4;
 
     /**
-     * Storing the positions of a winning circle
+     * Number of directions, an encoded move is {@code circleID * DIRECTION_COUNT + direction.ordinal()}
      */
-    public List<Position> winningPositions = new ArrayList<>();
+    public static final int DIRECTION_COUNT = 4;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final Counter MOVES = MetricsRegistry.global().counter("game_model_moves_total", "Moves made on game models");
+
+    private static final Counter WIN_CHECKS = MetricsRegistry.global().counter("game_model_win_checks_total", "Win checks on game models");
+
+    private static final Counter WINS = MetricsRegistry.global().counter("game_model_wins_total", "Winning lines found on game models");
+
+    /**
+     * The row and column steps of the lines: horizontal, vertical and the two diagonals
+     */
+    private static final int[][] LINE_STEPS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    /**
+     * The neighbour tables of the board sizes in use, shared by the models
+     */
+    private static final Map<GameRules, int[][]> NEIGHBOUR_TABLES = new ConcurrentHashMap<>();
+
+    private static int[][] neighbourCells(GameRules rules) {
+        var neighbours = new int[DIRECTION_COUNT][rules.cellCount()];
+        for (var direction : DIRECTIONS) {
+            for (int cell = 0; cell < rules.cellCount(); cell++) {
+                var neighbour = Position.of(cell / rules.cols() + direction.getRowChange(), cell % rules.cols() + direction.getColChange());
+                neighbours[direction.ordinal()][cell] = rules.isOnBoard(neighbour) ? rules.cellOf(neighbour) : -1;
+            }
+        }
+        return neighbours;
+    }
+
+    private final GameRules rules;
+
+    /**
+     * The cell next to each cell in each direction, indexed by the ordinal of the direction, -1 if off the board
+     */
+    private final int[][] neighbourCells;
+
+    /**
+     * The line found by the last win check, empty if it found none
+     */
+    private List<Position> winningLine = List.of();
+
+    /**
+     * The type of each circle
+     */
+    private final CircleType[] circleTypes;
+
+    /**
+     * The cell index of each circle, {@code row * cols + col}
+     */
+    private int[] circleCells;
 
     /**
-     * Storing all circle
+     * The circle on each cell, -1 if the cell is empty
      */
-    private Circle[] circles;
+    private int[] cellCircles;
+
+    /**
+     * The encoded moves made, the moves from {@code moveCount} to {@code redoLimit} can be redone
+     */
+    private int[] moveLog;
+    private int moveCount;
+    private int redoLimit;
+
+    /**
+     * True if the state arrays are shared with a snapshot and must be copied before a change
+     */
+    private boolean shared;
+
+    private List<MoveListener> moveListeners = List.of();
 
     Random random = new Random();
     private int playerTurn = random.nextInt(2);
@@ -39,6 +116,13 @@ public class GameModel {
         playerTurn++;
     }
 
+    /**
+     * Decreasing the number of turn
+     */
+    public void decreasePlayerTurn(){
+        playerTurn--;
+    }
+
     /**
      * @return number that determines which player's turn
      */
@@ -51,14 +135,17 @@ public class GameModel {
      * starter state of the game.
      */
     public GameModel() {
-        this(new Circle(CircleType.BLUE, new Position(0, 0)),
-                new Circle(CircleType.RED, new Position(0, 1)),
-                new Circle(CircleType.BLUE, new Position(0, 2)),
-                new Circle(CircleType.RED, new Position(0, 3)),
-                new Circle(CircleType.BLUE, new Position(MAX_ROW_SIZE - 1, 1)),
-                new Circle(CircleType.RED, new Position(MAX_ROW_SIZE - 1, 0)),
-                new Circle(CircleType.BLUE, new Position(MAX_ROW_SIZE - 1, 3)),
-                new Circle(CircleType.RED, new Position(MAX_ROW_SIZE - 1, 2)));
+        this(GameRules.STANDARD);
+    }
+
+    /**
+     * Creates a {@code GameModel} object that corresponds to the starter
+     * state of a variant of the game.
+     *
+     * @param rules the rules of the variant
+     */
+    public GameModel(GameRules rules) {
+        this(rules, rules.initialCircles());
     }
 
     /**
@@ -68,8 +155,76 @@ public class GameModel {
      * @param circles all circle
      */
     public GameModel(Circle... circles) {
+        this(GameRules.STANDARD, circles);
+    }
+
+    /**
+     * Creates a {@code GameModel} object of a variant of the game initializing
+     * the positions of the circles with the positions specified.
+     *
+     * @param rules the rules of the variant
+     * @param circles all circle
+     */
+    public GameModel(GameRules rules, Circle... circles) {
+        this.rules = rules;
+        neighbourCells = NEIGHBOUR_TABLES.computeIfAbsent(rules, GameModel::neighbourCells);
         checkCircles(circles);
-        this.circles = circles.clone();
+        circleTypes = new CircleType[circles.length];
+        circleCells = new int[circles.length];
+        cellCircles = new int[rules.cellCount()];
+        moveLog = new int[16];
+        Arrays.fill(cellCircles, -1);
+        for (int i = 0; i < circles.length; i++) {
+            circleTypes[i] = circles[i].getType();
+            circleCells[i] = rules.cellOf(circles[i].getPosition());
+            cellCircles[circleCells[i]] = i;
+        }
+    }
+
+    /**
+     * Creates a {@code GameModel} object continuing from a snapshot in
+     * constant time, the snapshot is not affected by the moves of the model.
+     *
+     * @param snapshot a snapshot of a model
+     */
+    public GameModel(GameSnapshot snapshot) {
+        rules = snapshot.rules;
+        neighbourCells = NEIGHBOUR_TABLES.computeIfAbsent(rules, GameModel::neighbourCells);
+        circleTypes = snapshot.circleTypes;
+        circleCells = snapshot.circleCells;
+        cellCircles = snapshot.cellCircles;
+        moveLog = snapshot.moveLog;
+        moveCount = snapshot.moveCount;
+        redoLimit = snapshot.moveCount;
+        playerTurn = snapshot.playerTurn;
+        shared = true;
+    }
+
+    /**
+     * Captures the current state in constant time. The snapshot is immutable
+     * and may be read by any thread while this model continues.
+     *
+     * @return a snapshot of the circles, the turn and the moves made
+     */
+    public GameSnapshot snapshot() {
+        shared = true;
+        return new GameSnapshot(rules, circleTypes, circleCells, cellCircles, moveLog, moveCount, playerTurn);
+    }
+
+    private void unshare() {
+        if (shared) {
+            circleCells = circleCells.clone();
+            cellCircles = cellCircles.clone();
+            moveLog = moveLog.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * @return the rules of the game
+     */
+    public GameRules getRules() {
+        return rules;
     }
 
     private void checkCircles(Circle[] circles) {
@@ -86,7 +241,7 @@ public class GameModel {
      * @return Number of all circles
      */
     public int getCircleCount() {
-        return circles.length;
+        return circleTypes.length;
     }
 
     /**
@@ -94,7 +249,7 @@ public class GameModel {
      * @return the type of the circle specified
      */
     public CircleType getCircleType(int circleID) {
-        return circles[circleID].getType();
+        return circleTypes[circleID];
     }
 
     /**
@@ -103,16 +258,35 @@ public class GameModel {
      * @return the position of the circle specified
      */
     public Position getCirclePosition(int circleID) {
-        return circles[circleID].getPosition();
+        return rules.positionOf(circleCells[circleID]);
     }
 
     /**
-     *
      * @param circleID the number of a circle
-     * @return the positionProperty of the circle specified
+     * @return the index of the cell of the circle, {@code row * cols + col}
+     */
+    public int getCircleCell(int circleID) {
+        return circleCells[circleID];
+    }
+
+    /**
+     * Registers a listener notified after every move.
+     *
+     * @param listener the listener
+     */
+    public void addMoveListener(MoveListener listener) {
+        var listeners = new ArrayList<>(moveListeners);
+        listeners.add(listener);
+        moveListeners = List.copyOf(listeners);
+    }
+
+    /**
+     * @param listener a listener registered by {@link #addMoveListener(MoveListener)}
      */
-    public ObjectProperty<Position> positionProperty(int circleID) {
-        return circles[circleID].positionProperty();
+    public void removeMoveListener(MoveListener listener) {
+        var listeners = new ArrayList<>(moveListeners);
+        listeners.remove(listener);
+        moveListeners = List.copyOf(listeners);
     }
 
     /**
@@ -122,22 +296,168 @@ public class GameModel {
      * @return return true if the move is possible, return false otherwise
      */
     public boolean isValidMove(int circleID, Direction direction) {
-        if (circleID < 0 || circleID >= circles.length) {
+        if (circleID < 0 || circleID >= circleTypes.length) {
             throw new IllegalArgumentException();
         }
-        Position newPosition = circles[circleID].getPosition().getPositionAt(direction);
-        if (!isOnBoard(newPosition)) {
-            return false;
+        int target = neighbourCells[direction.ordinal()][circleCells[circleID]];
+        return target >= 0 && cellCircles[target] < 0;
+    }
+
+    /**
+     * Writes the valid moves of the player whose turn it is into the buffer,
+     * without allocating.
+     *
+     * @param moves a buffer of at least {@code getCircleCount() * DIRECTION_COUNT} elements
+     * @return the number of moves written, see {@link #encodeMove(int, Direction)}
+     */
+    public int generateMoves(int[] moves) {
+        var type = switchPlayer(playerTurn);
+        int count = 0;
+        for (int i = 0; i < circleTypes.length; i++) {
+            if (circleTypes[i] == type) {
+                count = addMoves(i, moves, count);
+            }
         }
-        for (var piece : circles) {
-            if (piece.getPosition().equals(newPosition)) {
-                return false;
+        return count;
+    }
+
+    /**
+     * Writes the valid moves of a circle into the buffer, without allocating.
+     *
+     * @param circleID the number of a circle
+     * @param moves a buffer of at least {@link #DIRECTION_COUNT} elements
+     * @return the number of moves written, see {@link #encodeMove(int, Direction)}
+     */
+    public int generateMoves(int circleID, int[] moves) {
+        return addMoves(circleID, moves, 0);
+    }
+
+    private int addMoves(int circleID, int[] moves, int count) {
+        int cell = circleCells[circleID];
+        for (int direction = 0; direction < DIRECTION_COUNT; direction++) {
+            int target = neighbourCells[direction][cell];
+            if (target >= 0 && cellCircles[target] < 0) {
+                moves[count++] = circleID * DIRECTION_COUNT + direction;
             }
         }
-        return true;
+        return count;
     }
 
     /**
+     * @param circleID the number of a circle
+     * @param direction a direction to which the circle is moved
+     * @return the move encoded as an int
+     */
+    public static int encodeMove(int circleID, Direction direction) {
+        return circleID * DIRECTION_COUNT + direction.ordinal();
+    }
+
+    /**
+     * @param move an encoded move
+     * @return the number of the circle moved
+     */
+    public static int moveCircleID(int move) {
+        return move / DIRECTION_COUNT;
+    }
+
+    /**
+     * @param move an encoded move
+     * @return the direction of the move
+     */
+    public static Direction moveDirection(int move) {
+        return DIRECTIONS[move % DIRECTION_COUNT];
+    }
+
+    /**
+     * Moves a circle and records the move, discarding the moves that could be redone.
+     *
+     * @param move an encoded move
+     * @throws IllegalArgumentException if the move is not valid
+     */
+    public void makeMove(int move) {
+        if (!isValidMove(moveCircleID(move), moveDirection(move))) {
+            throw new IllegalArgumentException();
+        }
+        unshare();
+        if (moveCount == moveLog.length) {
+            moveLog = Arrays.copyOf(moveLog, moveCount * 2);
+        }
+        moveLog[moveCount++] = move;
+        redoLimit = moveCount;
+        int circleID = moveCircleID(move);
+        int from = circleCells[circleID];
+        apply(circleID, move % DIRECTION_COUNT);
+        MOVES.increment();
+        Trace.moveMade(from, circleCells[circleID]);
+    }
+
+    /**
+     * Moves the circle of the last move back. The turn is not changed.
+     *
+     * @return the encoded move unmade
+     * @throws IllegalStateException if no move has been made
+     */
+    public int unmakeMove() {
+        if (moveCount == 0) {
+            throw new IllegalStateException();
+        }
+        unshare();
+        int move = moveLog[--moveCount];
+        apply(moveCircleID(move), (move + DIRECTION_COUNT / 2) % DIRECTION_COUNT);
+        return move;
+    }
+
+    /**
+     * Makes the last unmade move again. The turn is not changed.
+     *
+     * @return the encoded move redone
+     * @throws IllegalStateException if there is no move to redo
+     */
+    public int redoMove() {
+        if (moveCount == redoLimit) {
+            throw new IllegalStateException();
+        }
+        unshare();
+        int move = moveLog[moveCount++];
+        apply(moveCircleID(move), move % DIRECTION_COUNT);
+        return move;
+    }
+
+    /**
+     * @return true if there is a move to unmake
+     */
+    public boolean canUndo() {
+        return moveCount > 0;
+    }
+
+    /**
+     * @return true if there is an unmade move to redo
+     */
+    public boolean canRedo() {
+        return moveCount < redoLimit;
+    }
+
+    /**
+     * @return the number of moves made
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @param index the index of a move, less than {@link #getMoveCount()}
+     * @return the encoded move
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return moveLog[index];
+    }
+
+    /**
+     * Allocates a new set on every call, {@link #generateMoves(int, int[])} does not.
+     *
      * @param circleID the number of a circle
      * @return direction, whither the circle is can be moved
      */
@@ -152,13 +472,24 @@ public class GameModel {
     }
 
     /**
-     * Call the moveTo method of the Circle class
      * Moves the specified circle to the specified direction
      * @param circleID the number of a circle
      * @param direction a direction to which the circle is want to be moved
+     * @throws IllegalArgumentException if the move is not valid
      */
     public void move(int circleID, Direction direction) {
-        circles[circleID].moveTo(direction);
+        makeMove(encodeMove(circleID, direction));
+    }
+
+    private void apply(int circleID, int direction) {
+        int oldCell = circleCells[circleID];
+        int target = neighbourCells[direction][oldCell];
+        cellCircles[oldCell] = -1;
+        cellCircles[target] = circleID;
+        circleCells[circleID] = target;
+        for (int i = 0; i < moveListeners.size(); i++) {
+            moveListeners.get(i).circleMoved(circleID, rules.positionOf(oldCell), rules.positionOf(target));
+        }
     }
 
     /**
@@ -167,8 +498,7 @@ public class GameModel {
      * @return return true if the circle is on the board
      */
     protected boolean isOnBoard(Position position) {
-        return position.row() >= 0 && position.row() < MAX_ROW_SIZE &&
-                position.col() >= 0 && position.col() < MAX_COL_SIZE;
+        return rules.isOnBoard(position);
     }
 
     /**
@@ -188,125 +518,188 @@ public class GameModel {
      * @return position of circles of the same type
      */
     public List<Position> getCirclePositions() {
-        List<Position> positions = new ArrayList<>(circles.length);
-        for (var circle : circles) {
-            if (circle.getType().equals(switchPlayer(playerTurn))) {
-                positions.add(circle.getPosition());
+        List<Position> positions = new ArrayList<>(circleTypes.length);
+        for (int i = 0; i < circleTypes.length; i++) {
+            if (circleTypes[i].equals(switchPlayer(playerTurn))) {
+                positions.add(rules.positionOf(circleCells[i]));
             }
         }
         return positions;
     }
 
     /**
+     * Looks for a line of {@link GameRules#lineLength()} circles anywhere
+     * among the positions given, which need not be on the board.
+     * {@link #isWinAt(int)} is faster when the last move is known.
      *
      * @param positions the positions of the circles
      * @return true, if someone wins the game
      */
     public boolean isWin(List<Position> positions){
-        return rowWins(positions) || colWins(positions) || diagWins(positions);
-    }
-
-    private void addToWinningCells(Position position1, Position position2, Position position3){
-        winningPositions.clear();
-        winningPositions.add(position1);
-        winningPositions.add(position2);
-        winningPositions.add(position3);
-    }
-
-    private boolean rowWins(List<Position> positions){
-        return checkRowWin(positions.get(0), positions.get(1), positions.get(2)) ||
-                checkRowWin(positions.get(0), positions.get(1), positions.get(3)) ||
-                checkRowWin(positions.get(0), positions.get(2), positions.get(3)) ||
-                checkRowWin(positions.get(1), positions.get(2), positions.get(3));
+        WIN_CHECKS.increment();
+        if (findLine(positions, 0, LINE_STEPS.length)) {
+            WINS.increment();
+            return true;
+        }
+        return false;
     }
 
     /**
+     * Looks for a line through the circle on a cell, scanning at most
+     * {@code lineLength - 1} cells each way along the four lines through it.
+     * The line found is returned by {@link #getWinningLine()}.
      *
-     * @param position1 position of a circle
-     * @param position2 position of a circle
-     * @param position3 position of a circle
-     * @return true, if there are three circles in a row next to each other
-     */
-    protected boolean checkRowWin(Position position1, Position position2, Position position3){
-        if (position1.row() == position2.row() && position1.row() == position3.row() &&
-                (position1.col() + position2.col() + position3.col()) % 3 == 0){
-            addToWinningCells(position1, position2, position3);
-            return true;
+     * @param cell the index of a cell, typically the target of the last move
+     * @return true, if the circle on the cell is in a winning line of circles of its type
+     */
+    public boolean isWinAt(int cell) {
+        WIN_CHECKS.increment();
+        winningLine = List.of();
+        int circleID = cellCircles[cell];
+        if (circleID < 0) {
+            return false;
+        }
+        var type = circleTypes[circleID];
+        int row = cell / rules.cols();
+        int col = cell % rules.cols();
+        for (var step : LINE_STEPS) {
+            int backward = countLine(type, row, col, -step[0], -step[1]);
+            int forward = countLine(type, row, col, step[0], step[1]);
+            if (backward + 1 + forward >= rules.lineLength()) {
+                var line = new Position[backward + 1 + forward];
+                for (int i = -backward; i <= forward; i++) {
+                    line[backward + i] = Position.of(row + i * step[0], col + i * step[1]);
+                }
+                winningLine = List.of(line);
+                WINS.increment();
+                Trace.winDetected(cell, type.ordinal());
+                return true;
+            }
         }
         return false;
     }
 
-    private boolean colWins(List<Position> positions){
-        return checkColWin(positions.get(0), positions.get(1), positions.get(2)) ||
-                checkColWin(positions.get(0), positions.get(1), positions.get(3)) ||
-                checkColWin(positions.get(0), positions.get(2), positions.get(3)) ||
-                checkColWin(positions.get(1), positions.get(2), positions.get(3));
+    /**
+     * @return true, if the circle moved last is in a winning line, see {@link #isWinAt(int)}
+     */
+    public boolean isLastMoveWin() {
+        return moveCount > 0 && isWinAt(circleCells[moveCircleID(moveLog[moveCount - 1])]);
     }
 
     /**
-     *
-     * @param position1 position of a circle
-     * @param position2 position of a circle
-     * @param position3 position of a circle
-     * @return true, if there are three circles in a column next to each other
-     */
-    protected boolean checkColWin(Position position1, Position position2, Position position3){
-        if (position1.col() == position2.col() && position1.col() == position3.col() &&
-                (position1.row() + position2.row() + position3.row()) % 3 == 0){
-            addToWinningCells(position1, position2, position3);
-            return true;
+     * @return the positions of the line found by the last call of {@link #isWin(List)},
+     * {@link #isWinAt(int)} or {@link #isLastMoveWin()}, empty if it found no line; the list is immutable
+     */
+    public List<Position> getWinningLine() {
+        return winningLine;
+    }
+
+    private int countLine(CircleType type, int row, int col, int rowStep, int colStep) {
+        int count = 0;
+        for (int i = 1; i < rules.lineLength(); i++) {
+            int lineRow = row + i * rowStep;
+            int lineCol = col + i * colStep;
+            if (lineRow < 0 || lineRow >= rules.rows() || lineCol < 0 || lineCol >= rules.cols()) {
+                break;
+            }
+            int circleID = cellCircles[lineRow * rules.cols() + lineCol];
+            if (circleID < 0 || circleTypes[circleID] != type) {
+                break;
+            }
+            count++;
         }
-        return false;
+        return count;
     }
 
     /**
-     *
-     * @param positions the positions of the circles
-     * @return true, if there are three circles in a diagonal next to each other
+     * Looks for a line along some of the {@link #LINE_STEPS}, starting only
+     * from the first position of each run, and stores it in {@link #winningLine}.
      */
-    protected boolean diagWins(List<Position> positions){
-        for (int i = 0; i < 4; i++) {
-            for (int j = 0; j < 4; j++) {
-                if (positions.get(i).row()-1 == positions.get(j).row() && positions.get(i).col()-1 == positions.get(j).col()) {
-                    for (int k = 0; k < 4; k++) {
-                        if (positions.get(i).row() + 1 == positions.get(k).row() && positions.get(i).col() + 1 == positions.get(k).col()) {
-                            addToWinningCells(positions.get(i), positions.get(j), positions.get(k));
-                            return true;
-                        }
-                    }
+    private boolean findLine(List<Position> positions, int firstStep, int lastStep) {
+        winningLine = List.of();
+        Collection<Position> cells = positions.size() > 16 ? new HashSet<>(positions) : positions;
+        for (var position : positions) {
+            for (int line = firstStep; line < lastStep; line++) {
+                int rowStep = LINE_STEPS[line][0];
+                int colStep = LINE_STEPS[line][1];
+                if (cells.contains(Position.of(position.row() - rowStep, position.col() - colStep))) {
+                    continue;
+                }
+                int length = 1;
+                while (cells.contains(Position.of(position.row() + length * rowStep, position.col() + length * colStep))) {
+                    length++;
                 }
-                if (positions.get(i).row()-1 == positions.get(j).row() && positions.get(i).col()+1 == positions.get(j).col()){
-                    for (int k = 0; k < 4; k++) {
-                        if (positions.get(i).row() + 1 == positions.get(k).row() && positions.get(i).col() - 1 == positions.get(k).col()) {
-                            addToWinningCells(positions.get(i), positions.get(j), positions.get(k));
-                            return true;
-                        }
+                if (length >= rules.lineLength()) {
+                    var cellsOfLine = new Position[length];
+                    for (int i = 0; i < length; i++) {
+                        cellsOfLine[i] = Position.of(position.row() + i * rowStep, position.col() + i * colStep);
                     }
+                    winningLine = List.of(cellsOfLine);
+                    return true;
                 }
             }
         }
         return false;
     }
 
+    /**
+     *
+     * @param positions positions of circles
+     * @return true, if the positions are next to each other in a row and there are enough of them to win
+     */
+    protected boolean checkRowWin(Position... positions){
+        return checkLine(positions, 0);
+    }
+
+    /**
+     *
+     * @param positions positions of circles
+     * @return true, if the positions are next to each other in a column and there are enough of them to win
+     */
+    protected boolean checkColWin(Position... positions){
+        return checkLine(positions, 1);
+    }
+
+    private boolean checkLine(Position[] positions, int line) {
+        return positions.length >= rules.lineLength() && findLine(Arrays.asList(positions), line, line + 1)
+                && winningLine.size() == positions.length;
+    }
+
+    /**
+     *
+     * @param positions the positions of the circles
+     * @return true, if there are enough circles in a diagonal next to each other
+     */
+    protected boolean diagWins(List<Position> positions){
+        return findLine(positions, 2, LINE_STEPS.length);
+    }
+
     /**
      *
      * @param position the position of the circle
      * @return number, that assign to a circle
      */
     public OptionalInt getCircleID(Position position) {
-        for (int i = 0; i < circles.length; i++) {
-            if (circles[i].getPosition().equals(position)) {
-                return OptionalInt.of(i);
-            }
+        if (!isOnBoard(position)) {
+            return OptionalInt.empty();
         }
-        return OptionalInt.empty();
+        int circleID = cellCircles[rules.cellOf(position)];
+        return circleID < 0 ? OptionalInt.empty() : OptionalInt.of(circleID);
+    }
+
+    /**
+     * @param cell the index of a cell, {@code row * cols + col}
+     * @return the number of the circle on the cell, or -1 if the cell is empty
+     */
+    public int getCircleIDAt(int cell) {
+        return cellCircles[cell];
     }
 
     @Override
     public String toString() {
         StringJoiner joiner = new StringJoiner(",", "[", "]");
-        for (var circle : circles) {
-            joiner.add(circle.toString());
+        for (int i = 0; i < circleTypes.length; i++) {
+            joiner.add(circleTypes[i] + rules.positionOf(circleCells[i]).toString());
         }
         return joiner.toString();
     }
@@ -0,0 +1,89 @@
+package game.model;
+
+/**
+ * Represents the rules of a variant of the game: the size of the board, the
+ * number of circles of each player and the number of circles in a line that
+ * wins.
+ * The circles start on the top and bottom rows, alternating in colour, the
+ * top row starting with blue and the bottom row with red. If they do not fit
+ * in one row, they continue on the next row towards the middle.
+ *
+ * @param rows the height of the board
+ * @param cols the width of the board
+ * @param piecesPerSide the number of circles of each player
+ * @param lineLength the number of circles next to each other that wins
+ */
+public record GameRules(int rows, int cols, int piecesPerSide, int lineLength) {
+
+    /**
+     * The rules of the original game: 5 × 4 board, 4 circles each, 3 in a row wins
+     */
+    public static final GameRules STANDARD = new GameRules(GameModel.MAX_ROW_SIZE, GameModel.MAX_COL_SIZE, 4, 3);
+
+    /**
+     * @throws IllegalArgumentException if the circles do not fit on the board or no line can be formed
+     */
+    public GameRules {
+        if (rows < 1 || cols < 1 || piecesPerSide < 1 || lineLength < 2) {
+            throw new IllegalArgumentException("Invalid rules: " + rows + "x" + cols + ", " + piecesPerSide + " circles, " + lineLength + " in a row");
+        }
+        if (2 * ((piecesPerSide + cols - 1) / cols) > rows) {
+            throw new IllegalArgumentException("The circles do not fit on the board");
+        }
+        if (lineLength > Math.max(rows, cols) || lineLength > piecesPerSide) {
+            throw new IllegalArgumentException("No line of " + lineLength + " can be formed");
+        }
+    }
+
+    /**
+     * @return the number of cells of the board
+     */
+    public int cellCount() {
+        return rows * cols;
+    }
+
+    /**
+     * @param position a position
+     * @return true if the position is on the board
+     */
+    public boolean isOnBoard(Position position) {
+        return position.row() >= 0 && position.row() < rows && position.col() >= 0 && position.col() < cols;
+    }
+
+    /**
+     * @param position a position on the board
+     * @return the index of the cell, {@code row * cols + col}
+     */
+    public int cellOf(Position position) {
+        return position.row() * cols + position.col();
+    }
+
+    /**
+     * @param cell the index of a cell
+     * @return the position of the cell
+     */
+    public Position positionOf(int cell) {
+        return Position.of(cell / cols, cell % cols);
+    }
+
+    /**
+     * The circles in the order of their numbers: the top rows from the left,
+     * then the bottom rows in pairs of a blue and the red circle to its left.
+     *
+     * @return the circles of the starter state
+     */
+    public Circle[] initialCircles() {
+        var circles = new Circle[2 * piecesPerSide];
+        int count = 0;
+        for (int i = 0; i < piecesPerSide; i++) {
+            circles[count++] = new Circle(i % 2 == 0 ? CircleType.BLUE : CircleType.RED, Position.of(i / cols, i % cols));
+        }
+        for (int i = 0; i < piecesPerSide; i += 2) {
+            if (i + 1 < piecesPerSide) {
+                circles[count++] = new Circle(CircleType.BLUE, Position.of(rows - 1 - (i + 1) / cols, (i + 1) % cols));
+            }
+            circles[count++] = new Circle(CircleType.RED, Position.of(rows - 1 - i / cols, i % cols));
+        }
+        return circles;
+    }
+}
@@ -0,0 +1,99 @@
+package game.model;
+
+/**
+ * Represents an immutable state of a {@link GameModel}, created by
+ * {@link GameModel#snapshot()}. The arrays are shared with the model until it
+ * changes, and are never modified afterwards, so a snapshot may be read by any
+ * thread.
+ */
+public final class GameSnapshot {
+
+    final GameRules rules;
+    final CircleType[] circleTypes;
+    final int[] circleCells;
+    final int[] cellCircles;
+    final int[] moveLog;
+    final int moveCount;
+    final int playerTurn;
+
+    GameSnapshot(GameRules rules, CircleType[] circleTypes, int[] circleCells, int[] cellCircles, int[] moveLog, int moveCount, int playerTurn) {
+        this.rules = rules;
+        this.circleTypes = circleTypes;
+        this.circleCells = circleCells;
+        this.cellCircles = cellCircles;
+        this.moveLog = moveLog;
+        this.moveCount = moveCount;
+        this.playerTurn = playerTurn;
+    }
+
+    /**
+     * @return the rules of the game
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * @return Number of all circles
+     */
+    public int getCircleCount() {
+        return circleTypes.length;
+    }
+
+    /**
+     * @param circleID the number of a circle
+     * @return the type of the circle specified
+     */
+    public CircleType getCircleType(int circleID) {
+        return circleTypes[circleID];
+    }
+
+    /**
+     * @param circleID the number of a circle
+     * @return the position of the circle specified
+     */
+    public Position getCirclePosition(int circleID) {
+        return rules.positionOf(circleCells[circleID]);
+    }
+
+    /**
+     * @param circleID the number of a circle
+     * @return the index of the cell of the circle, {@code row * cols + col}
+     */
+    public int getCircleCell(int circleID) {
+        return circleCells[circleID];
+    }
+
+    /**
+     * @param cell the index of a cell, {@code row * cols + col}
+     * @return the number of the circle on the cell, or -1 if the cell is empty
+     */
+    public int getCircleIDAt(int cell) {
+        return cellCircles[cell];
+    }
+
+    /**
+     * @return number that determines which player's turn
+     */
+    public int getPlayerTurn() {
+        return playerTurn;
+    }
+
+    /**
+     * @return the number of moves made
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @param index the index of a move, less than {@link #getMoveCount()}
+     * @return the encoded move
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return moveLog[index];
+    }
+}
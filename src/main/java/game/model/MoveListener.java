@@ -0,0 +1,18 @@
+package game.model;
+
+/**
+ * Receives the moves made on a {@link GameModel}, so that views can follow the
+ * model without the model depending on them.
+ */
+@FunctionalInterface
+public interface MoveListener {
+
+    /**
+     * Called after a circle has been moved.
+     *
+     * @param circleID the number of the circle
+     * @param oldPosition the position of the circle before the move
+     * @param newPosition the position of the circle after the move
+     */
+    void circleMoved(int circleID, Position oldPosition, Position newPosition);
+}
@@ -5,13 +5,43 @@ package game.model;
  */
 public record Position(int row, int col) {
 
+    /**
+     * Number of rows and columns with shared instances
+     */
+    private static final int SHARED_SIZE = 64;
+
+    private static final Position[] CELLS = new Position[SHARED_SIZE * SHARED_SIZE];
+
+    static {
+        for (int row = 0; row < SHARED_SIZE; row++) {
+            for (int col = 0; col < SHARED_SIZE; col++) {
+                CELLS[row * SHARED_SIZE + col] = new Position(row, col);
+            }
+        }
+    }
+
+    /**
+     * Returns the shared instance of a position on a board of up to 64 × 64
+     * cells, so that the positions of circles can be looked up without allocation.
+     *
+     * @param row the row of the position
+     * @param col the column of the position
+     * @return the shared instance if the position is on such a board, a new position otherwise
+     */
+    public static Position of(int row, int col) {
+        if (row >= 0 && row < SHARED_SIZE && col >= 0 && col < SHARED_SIZE) {
+            return CELLS[row * SHARED_SIZE + col];
+        }
+        return new Position(row, col);
+    }
+
     /**
      *
      * @param direction a direction to which the circle is want to be moved
      * @return the position whose vertical and horizontal distances from this position are equal to the coordinate changes of the direction given
      */
     public Position getPositionAt(Direction direction) {
-        return new Position(row + direction.getRowChange(), col + direction.getColChange());
+        return of(row + direction.getRowChange(), col + direction.getColChange());
     }
 
     @Override
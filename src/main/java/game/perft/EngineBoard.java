@@ -0,0 +1,52 @@
+package game.perft;
+
+import game.engine.BitBoard;
+
+/**
+ * {@link PerftBoard} backed by the {@link BitBoard} engine.
+ */
+final class EngineBoard implements PerftBoard {
+
+    private final BitBoard board;
+
+    EngineBoard(BitBoard board) {
+        this.board = new BitBoard(board);
+    }
+
+    @Override
+    public int maxMoves() {
+        return BitBoard.MAX_MOVES;
+    }
+
+    @Override
+    public int generateMoves(int[] moves) {
+        return board.generateMoves(moves);
+    }
+
+    @Override
+    public boolean makeMove(int move) {
+        board.makeMove(move);
+        return board.winningLine(move) != 0;
+    }
+
+    @Override
+    public void unmakeMove(int move) {
+        board.unmakeMove(move);
+    }
+
+    @Override
+    public long hash() {
+        return board.getHash();
+    }
+
+    @Override
+    public PerftBoard copy() {
+        return new EngineBoard(board);
+    }
+
+    @Override
+    public String moveName(int move) {
+        var from = BitBoard.positionOf(BitBoard.moveFrom(move));
+        return from.row() + "," + from.col() + " " + BitBoard.directionOf(move);
+    }
+}
@@ -0,0 +1,106 @@
+package game.perft;
+
+import game.model.CircleType;
+import game.model.Direction;
+import game.model.GameModel;
+
+import java.util.SplittableRandom;
+
+/**
+ * {@link PerftBoard} backed by {@link GameModel}, generating moves with
+ * {@link GameModel#isValidMove(int, Direction)} and detecting wins with
+ * {@link GameModel#isLastMoveWin()}. The hash is maintained incrementally from
+ * random keys per cell, so it works for every {@link game.model.GameRules}.
+ */
+final class ModelBoard implements PerftBoard {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final GameModel model;
+    private final long[][] keys;
+    private final long sideKey;
+    private long hash;
+
+    ModelBoard(GameModel model) {
+        this.model = new GameModel(model.snapshot());
+        var random = new SplittableRandom(model.getRules().hashCode());
+        keys = new long[2][model.getRules().cellCount()];
+        for (var typeKeys : keys) {
+            for (int cell = 0; cell < typeKeys.length; cell++) {
+                typeKeys[cell] = random.nextLong();
+            }
+        }
+        sideKey = random.nextLong();
+        hash = model.getPlayerTurn() % 2 == 0 ? 0 : sideKey;
+        for (int i = 0; i < model.getCircleCount(); i++) {
+            hash ^= keys[model.getCircleType(i).ordinal()][model.getCircleCell(i)];
+        }
+    }
+
+    private ModelBoard(ModelBoard other) {
+        model = new GameModel(other.model.snapshot());
+        keys = other.keys;
+        sideKey = other.sideKey;
+        hash = other.hash;
+    }
+
+    @Override
+    public int maxMoves() {
+        return model.getCircleCount() * GameModel.DIRECTION_COUNT;
+    }
+
+    @Override
+    public int generateMoves(int[] moves) {
+        var type = model.getPlayerTurn() % 2 == 0 ? CircleType.BLUE : CircleType.RED;
+        int count = 0;
+        for (int circleID = 0; circleID < model.getCircleCount(); circleID++) {
+            if (model.getCircleType(circleID) != type) {
+                continue;
+            }
+            for (var direction : DIRECTIONS) {
+                if (model.isValidMove(circleID, direction)) {
+                    moves[count++] = GameModel.encodeMove(circleID, direction);
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean makeMove(int move) {
+        hash ^= pieceKey(move);
+        model.makeMove(move);
+        hash ^= pieceKey(move) ^ sideKey;
+        model.increasePlayerTurn();
+        return model.isLastMoveWin();
+    }
+
+    @Override
+    public void unmakeMove(int move) {
+        model.decreasePlayerTurn();
+        hash ^= pieceKey(move) ^ sideKey;
+        model.unmakeMove();
+        hash ^= pieceKey(move);
+    }
+
+    private long pieceKey(int move) {
+        int circleID = GameModel.moveCircleID(move);
+        return keys[model.getCircleType(circleID).ordinal()][model.getCircleCell(circleID)];
+    }
+
+    @Override
+    public long hash() {
+        return hash;
+    }
+
+    @Override
+    public PerftBoard copy() {
+        return new ModelBoard(this);
+    }
+
+    @Override
+    public String moveName(int move) {
+        var from = model.getCirclePosition(GameModel.moveCircleID(move));
+        return from.row() + "," + from.col() + " " + GameModel.moveDirection(move);
+    }
+}
@@ -0,0 +1,332 @@
+package game.perft;
+
+import game.engine.BitBoard;
+import game.model.Circle;
+import game.model.CircleType;
+import game.model.GameModel;
+import game.model.GameRules;
+import game.model.Position;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaves of the game tree to a fixed depth, to check the move
+ * generators against each other and measure their speed.
+ * The tree stops at terminal positions: after a move that completes a line and
+ * where the side to move has no move; these count as leaves like the positions
+ * at the full depth. The subtrees of the root moves are counted separately
+ * (divide), and subtrees are split into fork-join tasks down to
+ * {@link #SPLIT_DEPTH} plies from the leaves. An optional cache shared by all
+ * threads stores the counts of subtrees by position hash and depth.
+ * <p>
+ * Usage: {@code Perft [--depth N] [--engine model|bitboard|both] [--threads N] [--hash MB]
+ * [--divide true|false] [--rules ROWS,COLS,CIRCLES,LINE] [--position ROW/ROW/...] [--side blue|red]},
+ * where a row of the position is a string of {@code B}, {@code R} and {@code .} for every column.
+ * With {@code both}, the default on the standard board, the counts of {@link GameModel} and
+ * {@link BitBoard} are compared and the run fails if they differ.
+ */
+public final class Perft {
+
+    /**
+     * Depth from which subtrees are split into parallel tasks
+     */
+    public static final int SPLIT_DEPTH = 4;
+
+    /**
+     * Number of leaves of the subtree of a root move.
+     *
+     * @param move the move as {@code row,col DIRECTION}
+     * @param nodes the number of leaves
+     */
+    public record Division(String move, long nodes) {
+    }
+
+    /**
+     * Result of a count.
+     *
+     * @param nodes the number of leaves
+     * @param elapsedNanos the wall-clock time of the count
+     * @param divisions the leaves of every root move, sorted by move
+     */
+    public record Result(long nodes, long elapsedNanos, List<Division> divisions) {
+
+        /**
+         * @return the number of leaves counted per second
+         */
+        public long nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+        }
+    }
+
+    private final int threads;
+    private final int cacheMegabytes;
+
+    /**
+     * @param threads the parallelism of the fork-join pool
+     * @param cacheMegabytes the size of the cache, or 0 for no cache
+     */
+    public Perft(int threads, int cacheMegabytes) {
+        if (threads < 1 || cacheMegabytes < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.threads = threads;
+        this.cacheMegabytes = cacheMegabytes;
+    }
+
+    /**
+     * @param model the root position, it is not modified
+     * @param depth the depth of the tree
+     * @return the count with {@link GameModel}
+     */
+    public Result count(GameModel model, int depth) {
+        return count(new ModelBoard(model), depth);
+    }
+
+    /**
+     * @param board the root position, it is not modified
+     * @param depth the depth of the tree
+     * @return the count with {@link BitBoard}
+     */
+    public Result count(BitBoard board, int depth) {
+        return count(new EngineBoard(board), depth);
+    }
+
+    private Result count(PerftBoard root, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Negative depth: " + depth);
+        }
+        var cache = cacheMegabytes > 0 ? new PerftCache(cacheMegabytes) : null;
+        long start = System.nanoTime();
+        List<Division> divisions = new ArrayList<>();
+        long nodes;
+        if (depth == 0) {
+            nodes = 1;
+        } else {
+            int[] moves = new int[root.maxMoves()];
+            int count = root.generateMoves(moves);
+            List<Subtree> subtrees = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                var child = root.copy();
+                subtrees.add(new Subtree(child, depth - 1, child.makeMove(moves[i]), cache));
+            }
+            var pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(new RecursiveTask<Void>() {
+                    @Override
+                    protected Void compute() {
+                        invokeAll(subtrees);
+                        return null;
+                    }
+                });
+            } finally {
+                pool.shutdown();
+            }
+            nodes = count == 0 ? 1 : 0;
+            for (int i = 0; i < count; i++) {
+                long subtreeNodes = subtrees.get(i).join();
+                divisions.add(new Division(root.moveName(moves[i]), subtreeNodes));
+                nodes += subtreeNodes;
+            }
+            divisions.sort(Comparator.comparing(Division::move));
+        }
+        return new Result(nodes, System.nanoTime() - start, List.copyOf(divisions));
+    }
+
+    /**
+     * Counts the leaves below a position, forking a task per move while deep enough.
+     */
+    @SuppressWarnings("serial")
+    private static final class Subtree extends RecursiveTask<Long> {
+
+        private final PerftBoard board;
+        private final int depth;
+        private final boolean terminal;
+        private final PerftCache cache;
+
+        Subtree(PerftBoard board, int depth, boolean terminal, PerftCache cache) {
+            this.board = board;
+            this.depth = depth;
+            this.terminal = terminal;
+            this.cache = cache;
+        }
+
+        @Override
+        protected Long compute() {
+            if (terminal || depth == 0) {
+                return 1L;
+            }
+            if (depth < SPLIT_DEPTH) {
+                return count(board, depth, new int[depth][board.maxMoves()], cache);
+            }
+            long cached = cache != null ? cache.get(board.hash(), depth) : -1;
+            if (cached >= 0) {
+                return cached;
+            }
+            int[] moves = new int[board.maxMoves()];
+            int count = board.generateMoves(moves);
+            if (count == 0) {
+                return 1L;
+            }
+            List<Subtree> subtrees = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                var child = board.copy();
+                subtrees.add(new Subtree(child, depth - 1, child.makeMove(moves[i]), cache));
+            }
+            long nodes = 0;
+            for (var subtree : invokeAll(subtrees)) {
+                nodes += subtree.join();
+            }
+            if (cache != null) {
+                cache.put(board.hash(), depth, nodes);
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Counts the leaves below a position that is not terminal, in the calling thread.
+     */
+    private static long count(PerftBoard board, int depth, int[][] moves, PerftCache cache) {
+        int[] buffer = moves[depth - 1];
+        int count = board.generateMoves(buffer);
+        if (count == 0) {
+            return 1;
+        }
+        if (depth == 1) {
+            return count;
+        }
+        long cached = cache != null ? cache.get(board.hash(), depth) : -1;
+        if (cached >= 0) {
+            return cached;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            nodes += board.makeMove(move) ? 1 : count(board, depth - 1, moves, cache);
+            board.unmakeMove(move);
+        }
+        if (cache != null) {
+            cache.put(board.hash(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * @param rules the rules of the board
+     * @param rows the rows of the board from the top, {@code B} for blue, {@code R} for red and {@code .} for empty cells
+     * @param sideToMove the player to move
+     * @return the position
+     * @throws IllegalArgumentException if the rows do not match the rules
+     */
+    public static GameModel parsePosition(GameRules rules, String rows, CircleType sideToMove) {
+        var lines = rows.split("/");
+        if (lines.length != rules.rows()) {
+            throw new IllegalArgumentException("Expected " + rules.rows() + " rows: " + rows);
+        }
+        List<Circle> circles = new ArrayList<>();
+        for (int row = 0; row < lines.length; row++) {
+            if (lines[row].length() != rules.cols()) {
+                throw new IllegalArgumentException("Expected " + rules.cols() + " columns: " + lines[row]);
+            }
+            for (int col = 0; col < rules.cols(); col++) {
+                switch (lines[row].charAt(col)) {
+                    case 'B' -> circles.add(new Circle(CircleType.BLUE, Position.of(row, col)));
+                    case 'R' -> circles.add(new Circle(CircleType.RED, Position.of(row, col)));
+                    case '.' -> {
+                    }
+                    default -> throw new IllegalArgumentException("Invalid cell: " + lines[row].charAt(col));
+                }
+            }
+        }
+        var model = new GameModel(rules, circles.toArray(Circle[]::new));
+        if ((model.getPlayerTurn() % 2 == 0) != (sideToMove == CircleType.BLUE)) {
+            model.increasePlayerTurn();
+        }
+        return model;
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Invalid option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        int depth = Integer.parseInt(options.getOrDefault("depth", "10"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int hash = Integer.parseInt(options.getOrDefault("hash", "0"));
+        boolean divide = Boolean.parseBoolean(options.getOrDefault("divide", "false"));
+        var rules = GameRules.STANDARD;
+        if (options.containsKey("rules")) {
+            var values = options.get("rules").split(",");
+            if (values.length != 4) {
+                throw new IllegalArgumentException("Invalid rules: " + options.get("rules"));
+            }
+            rules = new GameRules(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
+                    Integer.parseInt(values[2]), Integer.parseInt(values[3]));
+        }
+        var side = CircleType.valueOf(options.getOrDefault("side", "blue").toUpperCase());
+        var model = options.containsKey("position")
+                ? parsePosition(rules, options.get("position"), side)
+                : parsePosition(rules, boardOf(new GameModel(rules)), side);
+        boolean standard = rules.equals(GameRules.STANDARD);
+        var engine = options.getOrDefault("engine", standard ? "both" : "model");
+        if (!standard && !engine.equals("model")) {
+            throw new IllegalArgumentException("BitBoard only plays the standard rules");
+        }
+
+        var perft = new Perft(threads, hash);
+        Result modelResult = null;
+        Result engineResult = null;
+        if (!engine.equals("bitboard")) {
+            modelResult = perft.count(model, depth);
+            print("GameModel", modelResult, divide);
+        }
+        if (!engine.equals("model")) {
+            engineResult = perft.count(BitBoard.of(model), depth);
+            print("BitBoard", engineResult, divide);
+        }
+        if (modelResult != null && engineResult != null && !modelResult.divisions().equals(engineResult.divisions())) {
+            System.out.println("MISMATCH between GameModel and BitBoard");
+            for (int i = 0; i < Math.max(modelResult.divisions().size(), engineResult.divisions().size()); i++) {
+                var modelDivision = i < modelResult.divisions().size() ? modelResult.divisions().get(i) : null;
+                var engineDivision = i < engineResult.divisions().size() ? engineResult.divisions().get(i) : null;
+                if (modelDivision == null || !modelDivision.equals(engineDivision)) {
+                    System.out.printf("  GameModel %s, BitBoard %s%n", modelDivision, engineDivision);
+                }
+            }
+            System.exit(1);
+        }
+    }
+
+    private static String boardOf(GameModel model) {
+        var rules = model.getRules();
+        var rows = new StringBuilder();
+        for (int row = 0; row < rules.rows(); row++) {
+            rows.append(row == 0 ? "" : "/");
+            for (int col = 0; col < rules.cols(); col++) {
+                int circleID = model.getCircleIDAt(row * rules.cols() + col);
+                rows.append(circleID < 0 ? '.' : model.getCircleType(circleID) == CircleType.BLUE ? 'B' : 'R');
+            }
+        }
+        return rows.toString();
+    }
+
+    private static void print(String engine, Result result, boolean divide) {
+        if (divide) {
+            for (var division : result.divisions()) {
+                System.out.printf("%s: %d%n", division.move(), division.nodes());
+            }
+        }
+        System.out.printf("%s: %d nodes in %.1f ms, %d nodes/s%n", engine, result.nodes(),
+                result.elapsedNanos() / 1e6, result.nodesPerSecond());
+    }
+}
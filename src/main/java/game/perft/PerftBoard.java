@@ -0,0 +1,49 @@
+package game.perft;
+
+/**
+ * A position explored by {@link Perft}, backed by one of the move generators under test.
+ */
+interface PerftBoard {
+
+    /**
+     * @return the size of the buffer needed by {@link #generateMoves(int[])}
+     */
+    int maxMoves();
+
+    /**
+     * @param moves a buffer of at least {@link #maxMoves()} elements
+     * @return the number of legal moves written
+     */
+    int generateMoves(int[] moves);
+
+    /**
+     * Makes a move and passes the turn.
+     *
+     * @param move a move written by {@link #generateMoves(int[])}
+     * @return true if the move completed a winning line
+     */
+    boolean makeMove(int move);
+
+    /**
+     * Takes back the move just made.
+     *
+     * @param move the move
+     */
+    void unmakeMove(int move);
+
+    /**
+     * @return a hash of the position and the side to move
+     */
+    long hash();
+
+    /**
+     * @return an independent copy of the position
+     */
+    PerftBoard copy();
+
+    /**
+     * @param move a move written by {@link #generateMoves(int[])}
+     * @return the move as {@code row,col DIRECTION}, the same for every implementation
+     */
+    String moveName(int move);
+}
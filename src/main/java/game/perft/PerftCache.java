@@ -0,0 +1,49 @@
+package game.perft;
+
+/**
+ * Lock-free table of subtree counts keyed by position hash and depth, shared
+ * by the threads of a {@link Perft} run. Every slot holds the key xor-ed with
+ * the count next to the count, so a slot torn by a concurrent store fails the
+ * key check instead of returning a wrong count. Entries are always replaced.
+ */
+final class PerftCache {
+
+    private static final int SLOT_BYTES = 2 * Long.BYTES;
+    private static final long DEPTH_MIX = 0x9E37_79B9_7F4A_7C15L;
+
+    private final long[] slots;
+    private final int mask;
+
+    /**
+     * @param megabytes the size of the table, rounded down to a power of two entries
+     */
+    PerftCache(int megabytes) {
+        int entries = Integer.highestOneBit(Math.max(1, (int) Math.min(Integer.MAX_VALUE / 2, (long) megabytes * (1 << 20) / SLOT_BYTES)));
+        slots = new long[2 * entries];
+        mask = entries - 1;
+    }
+
+    /**
+     * @param hash the hash of a position
+     * @param depth the depth of its subtree
+     * @return the count of the subtree, or -1 if it is not in the table
+     */
+    long get(long hash, int depth) {
+        long key = hash ^ depth * DEPTH_MIX;
+        int index = 2 * (int) (key & mask);
+        long count = slots[index + 1];
+        return (slots[index] ^ count) == key ? count : -1;
+    }
+
+    /**
+     * @param hash the hash of a position
+     * @param depth the depth of its subtree
+     * @param count the count of the subtree
+     */
+    void put(long hash, int depth, long count) {
+        long key = hash ^ depth * DEPTH_MIX;
+        int index = 2 * (int) (key & mask);
+        slots[index] = key ^ count;
+        slots[index + 1] = count;
+    }
+}
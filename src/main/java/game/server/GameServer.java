@@ -0,0 +1,409 @@
+package game.server;
+
+import game.metrics.LatencyHistogram;
+import game.metrics.MetricsRegistry;
+import game.metrics.PrometheusDump;
+import game.model.CircleType;
+import game.model.Direction;
+import game.model.GameModel;
+import game.model.Position;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless server hosting any number of simultaneous matches for remote
+ * players. One thread runs a selector over all connections, and every match
+ * is played on its own {@link GameModel}, which validates every move with
+ * {@link GameModel#isValidMove}. Players are paired in the order they join.
+ * <p>
+ * The protocol is line-based ASCII over TCP, one command per line:
+ * <pre>
+ * client: JOIN name                     server: WAITING, then START colour opponent colourToMove
+ * client: MOVE row col direction        server: MOVED colour row col direction, to both players
+ *                                       server: END winner reason, winner is BLUE, RED or DRAW,
+ *                                               reason is LINE, NO_MOVES, MAX_PLIES or RESIGN
+ * client: QUIT                          server: closes the connection
+ *                                       server: ERROR message, the command is ignored
+ * </pre>
+ * The circle to move is given by its position, the direction is {@code UP},
+ * {@code RIGHT}, {@code DOWN} or {@code LEFT}. A player who cannot move loses,
+ * a player who disconnects resigns, and a match of {@value #MAX_PLIES} moves
+ * is a draw. After {@code END} a player may join again.
+ * <p>
+ * Usage: {@code GameServer [port]}
+ */
+public class GameServer implements AutoCloseable {
+
+    /**
+     * Port the server listens on by default
+     */
+    public static final int DEFAULT_PORT = 7777;
+
+    /**
+     * Number of moves after which a match is a draw
+     */
+    public static final int MAX_PLIES = 400;
+
+    private static final int BACKLOG = 4096;
+
+    private static final LatencyHistogram MOVE_LATENCY = MetricsRegistry.global()
+            .histogram("game_server_move_latency_nanoseconds", "Time to validate, apply and broadcast a move on the server");
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread thread;
+    private volatile boolean running;
+    private final int[] moves = new int[16 * GameModel.DIRECTION_COUNT];
+    private Player waiting;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger activeMatches = new AtomicInteger();
+    private final LongAdder completedMatches = new LongAdder();
+    private final LongAdder movesMade = new LongAdder();
+
+    /**
+     * Binds the server to a port on all interfaces, it accepts connections after {@link #start()}.
+     *
+     * @param port the port, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public GameServer(int port) throws IOException {
+        this(new InetSocketAddress(port));
+    }
+
+    /**
+     * Binds the server to an address, it accepts connections after {@link #start()}.
+     *
+     * @param address the address
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address, BACKLOG);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        thread = new Thread(this::run, "game-server");
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Starts the selector thread.
+     */
+    public void start() {
+        running = true;
+        thread.start();
+        Logger.info("Game server listening on port {}", getPort());
+    }
+
+    /**
+     * @return the number of open connections
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * @return the number of matches being played
+     */
+    public int getActiveMatches() {
+        return activeMatches.get();
+    }
+
+    /**
+     * @return the number of matches finished
+     */
+    public long getCompletedMatches() {
+        return completedMatches.sum();
+    }
+
+    /**
+     * @return the number of moves made in all matches
+     */
+    public long getMoves() {
+        return movesMade.sum();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                var keys = selector.selectedKeys();
+                for (var key : keys) {
+                    handle(key);
+                }
+                keys.clear();
+            }
+        } catch (IOException e) {
+            Logger.error(e, "Game server failed");
+        } finally {
+            for (var key : selector.keys()) {
+                if (key.attachment() instanceof Player player) {
+                    player.channel.close();
+                }
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        var player = (Player) key.attachment();
+        try {
+            if (key.isWritable()) {
+                player.channel.flush();
+            }
+            if (key.isValid() && key.isReadable() && !player.channel.readLines(line -> handleLine(player, line))) {
+                disconnect(player);
+            }
+        } catch (IOException e) {
+            Logger.debug("Connection of {} failed: {}", player.name, e.getMessage());
+            disconnect(player);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                var key = channel.register(selector, SelectionKey.OP_READ);
+                var player = new Player(new LineChannel(channel, key));
+                key.attach(player);
+                connections.incrementAndGet();
+            }
+        } catch (IOException e) {
+            Logger.warn("Cannot accept a connection: {}", e.getMessage());
+        }
+    }
+
+    private void handleLine(Player player, String line) {
+        var tokens = line.trim().split(" +");
+        switch (tokens[0]) {
+            case "JOIN" -> join(player, tokens);
+            case "MOVE" -> move(player, tokens);
+            case "QUIT" -> disconnect(player);
+            default -> send(player, "ERROR Unknown command: " + tokens[0]);
+        }
+    }
+
+    /**
+     * Sends a line to a player, disconnecting the player if the connection has failed.
+     */
+    private void send(Player player, String line) {
+        if (player.closed) {
+            return;
+        }
+        try {
+            player.channel.send(line);
+        } catch (IOException e) {
+            Logger.debug("Connection of {} failed: {}", player.name, e.getMessage());
+            disconnect(player);
+        }
+    }
+
+    private void join(Player player, String[] tokens) {
+        if (tokens.length != 2) {
+            send(player, "ERROR Usage: JOIN name");
+        } else if (player.match != null || player == waiting) {
+            send(player, "ERROR Already joined");
+        } else if (waiting == null) {
+            player.name = tokens[1];
+            waiting = player;
+            send(player, "WAITING");
+        } else {
+            player.name = tokens[1];
+            var opponent = waiting;
+            waiting = null;
+            var match = new Match(opponent, player);
+            activeMatches.incrementAndGet();
+            var toMove = match.toMove.name();
+            send(opponent, "START BLUE " + player.name + " " + toMove);
+            send(player, "START RED " + opponent.name + " " + toMove);
+        }
+    }
+
+    private void move(Player player, String[] tokens) {
+        long start = System.nanoTime();
+        handleMove(player, tokens);
+        MOVE_LATENCY.record(System.nanoTime() - start);
+    }
+
+    private void handleMove(Player player, String[] tokens) {
+        var match = player.match;
+        if (match == null) {
+            send(player, "ERROR Not in a match");
+            return;
+        }
+        if (tokens.length != 4) {
+            send(player, "ERROR Usage: MOVE row col direction");
+            return;
+        }
+        if (player.colour != match.toMove) {
+            send(player, "ERROR Not your turn");
+            return;
+        }
+        Position from;
+        Direction direction;
+        try {
+            from = Position.of(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+            direction = Direction.valueOf(tokens[3]);
+        } catch (IllegalArgumentException e) {
+            send(player, "ERROR Invalid move: " + String.join(" ", tokens));
+            return;
+        }
+        var model = match.model;
+        var circleID = model.getCircleID(from);
+        if (circleID.isEmpty() || model.getCircleType(circleID.getAsInt()) != player.colour) {
+            send(player, "ERROR No " + player.colour + " circle at " + from);
+            return;
+        }
+        if (!model.isValidMove(circleID.getAsInt(), direction)) {
+            send(player, "ERROR Invalid move: " + String.join(" ", tokens));
+            return;
+        }
+        model.move(circleID.getAsInt(), direction);
+        match.plies++;
+        movesMade.increment();
+        var moved = "MOVED " + player.colour + " " + from.row() + " " + from.col() + " " + direction;
+        send(match.blue, moved);
+        send(match.red, moved);
+        if (match.ended) {
+            return;
+        }
+        if (model.isLastMoveWin()) {
+            end(match, player.colour.name(), "LINE");
+            return;
+        }
+        model.increasePlayerTurn();
+        match.toMove = match.toMove == CircleType.BLUE ? CircleType.RED : CircleType.BLUE;
+        if (model.generateMoves(moves) == 0) {
+            end(match, player.colour.name(), "NO_MOVES");
+        } else if (match.plies >= MAX_PLIES) {
+            end(match, "DRAW", "MAX_PLIES");
+        }
+    }
+
+    private void end(Match match, String winner, String reason) {
+        if (match.ended) {
+            return;
+        }
+        match.ended = true;
+        match.blue.match = null;
+        match.red.match = null;
+        activeMatches.decrementAndGet();
+        completedMatches.increment();
+        var end = "END " + winner + " " + reason;
+        send(match.blue, end);
+        send(match.red, end);
+    }
+
+    private void disconnect(Player player) {
+        if (player.closed) {
+            return;
+        }
+        player.closed = true;
+        player.channel.close();
+        connections.decrementAndGet();
+        if (waiting == player) {
+            waiting = null;
+        }
+        var match = player.match;
+        if (match != null) {
+            var opponent = match.blue == player ? match.red : match.blue;
+            end(match, opponent.colour.name(), "RESIGN");
+        }
+    }
+
+    /**
+     * Stops the server and closes every connection.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        if (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        serverChannel.close();
+        selector.close();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        var server = new GameServer(port);
+        PrometheusDump.startFromProperties();
+        server.start();
+        server.thread.join();
+    }
+
+    /**
+     * A connected player, waiting or in a match.
+     */
+    private static final class Player {
+
+        final LineChannel channel;
+        String name = "?";
+        Match match;
+        CircleType colour;
+        boolean closed;
+
+        Player(LineChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * A match between two players on its own model.
+     */
+    private static final class Match {
+
+        final GameModel model = new GameModel();
+        final Player blue;
+        final Player red;
+        CircleType toMove;
+        int plies;
+        boolean ended;
+
+        Match(Player blue, Player red) {
+            this.blue = blue;
+            this.red = red;
+            blue.match = this;
+            blue.colour = CircleType.BLUE;
+            red.match = this;
+            red.colour = CircleType.RED;
+            toMove = model.getPlayerTurn() % 2 == 0 ? CircleType.BLUE : CircleType.RED;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package game.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking socket channel exchanging lines of ASCII text, registered with
+ * a selector. Lines are split from the bytes read as they arrive; lines sent
+ * are written right away, and whatever the socket does not take is kept and
+ * written when the selector reports the channel writable.
+ */
+class LineChannel {
+
+    /**
+     * Longest line accepted, including the line feed
+     */
+    static final int MAX_LINE_BYTES = 256;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE_BYTES);
+    private ByteBuffer output = ByteBuffer.allocate(MAX_LINE_BYTES);
+
+    /**
+     * @param channel a connected channel in non-blocking mode
+     * @param key the key of the channel, with this object attached
+     */
+    LineChannel(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * Reads the available bytes and passes every complete line to the consumer,
+     * without the line feed or carriage return.
+     *
+     * @param consumer receives the lines
+     * @return false if the peer has closed the connection
+     * @throws IOException if reading fails or a line is longer than {@value #MAX_LINE_BYTES} bytes
+     */
+    boolean readLines(Consumer<String> consumer) throws IOException {
+        int read = channel.read(input);
+        int start = 0;
+        for (int i = 0; i < input.position(); i++) {
+            if (input.get(i) == '\n') {
+                int end = i > start && input.get(i - 1) == '\r' ? i - 1 : i;
+                consumer.accept(new String(input.array(), start, end - start, StandardCharsets.US_ASCII));
+                start = i + 1;
+            }
+            if (!key.isValid()) {
+                return false;
+            }
+        }
+        input.flip().position(start);
+        input.compact();
+        if (!input.hasRemaining()) {
+            throw new IOException("Line longer than " + MAX_LINE_BYTES + " bytes");
+        }
+        return read >= 0;
+    }
+
+    /**
+     * Sends a line, adding the line feed.
+     *
+     * @param line a line of ASCII text
+     * @throws IOException if writing fails
+     */
+    void send(String line) throws IOException {
+        var bytes = (line + "\n").getBytes(StandardCharsets.US_ASCII);
+        if (output.remaining() < bytes.length) {
+            var larger = ByteBuffer.allocate(Math.max(output.capacity() * 2, output.position() + bytes.length));
+            output = larger.put(output.flip());
+        }
+        output.put(bytes);
+        flush();
+    }
+
+    /**
+     * Writes the pending output, asking the selector for the writable event while some remains.
+     *
+     * @throws IOException if writing fails
+     */
+    void flush() throws IOException {
+        channel.write(output.flip());
+        output.compact();
+        if (key.isValid()) {
+            int ops = key.interestOps();
+            key.interestOps(output.position() > 0 ? ops | SelectionKey.OP_WRITE : ops & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Closes the channel and cancels its key.
+     */
+    void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the connection is gone either way
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package game.server;
+
+import game.metrics.LatencyHistogram;
+import game.model.CircleType;
+import game.model.Direction;
+import game.model.GameModel;
+import game.model.Position;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Load test of a {@link GameServer}: opens two connections per match on one
+ * selector thread, and every connection plays random valid moves on its own
+ * copy of the model. The time from sending a move until the server echoes it
+ * back is recorded as the round trip of the move.
+ * Without {@code --port} a server is started in the same process on a free
+ * loopback port, so the test runs entirely on loopback.
+ * <p>
+ * Usage: {@code LoadTestClient [--host HOST] [--port N] [--matches N] [--rounds N] [--seed N]}
+ */
+public class LoadTestClient {
+
+    private final InetSocketAddress address;
+    private final int matches;
+    private final int rounds;
+    private final long seed;
+
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+    private long completedMatches;
+    private long moves;
+    private long errors;
+    private int maxConcurrentMatches;
+    private int concurrentMatches;
+
+    /**
+     * @param address the address of the server
+     * @param matches the number of matches played at the same time
+     * @param rounds the number of matches each connection plays one after the other
+     * @param seed the seed of the random moves
+     */
+    public LoadTestClient(InetSocketAddress address, int matches, int rounds, long seed) {
+        if (matches < 1 || rounds < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.address = address;
+        this.matches = matches;
+        this.rounds = rounds;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays every round of every match.
+     *
+     * @return the wall-clock time of the run in nanoseconds
+     * @throws IOException if a connection fails
+     */
+    public long run() throws IOException {
+        long start = System.nanoTime();
+        try (var selector = Selector.open()) {
+            int open = 0;
+            for (int i = 0; i < 2 * matches; i++) {
+                var channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.connect(address);
+                var key = channel.register(selector, SelectionKey.OP_CONNECT);
+                key.attach(new Client("client" + i, new LineChannel(channel, key), new SplittableRandom(seed + i)));
+                open++;
+            }
+            while (open > 0) {
+                selector.select();
+                var keys = selector.selectedKeys();
+                for (var key : keys) {
+                    var client = (Client) key.attachment();
+                    if (key.isValid() && key.isConnectable()) {
+                        ((SocketChannel) key.channel()).finishConnect();
+                        key.interestOps(SelectionKey.OP_READ);
+                        client.channel.send("JOIN " + client.name);
+                        continue;
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        client.channel.flush();
+                    }
+                    if (key.isValid() && key.isReadable() && !client.channel.readLines(line -> handleLine(client, line))) {
+                        client.channel.close();
+                    }
+                    if (!key.isValid()) {
+                        open--;
+                    }
+                }
+                keys.clear();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void handleLine(Client client, String line) {
+        var tokens = line.split(" ");
+        try {
+            switch (tokens[0]) {
+                case "START" -> {
+                    client.start(CircleType.valueOf(tokens[1]), CircleType.valueOf(tokens[3]));
+                    concurrentMatches++;
+                    maxConcurrentMatches = Math.max(maxConcurrentMatches, (concurrentMatches + 1) / 2);
+                    client.moveIfToMove();
+                }
+                case "MOVED" -> {
+                    var colour = CircleType.valueOf(tokens[1]);
+                    if (colour == client.colour) {
+                        roundTrip.record(System.nanoTime() - client.sentNanos);
+                        moves++;
+                    }
+                    client.apply(colour, Position.of(Integer.parseInt(tokens[2]), Integer.parseInt(tokens[3])),
+                            Direction.valueOf(tokens[4]));
+                    client.moveIfToMove();
+                }
+                case "END" -> {
+                    concurrentMatches--;
+                    if (client.colour == CircleType.BLUE) {
+                        completedMatches++;
+                    }
+                    client.model = null;
+                    if (++client.round < rounds) {
+                        client.channel.send("JOIN " + client.name);
+                    } else {
+                        client.channel.send("QUIT");
+                        client.channel.close();
+                    }
+                }
+                case "ERROR" -> errors++;
+                default -> {
+                }
+            }
+        } catch (IOException e) {
+            errors++;
+            client.channel.close();
+        }
+    }
+
+    /**
+     * @return the number of matches finished
+     */
+    public long getCompletedMatches() {
+        return completedMatches;
+    }
+
+    /**
+     * @return the number of moves made by the clients
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return the number of errors reported by the server
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the largest number of matches played at the same time
+     */
+    public int getMaxConcurrentMatches() {
+        return maxConcurrentMatches;
+    }
+
+    /**
+     * @return the round trip of every move in nanoseconds
+     */
+    public LatencyHistogram getRoundTrip() {
+        return roundTrip;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Invalid option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        int matches = Integer.parseInt(options.getOrDefault("matches", "1000"));
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "1"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        String host = options.getOrDefault("host", "127.0.0.1");
+
+        GameServer server = null;
+        int port;
+        if (options.containsKey("port")) {
+            port = Integer.parseInt(options.get("port"));
+        } else {
+            server = new GameServer(new InetSocketAddress(host, 0));
+            server.start();
+            port = server.getPort();
+        }
+        try {
+            var client = new LoadTestClient(new InetSocketAddress(host, port), matches, rounds, seed);
+            long nanos = client.run();
+            double seconds = nanos / 1e9;
+            var latency = client.getRoundTrip();
+            System.out.printf("%d matches (%d at once) in %.2f s: %.0f matches/s, %d moves, %.0f moves/s, %d errors%n",
+                    client.getCompletedMatches(), client.getMaxConcurrentMatches(), seconds,
+                    client.getCompletedMatches() / seconds, client.getMoves(), client.getMoves() / seconds, client.getErrors());
+            System.out.printf("Move round trip (us): mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n",
+                    latency.getMean() / 1e3, latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(90) / 1e3,
+                    latency.getValueAtPercentile(99) / 1e3, latency.getMax() / 1e3);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    /**
+     * A connection playing random valid moves.
+     */
+    private static final class Client {
+
+        final String name;
+        final LineChannel channel;
+        final SplittableRandom random;
+        final int[] moves = new int[16 * GameModel.DIRECTION_COUNT];
+        GameModel model;
+        CircleType colour;
+        CircleType toMove;
+        int plies;
+        int round;
+        long sentNanos;
+
+        Client(String name, LineChannel channel, SplittableRandom random) {
+            this.name = name;
+            this.channel = channel;
+            this.random = random;
+        }
+
+        void start(CircleType colour, CircleType toMove) {
+            this.colour = colour;
+            this.toMove = toMove;
+            model = new GameModel();
+            if (model.getPlayerTurn() % 2 != toMove.ordinal()) {
+                model.increasePlayerTurn();
+            }
+            plies = 0;
+        }
+
+        void apply(CircleType mover, Position from, Direction direction) {
+            model.move(model.getCircleID(from).getAsInt(), direction);
+            model.increasePlayerTurn();
+            plies++;
+            if (model.isLastMoveWin()) {
+                toMove = null;
+            } else {
+                toMove = mover == CircleType.BLUE ? CircleType.RED : CircleType.BLUE;
+            }
+        }
+
+        /**
+         * Sends a random valid move if it is this client's turn and the match is not over.
+         */
+        void moveIfToMove() throws IOException {
+            if (model == null || toMove != colour || plies >= GameServer.MAX_PLIES) {
+                return;
+            }
+            int count = model.generateMoves(moves);
+            if (count == 0) {
+                return;
+            }
+            int move = moves[random.nextInt(count)];
+            var from = model.getCirclePosition(GameModel.moveCircleID(move));
+            sentNanos = System.nanoTime();
+            channel.send("MOVE " + from.row() + " " + from.col() + " " + GameModel.moveDirection(move));
+        }
+    }
+}
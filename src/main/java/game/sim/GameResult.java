@@ -0,0 +1,24 @@
+package game.sim;
+
+/**
+ * Represents the result of a headless game.
+ *
+ * @param game the number of the game in its run
+ * @param startSide the side that moved first, {@link game.engine.BitBoard#BLUE} or {@link game.engine.BitBoard#RED}
+ * @param winner the side that won, or {@link #DRAW}
+ * @param moves the encoded moves of the game, in order
+ */
+public record GameResult(long game, int startSide, int winner, int[] moves) {
+
+    /**
+     * Winner of a game stopped at the ply limit
+     */
+    public static final int DRAW = -1;
+
+    /**
+     * @return the number of moves made
+     */
+    public int plies() {
+        return moves.length;
+    }
+}
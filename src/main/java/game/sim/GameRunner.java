@@ -0,0 +1,76 @@
+package game.sim;
+
+import game.ai.Player;
+import game.engine.BitBoard;
+import game.metrics.LatencyHistogram;
+import game.metrics.MetricsRegistry;
+import game.trace.Trace;
+
+import java.util.Arrays;
+
+/**
+ * Plays headless games between two {@link Player}s with the rules of the GUI:
+ * the players move in turn, a player wins by completing a line of three, and a
+ * player who cannot move loses. Games reaching the ply limit are draws.
+ */
+public class GameRunner {
+
+    private static final LatencyHistogram MOVE_LATENCY = MetricsRegistry.global()
+            .histogram("game_engine_move_latency_nanoseconds", "Time a player takes to choose a move in headless games");
+
+    private final int maxPlies;
+    private final LatencyHistogram moveLatency;
+
+    /**
+     * @param maxPlies the number of moves after which a game is a draw
+     * @param moveLatency the histogram receiving the time of every move in nanoseconds
+     */
+    public GameRunner(int maxPlies, LatencyHistogram moveLatency) {
+        this.maxPlies = maxPlies;
+        this.moveLatency = moveLatency;
+    }
+
+    /**
+     * Plays a game from the starter position.
+     *
+     * @param game the number of the game
+     * @param blue the blue player
+     * @param red the red player
+     * @param startSide the side that moves first
+     * @param seed the seed passed to the players
+     * @return the result of the game
+     * @throws IllegalStateException if a player chooses an invalid move
+     */
+    public GameResult play(long game, Player blue, Player red, int startSide, long seed) {
+        var board = BitBoard.initial();
+        if (startSide != board.getSideToMove()) {
+            board = new BitBoard(board.getPieces(BitBoard.BLUE), board.getPieces(BitBoard.RED), startSide);
+        }
+        blue.newGame(seed);
+        red.newGame(seed ^ 0x9E37_79B9_7F4A_7C15L);
+        int[] moves = new int[maxPlies];
+        for (int ply = 0; ply < maxPlies; ply++) {
+            int side = board.getSideToMove();
+            var player = side == BitBoard.BLUE ? blue : red;
+            if (!board.hasMoves()) {
+                return new GameResult(game, startSide, side ^ 1, Arrays.copyOf(moves, ply));
+            }
+            long start = System.nanoTime();
+            int move = player.chooseMove(board);
+            long elapsed = System.nanoTime() - start;
+            moveLatency.record(elapsed);
+            MOVE_LATENCY.record(elapsed);
+            if (!board.isLegal(move)) {
+                throw new IllegalStateException("Invalid move " + move + " in\n" + board);
+            }
+            board.makeMove(move);
+            moves[ply] = move;
+            Trace.moveMade(BitBoard.moveFrom(move), BitBoard.moveTo(move));
+            if (board.winningLine(move) != 0) {
+                Trace.winDetected(BitBoard.moveTo(move), side);
+                return new GameResult(game, startSide, side, Arrays.copyOf(moves, ply + 1));
+            }
+        }
+        return new GameResult(game, startSide, GameResult.DRAW, moves);
+    }
+}
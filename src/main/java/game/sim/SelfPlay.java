@@ -0,0 +1,231 @@
+package game.sim;
+
+import game.ai.Player;
+import game.ai.Players;
+import game.engine.BitBoard;
+import game.metrics.LatencyHistogram;
+import game.metrics.PrometheusDump;
+import game.trace.Trace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Headless command-line runner playing many games between two players on all cores.
+ * Every game gets its own seed derived from the seed of the run, which decides
+ * the starting side the same way the random {@code playerTurn} of the GUI does
+ * and seeds the players. A run is reproducible regardless of the thread count
+ * if the searches stop at their depth or playout limit before their time limit
+ * and the Monte Carlo players have one thread; the clock and the interleaving
+ * of playout threads make other runs vary.
+ * A line {@code game,start,winner,plies} is streamed for every finished game,
+ * and games/sec, moves/sec and move latency percentiles are reported at the end.
+ * <p>
+ * Usage: {@code SelfPlay [--games N] [--threads N] [--seed N] [--blue SPEC] [--red SPEC]
+ * [--max-plies N] [--output FILE|-|none]}, see {@link Players} for the player specifications.
+ */
+public class SelfPlay {
+
+    private final Supplier<Player> blueFactory;
+    private final Supplier<Player> redFactory;
+    private final int threads;
+    private final long seed;
+    private final int maxPlies;
+
+    private final LatencyHistogram moveLatency = new LatencyHistogram();
+    private final LongAdder[] wins = {new LongAdder(), new LongAdder()};
+    private final LongAdder draws = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+
+    /**
+     * @param blueFactory creates the blue player of every thread
+     * @param redFactory creates the red player of every thread
+     * @param threads the number of threads playing games
+     * @param seed the seed of the run
+     * @param maxPlies the number of moves after which a game is a draw
+     */
+    public SelfPlay(Supplier<Player> blueFactory, Supplier<Player> redFactory, int threads, long seed, int maxPlies) {
+        if (threads < 1 || maxPlies < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.blueFactory = blueFactory;
+        this.redFactory = redFactory;
+        this.threads = threads;
+        this.seed = seed;
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * @param seed the seed of a run
+     * @param game the number of a game
+     * @return the seed of the game
+     */
+    public static long gameSeed(long seed, long game) {
+        return new SplittableRandom(seed + game * 0x9E37_79B9_7F4A_7C15L).nextLong();
+    }
+
+    /**
+     * Plays the games, streaming the results.
+     *
+     * @param games the number of games
+     * @param output receives a line per game, or {@code null}
+     * @return the wall-clock time of the run in nanoseconds
+     */
+    public long run(long games, Writer output) {
+        var next = new AtomicLong();
+        var executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> playGames(games, next, output)));
+            }
+            for (var worker : workers) {
+                worker.get();
+            }
+            if (output != null) {
+                output.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void playGames(long games, AtomicLong next, Writer output) {
+        try (var blue = blueFactory.get(); var red = redFactory.get()) {
+            var runner = new GameRunner(maxPlies, moveLatency);
+            for (long game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+                long gameSeed = gameSeed(seed, game);
+                int startSide = (new SplittableRandom(gameSeed).nextInt(2) + 1) % 2;
+                var result = runner.play(game, blue, red, startSide, gameSeed);
+                if (result.winner() == GameResult.DRAW) {
+                    draws.increment();
+                } else {
+                    wins[result.winner()].increment();
+                }
+                moves.add(result.plies());
+                if (output != null) {
+                    var line = result.game() + "," + sideName(result.startSide()) + ","
+                            + (result.winner() == GameResult.DRAW ? "DRAW" : sideName(result.winner())) + ","
+                            + result.plies() + "\n";
+                    try {
+                        synchronized (output) {
+                            output.write(line);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String sideName(int side) {
+        return side == BitBoard.BLUE ? "BLUE" : "RED";
+    }
+
+    /**
+     * @param side {@link BitBoard#BLUE} or {@link BitBoard#RED}
+     * @return the number of games won by the side
+     */
+    public long getWins(int side) {
+        return wins[side].sum();
+    }
+
+    /**
+     * @return the number of drawn games
+     */
+    public long getDraws() {
+        return draws.sum();
+    }
+
+    /**
+     * @return the number of moves made in all games
+     */
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    /**
+     * @return the time of every move in nanoseconds
+     */
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Invalid option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        long games = Long.parseLong(options.getOrDefault("games", "10000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        int maxPlies = Integer.parseInt(options.getOrDefault("max-plies", "200"));
+        var blue = Players.parse(options.getOrDefault("blue", "random"));
+        var red = Players.parse(options.getOrDefault("red", "random"));
+        String outputOption = options.getOrDefault("output", "none");
+
+        var selfPlay = new SelfPlay(blue, red, threads, seed, maxPlies);
+        var tracer = Trace.startFromProperty();
+        var metricsDump = PrometheusDump.startFromProperties();
+        long nanos;
+        if (outputOption.equals("none")) {
+            nanos = selfPlay.run(games, null);
+        } else if (outputOption.equals("-")) {
+            var output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            nanos = selfPlay.run(games, output);
+        } else {
+            try (var output = Files.newBufferedWriter(Path.of(outputOption))) {
+                nanos = selfPlay.run(games, output);
+            }
+        }
+        if (tracer.isPresent()) {
+            Trace.install(null);
+            tracer.get().close();
+            System.err.printf("traced %d events, dropped %d%n", tracer.get().getRecorded(), tracer.get().getDropped());
+        }
+        if (metricsDump.isPresent()) {
+            metricsDump.get().close();
+        }
+        selfPlay.printSummary(games, nanos);
+    }
+
+    private void printSummary(long games, long nanos) {
+        double seconds = nanos / 1e9;
+        System.err.printf("games %d: blue %d, red %d, draws %d%n", games, getWins(BitBoard.BLUE), getWins(BitBoard.RED), getDraws());
+        System.err.printf("%.1f s, %.0f games/s, %.0f moves/s%n", seconds, games / seconds, getMoves() / seconds);
+        System.err.printf("move latency: p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                moveLatency.getValueAtPercentile(50) / 1e3, moveLatency.getValueAtPercentile(99) / 1e3,
+                moveLatency.getMax() / 1e3);
+    }
+}
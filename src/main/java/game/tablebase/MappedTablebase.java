@@ -0,0 +1,172 @@
+package game.tablebase;
+
+import game.engine.BitBoard;
+import game.engine.Symmetry;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Serves lookups straight from a memory-mapped tablebase file, without copying
+ * the entries to the heap. Opening only maps the file, the pages are loaded by
+ * the operating system on first access.
+ * Files holding canonical positions only are searched by binary search on the
+ * mapped indexes, after mapping the position to its canonical representative.
+ * Lookups only use absolute reads of the mapped buffer, so an instance can be
+ * shared by any number of threads.
+ */
+public final class MappedTablebase {
+
+    private final ByteBuffer buffer;
+    private final int canonicalCount;
+
+    private MappedTablebase(ByteBuffer buffer, int canonicalCount) {
+        this.buffer = buffer;
+        this.canonicalCount = canonicalCount;
+    }
+
+    /**
+     * Maps a tablebase file written by {@link TablebaseFormat#write(Path, short[])}
+     * or {@link TablebaseFormat#writeCanonical(Path, short[])}.
+     *
+     * @param path the tablebase file
+     * @return the tablebase
+     * @throws IOException if the file cannot be read or is not a tablebase
+     */
+    public static MappedTablebase open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < TablebaseFormat.HEADER_BYTES) {
+                throw new IOException("Not a tablebase file: " + path);
+            }
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TablebaseFormat.HEADER_BYTES)
+                    .order(TablebaseFormat.BYTE_ORDER);
+            int version = header.getInt(4);
+            long count = header.getLong(8);
+            if (header.getInt(0) != TablebaseFormat.MAGIC || count < 0 || count > PositionIndex.SIZE
+                    || (version == TablebaseFormat.VERSION && count != PositionIndex.SIZE)
+                    || (version != TablebaseFormat.VERSION && version != TablebaseFormat.VERSION_CANONICAL)) {
+                throw new IOException("Not a tablebase file: " + path);
+            }
+            long entryBytes = version == TablebaseFormat.VERSION ? Short.BYTES : Integer.BYTES + Short.BYTES;
+            long expectedSize = TablebaseFormat.HEADER_BYTES + count * entryBytes;
+            if (channel.size() != expectedSize) {
+                throw new IOException("Unexpected tablebase size: " + channel.size());
+            }
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize).order(TablebaseFormat.BYTE_ORDER);
+            return new MappedTablebase(buffer, version == TablebaseFormat.VERSION ? -1 : (int) count);
+        }
+    }
+
+    /**
+     * @param path the tablebase file
+     * @return the tablebase, or an empty {@code Optional} if the file does not exist or cannot be mapped
+     */
+    public static Optional<MappedTablebase> openIfExists(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(open(path));
+        } catch (IOException e) {
+            Logger.warn("Cannot open the tablebase {}, it is not used: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param index the index of a position, see {@link PositionIndex}
+     * @return the entry of the position, see {@link TablebaseFormat}
+     */
+    public short entry(int index) {
+        if (canonicalCount < 0) {
+            return buffer.getShort(TablebaseFormat.HEADER_BYTES + index * Short.BYTES);
+        }
+        int blue = PositionIndex.blueOf(index);
+        int red = PositionIndex.redOf(index);
+        int side = PositionIndex.sideOf(index);
+        int transform = Symmetry.canonicalTransform(blue, red, side);
+        if (transform != Symmetry.IDENTITY) {
+            int newBlue = Symmetry.transformCells(transform, blue);
+            int newRed = Symmetry.transformCells(transform, red);
+            index = Symmetry.swapsColours(transform)
+                    ? PositionIndex.indexOf(newRed, newBlue, side ^ 1)
+                    : PositionIndex.indexOf(newBlue, newRed, side);
+        }
+        int low = 0;
+        int high = canonicalCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int value = buffer.getInt(TablebaseFormat.HEADER_BYTES + middle * Integer.BYTES);
+            if (value < index) {
+                low = middle + 1;
+            } else if (value > index) {
+                high = middle - 1;
+            } else {
+                return buffer.getShort(TablebaseFormat.HEADER_BYTES + canonicalCount * Integer.BYTES + middle * Short.BYTES);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return true if the file only holds canonical positions
+     */
+    public boolean isCanonical() {
+        return canonicalCount >= 0;
+    }
+
+    /**
+     * @param board a position with four circles of each player
+     * @return the outcome for the side to move
+     */
+    public Outcome outcome(BitBoard board) {
+        return TablebaseFormat.outcomeOf(entry(PositionIndex.indexOf(board)));
+    }
+
+    /**
+     * @param board a position with four circles of each player
+     * @return the number of plies to the result with perfect play
+     */
+    public int distance(BitBoard board) {
+        return TablebaseFormat.distanceOf(entry(PositionIndex.indexOf(board)));
+    }
+
+    /**
+     * Finds a move with perfect play: the fastest win, the slowest loss, or a move keeping the draw.
+     *
+     * @param board a position with four circles of each player, it is not modified
+     * @return the encoded move, or -1 if the side to move has no move
+     */
+    public int bestMove(BitBoard board) {
+        var position = new BitBoard(board);
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        int count = position.generateMoves(moves);
+        int bestMove = -1;
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            int rank = rankForMover(entry(PositionIndex.indexOf(position)));
+            position.unmakeMove(moves[i]);
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+
+    private static int rankForMover(short childEntry) {
+        int distance = TablebaseFormat.distanceOf(childEntry);
+        return switch (TablebaseFormat.outcomeOf(childEntry)) {
+            case LOSS -> 2 * TablebaseFormat.MAX_DISTANCE - distance;
+            case DRAW, UNKNOWN -> 0;
+            case WIN -> -TablebaseFormat.MAX_DISTANCE + distance;
+        };
+    }
+}
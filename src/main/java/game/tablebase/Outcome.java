@@ -0,0 +1,11 @@
+package game.tablebase;
+
+/**
+ * Represents the game-theoretic value of a position for the side to move.
+ */
+public enum Outcome {
+    UNKNOWN,
+    WIN,
+    LOSS,
+    DRAW;
+}
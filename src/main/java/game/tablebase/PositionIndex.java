@@ -0,0 +1,134 @@
+package game.tablebase;
+
+import game.engine.BitBoard;
+
+/**
+ * Perfect ranking of the positions with four blue and four red circles.
+ * The blue cells are ranked among the 20 cells of the board and the red cells
+ * among the 16 cells left free, both with the combinatorial number system, so
+ * every position has a distinct index between 0 and {@link #SIZE} and no index
+ * is wasted.
+ */
+public final class PositionIndex {
+
+    /**
+     * Number of circles of each player
+     */
+    public static final int PIECES_PER_SIDE = 4;
+
+    private static final int FREE_CELLS = BitBoard.CELLS - PIECES_PER_SIDE;
+
+    private static final int[][] BINOMIAL = new int[BitBoard.CELLS + 1][PIECES_PER_SIDE + 1];
+
+    static {
+        for (int n = 0; n <= BitBoard.CELLS; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, PIECES_PER_SIDE); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k < n ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    /**
+     * Number of ways to place the blue circles
+     */
+    public static final int BLUE_COMBINATIONS = BINOMIAL[BitBoard.CELLS][PIECES_PER_SIDE];
+
+    /**
+     * Number of ways to place the red circles on the cells left free
+     */
+    public static final int RED_COMBINATIONS = BINOMIAL[FREE_CELLS][PIECES_PER_SIDE];
+
+    /**
+     * Number of positions, including the side to move
+     */
+    public static final int SIZE = BLUE_COMBINATIONS * RED_COMBINATIONS * 2;
+
+    private static final int[] BLUE_MASKS = subsets(BitBoard.CELLS, BLUE_COMBINATIONS);
+    private static final int[] RED_MASKS = subsets(FREE_CELLS, RED_COMBINATIONS);
+
+    private PositionIndex() {
+    }
+
+    private static int[] subsets(int cells, int count) {
+        int[] masks = new int[count];
+        for (int mask = 0; mask < 1 << cells; mask++) {
+            if (Integer.bitCount(mask) == PIECES_PER_SIDE) {
+                masks[rank(mask)] = mask;
+            }
+        }
+        return masks;
+    }
+
+    private static int rank(int mask) {
+        int rank = 0;
+        int k = 1;
+        for (int cells = mask; cells != 0; cells &= cells - 1) {
+            rank += BINOMIAL[Integer.numberOfTrailingZeros(cells)][k++];
+        }
+        return rank;
+    }
+
+    /**
+     * @param blue the cells occupied by four blue circles
+     * @param red the cells occupied by four red circles
+     * @param sideToMove {@link BitBoard#BLUE} or {@link BitBoard#RED}
+     * @return the index of the position
+     */
+    public static int indexOf(int blue, int red, int sideToMove) {
+        int compressed = 0;
+        for (int cells = red; cells != 0; cells &= cells - 1) {
+            int cell = Integer.numberOfTrailingZeros(cells);
+            compressed |= 1 << (cell - Integer.bitCount(blue & ((1 << cell) - 1)));
+        }
+        return (rank(blue) * RED_COMBINATIONS + rank(compressed)) * 2 + sideToMove;
+    }
+
+    /**
+     * @param board a position with four circles of each player
+     * @return the index of the position
+     */
+    public static int indexOf(BitBoard board) {
+        return indexOf(board.getPieces(BitBoard.BLUE), board.getPieces(BitBoard.RED), board.getSideToMove());
+    }
+
+    /**
+     * @param index the index of a position
+     * @return the cells occupied by blue circles
+     */
+    public static int blueOf(int index) {
+        return BLUE_MASKS[index / 2 / RED_COMBINATIONS];
+    }
+
+    /**
+     * @param index the index of a position
+     * @return the cells occupied by red circles
+     */
+    public static int redOf(int index) {
+        int compressed = RED_MASKS[index / 2 % RED_COMBINATIONS];
+        int free = ~blueOf(index) & BitBoard.FULL_MASK;
+        int red = 0;
+        for (int bit = 0; free != 0; free &= free - 1, bit++) {
+            if ((compressed & (1 << bit)) != 0) {
+                red |= free & -free;
+            }
+        }
+        return red;
+    }
+
+    /**
+     * @param index the index of a position
+     * @return {@link BitBoard#BLUE} or {@link BitBoard#RED}
+     */
+    public static int sideOf(int index) {
+        return index & 1;
+    }
+
+    /**
+     * @param index the index of a position
+     * @return the position
+     */
+    public static BitBoard positionOf(int index) {
+        return new BitBoard(blueOf(index), redOf(index), sideOf(index));
+    }
+}
@@ -0,0 +1,161 @@
+package game.tablebase;
+
+import game.engine.BitBoard;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+
+/**
+ * Solves every position of the game by retrograde analysis.
+ * Terminal positions are labelled first: the side to move has lost if the
+ * opponent has three circles in a line or if it has no valid move. Results are
+ * then propagated backwards one ply at a time by undoing moves of the player
+ * who moved last, so every position is labelled with the shortest win or the
+ * longest loss. Positions never resolved are draws.
+ * Positions in which only the side to move has a line cannot arise in play,
+ * they are labelled as wins at distance 0.
+ * <p>
+ * Usage: {@code RetrogradeSolver [--canonical] [file]}, where {@code --canonical}
+ * writes the canonical positions only, see {@link TablebaseFormat}.
+ */
+public class RetrogradeSolver {
+
+    /**
+     * Name of the tablebase file written by {@link #main(String[])} by default
+     */
+    public static final String DEFAULT_FILE = "tablebase.bin";
+
+    private static final short WIN_NOW = TablebaseFormat.encode(Outcome.WIN, 0);
+    private static final short LOSS_NOW = TablebaseFormat.encode(Outcome.LOSS, 0);
+    private static final short DRAW = TablebaseFormat.encode(Outcome.DRAW, 0);
+
+    private final short[] entries = new short[PositionIndex.SIZE];
+    private final byte[] movesLeft = new byte[PositionIndex.SIZE];
+
+    /**
+     * Labels every position.
+     *
+     * @return the entries in the order of {@link PositionIndex}, see {@link TablebaseFormat}
+     */
+    public short[] solve() {
+        long start = System.nanoTime();
+        var frontier = labelTerminals();
+        Logger.info("Labelled {} terminal positions", frontier.size);
+        int distance = 0;
+        while (frontier.size > 0) {
+            var next = new IntList();
+            for (int i = 0; i < frontier.size; i++) {
+                propagate(frontier.values[i], distance, next);
+            }
+            distance++;
+            Logger.debug("Distance {}: {} positions", distance, next.size);
+            frontier = next;
+        }
+        for (int index = 0; index < entries.length; index++) {
+            if (entries[index] == 0) {
+                entries[index] = DRAW;
+            }
+        }
+        Logger.info("Solved {} positions in {} ms, longest result {} plies",
+                entries.length, (System.nanoTime() - start) / 1_000_000, distance - 1);
+        return entries;
+    }
+
+    private IntList labelTerminals() {
+        var terminals = new IntList();
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        for (int index = 0; index < entries.length; index++) {
+            var board = PositionIndex.positionOf(index);
+            int side = board.getSideToMove();
+            if (board.hasLine(side ^ 1)) {
+                entries[index] = LOSS_NOW;
+                terminals.add(index);
+            } else if (board.hasLine(side)) {
+                entries[index] = WIN_NOW;
+            } else {
+                int count = board.generateMoves(moves);
+                if (count == 0) {
+                    entries[index] = LOSS_NOW;
+                    terminals.add(index);
+                } else {
+                    movesLeft[index] = (byte) count;
+                }
+            }
+        }
+        return terminals;
+    }
+
+    private void propagate(int index, int distance, IntList next) {
+        int blue = PositionIndex.blueOf(index);
+        int red = PositionIndex.redOf(index);
+        int side = PositionIndex.sideOf(index);
+        int mover = side ^ 1;
+        int moverPieces = mover == BitBoard.BLUE ? blue : red;
+        int empty = ~(blue | red) & BitBoard.FULL_MASK;
+        boolean lost = TablebaseFormat.outcomeOf(entries[index]) == Outcome.LOSS;
+
+        for (int pieces = moverPieces; pieces != 0; pieces &= pieces - 1) {
+            int to = Integer.numberOfTrailingZeros(pieces);
+            for (int origins = BitBoard.neighbours(to) & empty; origins != 0; origins &= origins - 1) {
+                int before = moverPieces ^ (1 << to) ^ (origins & -origins);
+                int previous = mover == BitBoard.BLUE
+                        ? PositionIndex.indexOf(before, red, mover)
+                        : PositionIndex.indexOf(blue, before, mover);
+                if (entries[previous] != 0) {
+                    continue;
+                }
+                if (lost) {
+                    entries[previous] = TablebaseFormat.encode(Outcome.WIN, distance + 1);
+                    next.add(previous);
+                } else if (--movesLeft[previous] == 0) {
+                    entries[previous] = TablebaseFormat.encode(Outcome.LOSS, distance + 1);
+                    next.add(previous);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param entries the entries of a solved tablebase
+     * @return the number of positions per outcome
+     */
+    public static EnumMap<Outcome, Integer> countOutcomes(short[] entries) {
+        var counts = new EnumMap<Outcome, Integer>(Outcome.class);
+        for (short entry : entries) {
+            counts.merge(TablebaseFormat.outcomeOf(entry), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean canonical = args.length > 0 && args[0].equals("--canonical");
+        int fileArgument = canonical ? 1 : 0;
+        var path = Path.of(args.length > fileArgument ? args[fileArgument] : DEFAULT_FILE);
+        var entries = new RetrogradeSolver().solve();
+        Logger.info("Outcomes: {}", countOutcomes(entries));
+        short start = entries[PositionIndex.indexOf(BitBoard.initial())];
+        Logger.info("Starter position: {} in {} plies", TablebaseFormat.outcomeOf(start), TablebaseFormat.distanceOf(start));
+        if (canonical) {
+            TablebaseFormat.writeCanonical(path, entries);
+        } else {
+            TablebaseFormat.write(path, entries);
+        }
+        Logger.info("Tablebase written to {}", path.toAbsolutePath());
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package game.tablebase;
+
+import game.engine.Symmetry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Layout of a tablebase file.
+ * The file starts with a {@value #HEADER_BYTES}-byte header: the magic number,
+ * the format version and the number of entries. Each entry is a little-endian
+ * 16-bit value holding the {@link Outcome} in the top 2 bits and the distance to
+ * the result in plies in the low 14 bits.
+ * In a {@link #VERSION} file there is an entry for every position, in the order
+ * of {@link PositionIndex}. A {@link #VERSION_CANONICAL} file only holds the
+ * positions that are canonical under {@link Symmetry}: the sorted indexes of
+ * these positions as 32-bit values, followed by their entries.
+ */
+public final class TablebaseFormat {
+
+    /**
+     * Magic number at the start of a tablebase file
+     */
+    public static final int MAGIC = 0x54545442;
+
+    /**
+     * Version of the format
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Version of the format holding canonical positions only
+     */
+    public static final int VERSION_CANONICAL = 2;
+
+    /**
+     * Size of the header in bytes
+     */
+    public static final int HEADER_BYTES = 16;
+
+    /**
+     * Byte order of the file
+     */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Largest distance an entry can hold
+     */
+    public static final int MAX_DISTANCE = (1 << 14) - 1;
+
+    private static final int WRITE_CHUNK_ENTRIES = 1 << 16;
+
+    private TablebaseFormat() {
+    }
+
+    /**
+     * @param outcome the outcome of a position
+     * @param distance the number of plies to the result
+     * @return the entry of the position
+     */
+    public static short encode(Outcome outcome, int distance) {
+        if (distance < 0 || distance > MAX_DISTANCE) {
+            throw new IllegalArgumentException();
+        }
+        return (short) (outcome.ordinal() << 14 | distance);
+    }
+
+    /**
+     * @param entry the entry of a position
+     * @return the outcome of the position
+     */
+    public static Outcome outcomeOf(short entry) {
+        return Outcome.values()[(entry >>> 14) & 0x3];
+    }
+
+    /**
+     * @param entry the entry of a position
+     * @return the number of plies to the result
+     */
+    public static int distanceOf(short entry) {
+        return entry & MAX_DISTANCE;
+    }
+
+    /**
+     * Writes the entries to a tablebase file, replacing the file if it exists.
+     *
+     * @param path the file to write
+     * @param entries the entries in the order of {@link PositionIndex}
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, short[] entries) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+            header.putInt(MAGIC).putInt(VERSION).putLong(entries.length).flip();
+            writeFully(channel, header);
+            var chunk = ByteBuffer.allocateDirect(WRITE_CHUNK_ENTRIES * Short.BYTES).order(BYTE_ORDER);
+            for (int offset = 0; offset < entries.length; offset += WRITE_CHUNK_ENTRIES) {
+                int length = Math.min(WRITE_CHUNK_ENTRIES, entries.length - offset);
+                chunk.clear();
+                chunk.asShortBuffer().put(entries, offset, length);
+                chunk.limit(length * Short.BYTES);
+                writeFully(channel, chunk);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Writes the entries of the canonical positions to a tablebase file,
+     * replacing the file if it exists.
+     *
+     * @param path the file to write
+     * @param entries the entries of every position in the order of {@link PositionIndex}
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeCanonical(Path path, short[] entries) throws IOException {
+        int[] indexes = new int[entries.length];
+        int count = 0;
+        for (int index = 0; index < entries.length; index++) {
+            if (Symmetry.canonicalTransform(PositionIndex.blueOf(index), PositionIndex.redOf(index),
+                    PositionIndex.sideOf(index)) == Symmetry.IDENTITY) {
+                indexes[count++] = index;
+            }
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+            header.putInt(MAGIC).putInt(VERSION_CANONICAL).putLong(count).flip();
+            writeFully(channel, header);
+            var chunk = ByteBuffer.allocateDirect(WRITE_CHUNK_ENTRIES * Integer.BYTES).order(BYTE_ORDER);
+            for (int offset = 0; offset < count; offset += WRITE_CHUNK_ENTRIES) {
+                int length = Math.min(WRITE_CHUNK_ENTRIES, count - offset);
+                chunk.clear();
+                chunk.asIntBuffer().put(indexes, offset, length);
+                chunk.limit(length * Integer.BYTES);
+                writeFully(channel, chunk);
+            }
+            for (int offset = 0; offset < count; offset += WRITE_CHUNK_ENTRIES) {
+                int length = Math.min(WRITE_CHUNK_ENTRIES, count - offset);
+                chunk.clear();
+                var shorts = chunk.asShortBuffer();
+                for (int i = 0; i < length; i++) {
+                    shorts.put(entries[indexes[offset + i]]);
+                }
+                chunk.limit(length * Short.BYTES);
+                writeFully(channel, chunk);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
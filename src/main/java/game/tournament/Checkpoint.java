@@ -0,0 +1,114 @@
+package game.tournament;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Journal of the finished games of a tournament, so an interrupted run can be resumed.
+ * The text file starts with a line describing the tournament, followed by a line
+ * {@code pairing game points} per finished game, where {@code points} is the
+ * number of half points scored by the first player of the pairing. Every line
+ * is flushed as soon as the game ends; a line torn by a crash is dropped when
+ * the file is opened again.
+ */
+public final class Checkpoint implements AutoCloseable {
+
+    private static final String MAGIC = "tournament 1 ";
+
+    /**
+     * A finished game.
+     *
+     * @param pairing the index of the pairing
+     * @param game the number of the game within the pairing
+     * @param points the half points scored by the first player: 0, 1 or 2
+     */
+    public record Result(int pairing, int game, int points) {
+    }
+
+    private final List<Result> results;
+    private final Writer writer;
+
+    private Checkpoint(List<Result> results, Writer writer) {
+        this.results = results;
+        this.writer = writer;
+    }
+
+    /**
+     * Opens a checkpoint, creating it if it does not exist.
+     *
+     * @param path the checkpoint file
+     * @param description the settings of the tournament, on a single line
+     * @return the checkpoint
+     * @throws IOException if the file cannot be read or written, or belongs to another tournament
+     */
+    public static Checkpoint open(Path path, String description) throws IOException {
+        if (description.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Description must be a single line");
+        }
+        var header = MAGIC + description + "\n";
+        List<Result> results = new ArrayList<>();
+        if (Files.exists(path) && Files.size(path) > 0) {
+            var content = Files.readString(path, StandardCharsets.UTF_8);
+            if (!content.startsWith(header)) {
+                throw new IOException("Checkpoint of a different tournament: " + path);
+            }
+            int complete = content.lastIndexOf('\n') + 1;
+            for (var line : content.substring(header.length(), complete).split("\n")) {
+                if (!line.isEmpty()) {
+                    results.add(parse(line, path));
+                }
+            }
+            if (complete < content.length()) {
+                Files.writeString(path, content.substring(0, complete), StandardCharsets.UTF_8,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            }
+        } else {
+            Files.writeString(path, header, StandardCharsets.UTF_8);
+        }
+        var writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        return new Checkpoint(results, writer);
+    }
+
+    private static Result parse(String line, Path path) throws IOException {
+        var fields = line.split(" ");
+        try {
+            var result = new Result(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+            if (fields.length == 3 && result.pairing() >= 0 && result.game() >= 0
+                    && result.points() >= 0 && result.points() <= 2) {
+                return result;
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            // reported below
+        }
+        throw new IOException("Invalid checkpoint line in " + path + ": " + line);
+    }
+
+    /**
+     * @return the games finished before the checkpoint was opened
+     */
+    public List<Result> getResults() {
+        return List.copyOf(results);
+    }
+
+    /**
+     * Appends a finished game and flushes it to the file.
+     *
+     * @param result the game
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void record(Result result) throws IOException {
+        writer.write(result.pairing() + " " + result.game() + " " + result.points() + "\n");
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
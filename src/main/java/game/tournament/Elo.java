@@ -0,0 +1,103 @@
+package game.tournament;
+
+/**
+ * Elo rating differences computed from match scores.
+ */
+public final class Elo {
+
+    /**
+     * Two-sided 95% quantile of the normal distribution
+     */
+    private static final double Z_95 = 1.959964;
+
+    private Elo() {
+    }
+
+    /**
+     * Estimated rating difference with its 95% confidence margin.
+     *
+     * @param elo the estimated difference
+     * @param error the half width of the 95% confidence interval
+     */
+    public record Estimate(double elo, double error) {
+
+        @Override
+        public String toString() {
+            return String.format("%+.1f +/- %.1f", elo, error);
+        }
+    }
+
+    /**
+     * @param score the expected score, between 0 and 1
+     * @return the rating difference giving that score
+     */
+    public static double difference(double score) {
+        return -400 * Math.log10(1 / score - 1) + 0.0;
+    }
+
+    /**
+     * @param elo a rating difference
+     * @return the expected score of the stronger side
+     */
+    public static double score(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * @param wins the number of games won
+     * @param draws the number of games drawn
+     * @param losses the number of games lost
+     * @return the mean score, 0.5 if no game has been played
+     */
+    public static double meanScore(long wins, long draws, long losses) {
+        long games = wins + draws + losses;
+        return games == 0 ? 0.5 : (wins + 0.5 * draws) / games;
+    }
+
+    /**
+     * @param wins the number of games won
+     * @param draws the number of games drawn
+     * @param losses the number of games lost
+     * @return the variance of the score of one game
+     */
+    public static double variance(long wins, long draws, long losses) {
+        long games = wins + draws + losses;
+        if (games == 0) {
+            return 0;
+        }
+        double mean = meanScore(wins, draws, losses);
+        return (wins * (1 - mean) * (1 - mean) + draws * (0.5 - mean) * (0.5 - mean) + losses * mean * mean) / games;
+    }
+
+    /**
+     * Estimates the rating difference from a result. A score of 0 or 1 is
+     * moved half a game towards the middle, so the estimate stays finite, and
+     * while every game has had the same result the variance is taken as if one
+     * more game had been won and one lost.
+     *
+     * @param wins the number of games won
+     * @param draws the number of games drawn
+     * @param losses the number of games lost
+     * @return the estimate
+     */
+    public static Estimate estimate(long wins, long draws, long losses) {
+        long games = wins + draws + losses;
+        if (games == 0) {
+            return new Estimate(0, Double.POSITIVE_INFINITY);
+        }
+        double margin = 0.5 / games;
+        double mean = clamp(meanScore(wins, draws, losses), margin);
+        double variance = variance(wins, draws, losses);
+        if (variance == 0) {
+            variance = variance(wins + 1, draws, losses + 1);
+        }
+        double deviation = Math.sqrt(variance / games);
+        double low = clamp(mean - Z_95 * deviation, margin);
+        double high = clamp(mean + Z_95 * deviation, margin);
+        return new Estimate(difference(mean), (difference(high) - difference(low)) / 2);
+    }
+
+    private static double clamp(double score, double margin) {
+        return Math.min(1 - margin, Math.max(margin, score));
+    }
+}
@@ -0,0 +1,86 @@
+package game.tournament;
+
+/**
+ * Sequential probability ratio test of whether the first player of a pairing
+ * is {@code elo1} rather than {@code elo0} rating points stronger, using the
+ * normal approximation of the trinomial win/draw/loss distribution.
+ * The log-likelihood ratio of the results is compared with the bounds given
+ * by the error rates after every game, so a pairing stops as soon as the
+ * result is significant. While every game has had the same result, the variance
+ * is taken as if one more game had been won and one lost.
+ *
+ * @param elo0 the rating difference of the null hypothesis
+ * @param elo1 the rating difference of the alternative hypothesis, larger than {@code elo0}
+ * @param alpha the probability of accepting the alternative when the null hypothesis holds
+ * @param beta the probability of accepting the null hypothesis when the alternative holds
+ */
+public record Sprt(double elo0, double elo1, double alpha, double beta) {
+
+    /**
+     * Outcome of the test so far
+     */
+    public enum Decision {
+        CONTINUE, ACCEPT_H0, ACCEPT_H1
+    }
+
+    /**
+     * @throws IllegalArgumentException if the hypotheses or error rates are invalid
+     */
+    public Sprt {
+        if (!(elo1 > elo0) || !(alpha > 0 && alpha < 1) || !(beta > 0 && beta < 1)) {
+            throw new IllegalArgumentException("Invalid SPRT parameters");
+        }
+    }
+
+    /**
+     * @return the log-likelihood ratio below which the null hypothesis is accepted
+     */
+    public double lowerBound() {
+        return Math.log(beta / (1 - alpha));
+    }
+
+    /**
+     * @return the log-likelihood ratio above which the alternative hypothesis is accepted
+     */
+    public double upperBound() {
+        return Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * @param wins the number of games won by the first player
+     * @param draws the number of games drawn
+     * @param losses the number of games lost by the first player
+     * @return the log-likelihood ratio of the alternative against the null hypothesis
+     */
+    public double logLikelihoodRatio(long wins, long draws, long losses) {
+        double variance = Elo.variance(wins, draws, losses);
+        if (variance == 0) {
+            if (wins + draws + losses == 0) {
+                return 0;
+            }
+            variance = Elo.variance(wins + 1, draws, losses + 1);
+        }
+        long games = wins + draws + losses;
+        double score0 = Elo.score(elo0);
+        double score1 = Elo.score(elo1);
+        double mean = Elo.meanScore(wins, draws, losses);
+        return games * (score1 - score0) * (2 * mean - score0 - score1) / (2 * variance);
+    }
+
+    /**
+     * @param wins the number of games won by the first player
+     * @param draws the number of games drawn
+     * @param losses the number of games lost by the first player
+     * @return the decision for the results
+     */
+    public Decision test(long wins, long draws, long losses) {
+        double ratio = logLikelihoodRatio(wins, draws, losses);
+        if (ratio >= upperBound()) {
+            return Decision.ACCEPT_H1;
+        }
+        if (ratio <= lowerBound()) {
+            return Decision.ACCEPT_H0;
+        }
+        return Decision.CONTINUE;
+    }
+}
@@ -0,0 +1,423 @@
+package game.tournament;
+
+import game.ai.Player;
+import game.ai.Players;
+import game.engine.BitBoard;
+import game.metrics.LatencyHistogram;
+import game.sim.GameResult;
+import game.sim.GameRunner;
+import game.sim.SelfPlay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Headless tournament between registered players, reporting the rating
+ * difference of every pairing and of every player against the field with
+ * 95% error bars.
+ * <p>
+ * Every pairing plays up to the same number of games in pairs: the two games of
+ * a pair are played with the same colours and the same seed, each player moving
+ * first in one of them, and the colours are swapped between consecutive pairs,
+ * so neither the first move nor the colour favours a player. The games of all
+ * pairings are interleaved and played by a fixed number of threads, each with
+ * its own instances of the players. With an {@link Sprt} a pairing stops as soon
+ * as its result is significant. Finished games can be journaled to a
+ * {@link Checkpoint}, from which an interrupted run resumes where it stopped.
+ * <p>
+ * Usage: {@code Tournament --players "SPEC SPEC..." [--format round-robin|gauntlet] [--games N]
+ * [--threads N] [--seed N] [--max-plies N] [--sprt ELO0,ELO1,ALPHA,BETA|none] [--checkpoint FILE|none]},
+ * see {@link Players} for the player specifications. In a gauntlet the first player meets every other one.
+ */
+public class Tournament {
+
+    /**
+     * Who meets whom
+     */
+    public enum Format {
+        ROUND_ROBIN, GAUNTLET
+    }
+
+    /**
+     * A registered player.
+     *
+     * @param name the name shown in the results
+     * @param factory creates the instances of the player, one per thread
+     */
+    public record Entrant(String name, Supplier<Player> factory) {
+    }
+
+    /**
+     * Games between two entrants, counted from the point of view of the first one.
+     */
+    public static final class Pairing {
+
+        private final int first;
+        private final int second;
+        private final BitSet played = new BitSet();
+        private long wins;
+        private long draws;
+        private long losses;
+        private Sprt.Decision decision = Sprt.Decision.CONTINUE;
+
+        Pairing(int first, int second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        /**
+         * @return the index of the first entrant
+         */
+        public int getFirst() {
+            return first;
+        }
+
+        /**
+         * @return the index of the second entrant
+         */
+        public int getSecond() {
+            return second;
+        }
+
+        /**
+         * @return the number of games won by the first entrant
+         */
+        public synchronized long getWins() {
+            return wins;
+        }
+
+        /**
+         * @return the number of drawn games
+         */
+        public synchronized long getDraws() {
+            return draws;
+        }
+
+        /**
+         * @return the number of games lost by the first entrant
+         */
+        public synchronized long getLosses() {
+            return losses;
+        }
+
+        /**
+         * @return the number of games played
+         */
+        public synchronized long getGames() {
+            return wins + draws + losses;
+        }
+
+        /**
+         * @return the outcome of the SPRT, {@link Sprt.Decision#CONTINUE} without one
+         */
+        public synchronized Sprt.Decision getDecision() {
+            return decision;
+        }
+
+        /**
+         * @return the rating difference of the first entrant over the second one
+         */
+        public synchronized Elo.Estimate getElo() {
+            return Elo.estimate(wins, draws, losses);
+        }
+
+        synchronized boolean isPlayed(int game) {
+            return played.get(game);
+        }
+
+        synchronized boolean isDecided() {
+            return decision != Sprt.Decision.CONTINUE;
+        }
+
+        /**
+         * @return whether the game was new and decided the SPRT
+         */
+        synchronized boolean record(int game, int points, Sprt sprt) {
+            if (played.get(game)) {
+                return false;
+            }
+            played.set(game);
+            switch (points) {
+                case 2 -> wins++;
+                case 1 -> draws++;
+                default -> losses++;
+            }
+            if (sprt != null && decision == Sprt.Decision.CONTINUE) {
+                decision = sprt.test(wins, draws, losses);
+                return decision != Sprt.Decision.CONTINUE;
+            }
+            return false;
+        }
+    }
+
+    private final List<Entrant> entrants;
+    private final Format format;
+    private final int gamesPerPairing;
+    private final int threads;
+    private final long seed;
+    private final int maxPlies;
+    private final Sprt sprt;
+    private final List<Pairing> pairings = new ArrayList<>();
+    private final LatencyHistogram moveLatency = new LatencyHistogram();
+
+    /**
+     * @param entrants the players, at least two
+     * @param format who meets whom
+     * @param gamesPerPairing the largest number of games of a pairing, even
+     * @param threads the number of threads playing games
+     * @param seed the seed of the run
+     * @param maxPlies the number of moves after which a game is a draw
+     * @param sprt the test stopping a pairing early, or {@code null} to play every game
+     */
+    public Tournament(List<Entrant> entrants, Format format, int gamesPerPairing, int threads, long seed,
+                      int maxPlies, Sprt sprt) {
+        if (entrants.size() < 2 || gamesPerPairing < 2 || gamesPerPairing % 2 != 0 || threads < 1 || maxPlies < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.entrants = List.copyOf(entrants);
+        this.format = format;
+        this.gamesPerPairing = gamesPerPairing;
+        this.threads = threads;
+        this.seed = seed;
+        this.maxPlies = maxPlies;
+        this.sprt = sprt;
+        for (int first = 0; first < entrants.size(); first++) {
+            for (int second = first + 1; second < entrants.size(); second++) {
+                if (format == Format.ROUND_ROBIN || first == 0) {
+                    pairings.add(new Pairing(first, second));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the settings of the tournament, identifying its checkpoint
+     */
+    public String describe() {
+        var names = new StringBuilder();
+        for (var entrant : entrants) {
+            names.append(names.isEmpty() ? "" : ";").append(entrant.name());
+        }
+        return format + " games=" + gamesPerPairing + " seed=" + seed + " max-plies=" + maxPlies
+                + " sprt=" + sprt + " players=" + names;
+    }
+
+    /**
+     * @return the entrants in the order they were registered
+     */
+    public List<Entrant> getEntrants() {
+        return entrants;
+    }
+
+    /**
+     * @return the pairings, the first entrant being the one registered first
+     */
+    public List<Pairing> getPairings() {
+        return pairings;
+    }
+
+    /**
+     * @return the time of every move in nanoseconds
+     */
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    /**
+     * @param entrant the index of an entrant
+     * @return the rating difference of the entrant over its opponents, from all its games
+     */
+    public Elo.Estimate getElo(int entrant) {
+        long[] score = score(entrant);
+        return Elo.estimate(score[0], score[1], score[2]);
+    }
+
+    /**
+     * @param entrant the index of an entrant
+     * @return the wins, draws and losses of the entrant
+     */
+    public long[] score(int entrant) {
+        long[] score = new long[3];
+        for (var pairing : pairings) {
+            synchronized (pairing) {
+                if (pairing.first == entrant) {
+                    score[0] += pairing.wins;
+                    score[2] += pairing.losses;
+                } else if (pairing.second == entrant) {
+                    score[0] += pairing.losses;
+                    score[2] += pairing.wins;
+                } else {
+                    continue;
+                }
+                score[1] += pairing.draws;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Plays the games not yet in the checkpoint, until every pairing has played
+     * all its games or been decided by the SPRT.
+     *
+     * @param checkpoint receives every finished game and provides the games of an earlier run, or {@code null}
+     * @return the wall-clock time of the run in nanoseconds
+     */
+    public long run(Checkpoint checkpoint) {
+        if (checkpoint != null) {
+            for (var result : checkpoint.getResults()) {
+                if (result.pairing() >= pairings.size() || result.game() >= gamesPerPairing) {
+                    throw new IllegalStateException("Checkpoint does not match the tournament: " + result);
+                }
+                pairings.get(result.pairing()).record(result.game(), result.points(), sprt);
+            }
+        }
+        var next = new AtomicLong();
+        var executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> playGames(next, checkpoint)));
+            }
+            for (var worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void playGames(AtomicLong next, Checkpoint checkpoint) {
+        var players = new Player[entrants.size()];
+        var runner = new GameRunner(maxPlies, moveLatency);
+        long total = (long) pairings.size() * gamesPerPairing;
+        try {
+            for (long index = next.getAndIncrement(); index < total; index = next.getAndIncrement()) {
+                int pairingIndex = (int) (index % pairings.size());
+                int game = (int) (index / pairings.size());
+                var pairing = pairings.get(pairingIndex);
+                if (pairing.isDecided() || pairing.isPlayed(game)) {
+                    continue;
+                }
+                int points = play(runner, players, pairingIndex, game);
+                if (checkpoint != null) {
+                    try {
+                        checkpoint.record(new Checkpoint.Result(pairingIndex, game, points));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                if (pairing.record(game, points, sprt)) {
+                    System.err.printf("%s vs %s: %s after %d games, %s%n", entrants.get(pairing.first).name(),
+                            entrants.get(pairing.second).name(), pairing.getDecision(), pairing.getGames(), pairing.getElo());
+                }
+            }
+        } finally {
+            for (var player : players) {
+                if (player != null) {
+                    player.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the half points scored by the first entrant of the pairing
+     */
+    private int play(GameRunner runner, Player[] players, int pairingIndex, int game) {
+        var pairing = pairings.get(pairingIndex);
+        var first = player(players, pairing.first);
+        var second = player(players, pairing.second);
+        boolean firstIsBlue = game / 2 % 2 == 0;
+        int firstSide = firstIsBlue ? BitBoard.BLUE : BitBoard.RED;
+        int startSide = game % 2 == 0 ? firstSide : firstSide ^ 1;
+        long gameSeed = SelfPlay.gameSeed(seed, (long) pairingIndex * gamesPerPairing + game / 2);
+        long number = (long) pairingIndex * gamesPerPairing + game;
+        var result = firstIsBlue
+                ? runner.play(number, first, second, startSide, gameSeed)
+                : runner.play(number, second, first, startSide, gameSeed);
+        if (result.winner() == GameResult.DRAW) {
+            return 1;
+        }
+        return result.winner() == firstSide ? 2 : 0;
+    }
+
+    private Player player(Player[] players, int entrant) {
+        if (players[entrant] == null) {
+            players[entrant] = entrants.get(entrant).factory().get();
+        }
+        return players[entrant];
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Invalid option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        List<Entrant> entrants = new ArrayList<>();
+        for (var spec : options.getOrDefault("players", "random search:depth=2").trim().split("\\s+")) {
+            entrants.add(new Entrant(spec, Players.parse(spec)));
+        }
+        var format = Format.valueOf(options.getOrDefault("format", "round-robin").toUpperCase().replace('-', '_'));
+        int games = Integer.parseInt(options.getOrDefault("games", "1000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        int maxPlies = Integer.parseInt(options.getOrDefault("max-plies", "200"));
+        var sprtOption = options.getOrDefault("sprt", "0,10,0.05,0.05");
+        Sprt sprt = null;
+        if (!sprtOption.equals("none")) {
+            var values = sprtOption.split(",");
+            if (values.length != 4) {
+                throw new IllegalArgumentException("Invalid SPRT: " + sprtOption);
+            }
+            sprt = new Sprt(Double.parseDouble(values[0]), Double.parseDouble(values[1]),
+                    Double.parseDouble(values[2]), Double.parseDouble(values[3]));
+        }
+        var checkpointOption = options.getOrDefault("checkpoint", "none");
+
+        var tournament = new Tournament(entrants, format, games, threads, seed, maxPlies, sprt);
+        long nanos;
+        if (checkpointOption.equals("none")) {
+            nanos = tournament.run(null);
+        } else {
+            try (var checkpoint = Checkpoint.open(Path.of(checkpointOption), tournament.describe())) {
+                nanos = tournament.run(checkpoint);
+            }
+        }
+        tournament.printSummary(nanos);
+    }
+
+    private void printSummary(long nanos) {
+        System.out.printf("%.1f s%n", nanos / 1e9);
+        for (var pairing : pairings) {
+            System.out.printf("%s vs %s: +%d =%d -%d, elo %s, %s%n", entrants.get(pairing.first).name(),
+                    entrants.get(pairing.second).name(), pairing.getWins(), pairing.getDraws(), pairing.getLosses(),
+                    pairing.getElo(), pairing.getDecision());
+        }
+        for (int i = 0; i < entrants.size(); i++) {
+            long[] score = score(i);
+            System.out.printf("%-40s +%d =%d -%d, elo %s%n", entrants.get(i).name(), score[0], score[1], score[2], getElo(i));
+        }
+    }
+}
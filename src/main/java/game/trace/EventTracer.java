@@ -0,0 +1,266 @@
+package game.trace;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records fixed-size events into a preallocated ring buffer and drains them to
+ * a file on a background thread, so recording never allocates, formats text
+ * or waits for the disk.
+ * Any number of threads record at once: a thread claims a slot by advancing the
+ * head of the ring with a compare-and-set, fills it and publishes it with a
+ * release store of its sequence number. The drain thread copies published
+ * slots in order into a direct buffer, frees them by advancing the tail and
+ * writes the buffer through a file channel whenever it is full or the ring is
+ * empty. An event arriving while the ring is full is dropped and counted
+ * rather than blocking the caller.
+ * <p>
+ * The file starts with a {@value #HEADER_BYTES}-byte header: the magic number
+ * and the format version. It is followed by one {@value #RECORD_BYTES}-byte
+ * record per event: the time, the type, the thread and the two arguments.
+ * All numbers are little-endian. Traces are printed as text by {@link #main(String[])}.
+ */
+public final class EventTracer implements AutoCloseable {
+
+    /**
+     * Name of the trace file printed by default
+     */
+    public static final String DEFAULT_FILE = "trace.bin";
+
+    /**
+     * Magic number at the start of a trace file
+     */
+    public static final int MAGIC = 0x54545452;
+
+    /**
+     * Version of the format
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    public static final int HEADER_BYTES = 8;
+
+    /**
+     * Size of a record in bytes
+     */
+    public static final int RECORD_BYTES = 32;
+
+    /**
+     * Byte order of the file
+     */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Number of events the ring holds by default
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int FIELDS = 4;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] slots;
+    private final long[] sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+    private final LongAdder dropped = new LongAdder();
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(BYTE_ORDER);
+    private final Thread thread;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private EventTracer(FileChannel channel, int capacity) {
+        this.channel = channel;
+        slots = new long[capacity * FIELDS];
+        sequences = new long[capacity];
+        mask = capacity - 1;
+        thread = new Thread(this::drain, "trace-drain");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Creates a trace file with a ring of {@value #DEFAULT_CAPACITY} events, replacing the file if it exists.
+     *
+     * @param path the trace file
+     * @return the tracer
+     * @throws IOException if the file cannot be created
+     */
+    public static EventTracer open(Path path) throws IOException {
+        return open(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a trace file, replacing the file if it exists.
+     *
+     * @param path the trace file
+     * @param capacity the number of events the ring holds, a power of two
+     * @return the tracer
+     * @throws IOException if the file cannot be created
+     */
+    public static EventTracer open(Path path, int capacity) throws IOException {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        var header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        return new EventTracer(channel, capacity);
+    }
+
+    /**
+     * Records an event, or drops it if the ring is full or the tracer is closed.
+     * Never blocks and never allocates.
+     *
+     * @param type the kind of event
+     * @param a the first argument
+     * @param b the second argument
+     */
+    public void record(EventType type, long a, long b) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (closed || sequence - tail > mask) {
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+        int slot = (int) sequence & mask;
+        int base = slot * FIELDS;
+        slots[base] = System.nanoTime();
+        slots[base + 1] = (long) type.ordinal() << 32 | (Thread.currentThread().getId() & 0xFFFF_FFFFL);
+        slots[base + 2] = a;
+        slots[base + 3] = b;
+        SEQUENCES.setRelease(sequences, slot, sequence + 1);
+    }
+
+    /**
+     * @return the number of events dropped because the ring was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the number of events recorded so far, including those not yet written
+     */
+    public long getRecorded() {
+        return head.get();
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                long next = tail;
+                int slot = (int) next & mask;
+                if ((long) SEQUENCES.getAcquire(sequences, slot) == next + 1) {
+                    if (buffer.remaining() < RECORD_BYTES) {
+                        write();
+                    }
+                    int base = slot * FIELDS;
+                    buffer.putLong(slots[base]);
+                    buffer.putInt((int) (slots[base + 1] >>> 32));
+                    buffer.putInt((int) slots[base + 1]);
+                    buffer.putLong(slots[base + 2]);
+                    buffer.putLong(slots[base + 3]);
+                    tail = next + 1;
+                } else if (next == head.get()) {
+                    write();
+                    if (closed && next == head.get()) {
+                        return;
+                    }
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            closed = true;
+        }
+    }
+
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Stops recording, writes the events recorded so far and closes the file.
+     *
+     * @throws IOException if the file could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Reads every complete record of a trace file.
+     *
+     * @param path the trace file
+     * @return the events in the order they were recorded
+     * @throws IOException if the file cannot be read or is not a trace file
+     */
+    public static List<TraceEvent> read(Path path) throws IOException {
+        List<TraceEvent> events = new ArrayList<>();
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // reads the whole header
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a trace file: " + path);
+            }
+            var records = ByteBuffer.allocate(BUFFER_BYTES).order(BYTE_ORDER);
+            while (channel.read(records) >= 0 || records.position() >= RECORD_BYTES) {
+                records.flip();
+                while (records.remaining() >= RECORD_BYTES) {
+                    events.add(new TraceEvent(records.getLong(), EventType.of(records.getInt()), records.getInt(),
+                            records.getLong(), records.getLong()));
+                }
+                records.compact();
+            }
+        }
+        return events;
+    }
+
+    public static void main(String[] args) throws IOException {
+        for (var event : read(Path.of(args.length > 0 ? args[0] : DEFAULT_FILE))) {
+            System.out.println(event);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package game.trace;
+
+/**
+ * Kinds of traced events, with the meaning of their two arguments.
+ */
+public enum EventType {
+
+    /**
+     * A circle was moved: the cell it left and the cell it entered
+     */
+    MOVE_MADE,
+
+    /**
+     * A move completed a line: the cell of the circle moved and the winning side, 0 for blue and 1 for red
+     */
+    WIN_DETECTED,
+
+    /**
+     * An iteration of a search finished: the depth in the high and the score in the low 32 bits, and the nodes searched
+     */
+    SEARCH_ITERATION;
+
+    private static final EventType[] VALUES = values();
+
+    /**
+     * @param ordinal the ordinal of a type
+     * @return the type
+     * @throws IllegalArgumentException if there is no such type
+     */
+    public static EventType of(int ordinal) {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown event type: " + ordinal);
+        }
+        return VALUES[ordinal];
+    }
+
+    /**
+     * @param a the first argument of an event
+     * @param b the second argument of an event
+     * @return the arguments in words
+     */
+    public String describe(long a, long b) {
+        return switch (this) {
+            case MOVE_MADE -> "from " + a + " to " + b;
+            case WIN_DETECTED -> "at " + a + " by " + (b == 0 ? "BLUE" : "RED");
+            case SEARCH_ITERATION -> "depth " + (a >> 32) + " score " + (int) a + " nodes " + b;
+        };
+    }
+}
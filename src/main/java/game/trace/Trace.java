@@ -0,0 +1,87 @@
+package game.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Entry point of the hot paths into event tracing. Events are dropped at the
+ * cost of one volatile read while no {@link EventTracer} is installed, and
+ * recorded without allocating or blocking while one is.
+ */
+public final class Trace {
+
+    /**
+     * System property naming the trace file of the GUI and the command-line tools
+     */
+    public static final String FILE_PROPERTY = "game.trace";
+
+    private static volatile EventTracer tracer;
+
+    private Trace() {
+    }
+
+    /**
+     * Opens the file named by the {@value #FILE_PROPERTY} system property and installs a tracer writing to it.
+     *
+     * @return the tracer, empty if the property is not set
+     * @throws IOException if the file cannot be created
+     */
+    public static Optional<EventTracer> startFromProperty() throws IOException {
+        var file = System.getProperty(FILE_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return Optional.empty();
+        }
+        var started = EventTracer.open(Path.of(file));
+        install(started);
+        return Optional.of(started);
+    }
+
+    /**
+     * @param newTracer the tracer receiving the events from now on, or {@code null} to stop tracing
+     */
+    public static void install(EventTracer newTracer) {
+        tracer = newTracer;
+    }
+
+    /**
+     * @return true if events are recorded
+     */
+    public static boolean isEnabled() {
+        return tracer != null;
+    }
+
+    /**
+     * @param from the cell a circle left
+     * @param to the cell the circle entered
+     */
+    public static void moveMade(int from, int to) {
+        var current = tracer;
+        if (current != null) {
+            current.record(EventType.MOVE_MADE, from, to);
+        }
+    }
+
+    /**
+     * @param cell the cell of the circle that completed the line
+     * @param side the winning side, 0 for blue and 1 for red
+     */
+    public static void winDetected(int cell, int side) {
+        var current = tracer;
+        if (current != null) {
+            current.record(EventType.WIN_DETECTED, cell, side);
+        }
+    }
+
+    /**
+     * @param depth the depth of the iteration
+     * @param score the score of the iteration
+     * @param nodes the nodes searched so far
+     */
+    public static void searchIteration(int depth, int score, long nodes) {
+        var current = tracer;
+        if (current != null) {
+            current.record(EventType.SEARCH_ITERATION, (long) depth << 32 | (score & 0xFFFF_FFFFL), nodes);
+        }
+    }
+}
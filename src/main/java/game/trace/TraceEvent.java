@@ -0,0 +1,18 @@
+package game.trace;
+
+/**
+ * An event read back from a trace file.
+ *
+ * @param nanos the {@link System#nanoTime()} at which the event was recorded
+ * @param type the kind of event
+ * @param thread the id of the thread recording the event, truncated to 32 bits
+ * @param a the first argument, see {@link EventType}
+ * @param b the second argument, see {@link EventType}
+ */
+public record TraceEvent(long nanos, EventType type, int thread, long a, long b) {
+
+    @Override
+    public String toString() {
+        return nanos + " " + thread + " " + type + " " + type.describe(a, b);
+    }
+}
@@ -0,0 +1,55 @@
+package game.ai;
+
+import game.engine.BitBoard;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaBetaSearchTest {
+
+    AlphaBetaSearch search = new AlphaBetaSearch();
+
+    static int mask(int... cells) {
+        int mask = 0;
+        for (int i = 0; i < cells.length; i += 2) {
+            mask |= 1 << BitBoard.cellOf(cells[i], cells[i + 1]);
+        }
+        return mask;
+    }
+
+    @Test
+    void search_findsWinInOne() {
+        var board = new BitBoard(mask(0, 0, 1, 1, 3, 2, 4, 3), mask(0, 3, 4, 0, 2, 1, 3, 0), BitBoard.BLUE);
+        var result = search.search(board, 1000);
+        assertEquals(BitBoard.encodeMove(BitBoard.cellOf(3, 2), BitBoard.cellOf(2, 2)), result.bestMove());
+        assertEquals(AlphaBetaSearch.WIN - 1, result.score());
+        assertTrue(result.isDecisive());
+    }
+
+    @Test
+    void search_blocksWinInOne() {
+        var board = new BitBoard(mask(0, 0, 0, 2, 4, 1, 3, 1), mask(1, 0, 1, 1, 2, 2, 4, 0), BitBoard.BLUE);
+        var result = search.search(board, 1000, 4);
+        board.makeMove(result.bestMove());
+        assertNotEquals(0, board.getPieces(BitBoard.BLUE) & mask(1, 2));
+    }
+
+    @Test
+    void search_withoutMoves() {
+        var board = new BitBoard(mask(0, 0), mask(0, 1, 1, 0), BitBoard.BLUE);
+        var result = search.search(board, 1000);
+        assertEquals(-1, result.bestMove());
+        assertEquals(-AlphaBetaSearch.WIN, result.score());
+    }
+
+    @Test
+    void search_respectsTimeBudget() {
+        var board = BitBoard.initial();
+        long start = System.nanoTime();
+        var result = search.search(board, 200);
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+        assertTrue(board.isLegal(result.bestMove()));
+        assertTrue(result.depth() >= 1);
+        assertEquals(BitBoard.initial(), board);
+    }
+}
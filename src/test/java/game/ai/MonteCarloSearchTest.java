@@ -0,0 +1,74 @@
+package game.ai;
+
+import game.engine.BitBoard;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloSearchTest {
+
+    static int mask(int... cells) {
+        int mask = 0;
+        for (int i = 0; i < cells.length; i += 2) {
+            mask |= 1 << BitBoard.cellOf(cells[i], cells[i + 1]);
+        }
+        return mask;
+    }
+
+    @Test
+    void search_findsWinInOne() {
+        var board = new BitBoard(mask(0, 0, 1, 1, 3, 2, 4, 3), mask(0, 3, 4, 0, 2, 1, 3, 0), BitBoard.BLUE);
+        try (var search = new MonteCarloSearch(2)) {
+            var result = search.search(board, 10_000, 2000);
+            assertEquals(BitBoard.encodeMove(BitBoard.cellOf(3, 2), BitBoard.cellOf(2, 2)), result.bestMove());
+            assertEquals(1.0, result.winRate());
+        }
+    }
+
+    @Test
+    void search_withoutMoves() {
+        var board = new BitBoard(mask(0, 0, 0, 1, 0, 2, 0, 3), mask(1, 0, 1, 1, 1, 2, 1, 3), BitBoard.BLUE);
+        try (var search = new MonteCarloSearch(1)) {
+            assertEquals(-1, search.search(board, 1000, 100).bestMove());
+        }
+    }
+
+    @Test
+    void search_stopsAtPlayoutBudget() {
+        try (var search = new MonteCarloSearch(3)) {
+            var result = search.search(BitBoard.initial(), 60_000, 5000);
+            assertEquals(5000, result.playouts());
+            assertTrue(result.treeNodes() > 1);
+            assertTrue(BitBoard.initial().isLegal(result.bestMove()));
+        }
+    }
+
+    @Test
+    void search_isRepeatableOnOneThread() {
+        try (var first = new MonteCarloSearch(1); var second = new MonteCarloSearch(1)) {
+            first.setSeed(42);
+            second.setSeed(42);
+            var firstResult = first.search(BitBoard.initial(), 60_000, 3000);
+            var secondResult = second.search(BitBoard.initial(), 60_000, 3000);
+            assertEquals(firstResult.bestMove(), secondResult.bestMove());
+            assertEquals(firstResult.winRate(), secondResult.winRate());
+        }
+    }
+
+    @Test
+    void search_reusesTheTreeAfterTheReply() {
+        try (var search = new MonteCarloSearch(1)) {
+            var board = BitBoard.initial();
+            var result = search.search(board, 60_000, 20_000);
+            assertEquals(0, result.reusedVisits());
+            board.makeMove(result.bestMove());
+            int[] moves = new int[BitBoard.MAX_MOVES];
+            board.generateMoves(moves);
+            board.makeMove(moves[0]);
+            var next = search.search(board, 60_000, 1000);
+            assertTrue(next.reusedVisits() > 0);
+            search.clear();
+            assertEquals(0, search.search(board, 60_000, 1000).reusedVisits());
+        }
+    }
+}
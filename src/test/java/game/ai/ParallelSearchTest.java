@@ -0,0 +1,44 @@
+package game.ai;
+
+import game.engine.BitBoard;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSearchTest {
+
+    static int mask(int... cells) {
+        int mask = 0;
+        for (int i = 0; i < cells.length; i += 2) {
+            mask |= 1 << BitBoard.cellOf(cells[i], cells[i + 1]);
+        }
+        return mask;
+    }
+
+    @Test
+    void search_findsWinInOne() {
+        var board = new BitBoard(mask(0, 0, 1, 1, 3, 2, 4, 3), mask(0, 3, 4, 0, 2, 1, 3, 0), BitBoard.BLUE);
+        try (var search = new ParallelSearch(4, new TranspositionTable(1))) {
+            var result = search.search(board, 1000);
+            assertEquals(BitBoard.encodeMove(BitBoard.cellOf(3, 2), BitBoard.cellOf(2, 2)), result.bestMove());
+            assertEquals(AlphaBetaSearch.WIN - 1, result.score());
+        }
+    }
+
+    @Test
+    void search_agreesWithSingleThread() {
+        var board = BitBoard.initial();
+        var single = new AlphaBetaSearch(new TranspositionTable(1)).search(board, 10_000, 10);
+        try (var search = new ParallelSearch(3, new TranspositionTable(1))) {
+            var result = search.search(board, 10_000, 10);
+            assertTrue(result.depth() >= 10);
+            assertEquals(single.score(), result.score());
+            assertTrue(board.isLegal(result.bestMove()));
+        }
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(0));
+    }
+}
@@ -0,0 +1,67 @@
+package game.ai;
+
+import game.engine.BitBoard;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    TranspositionTable table = new TranspositionTable(1);
+
+    @Test
+    void store_probe() {
+        table.newSearch();
+        assertEquals(0, table.probe(42));
+        table.store(42, 0x123, -250, 7, TranspositionTable.BOUND_LOWER);
+        long entry = table.probe(42);
+        assertEquals(0x123, TranspositionTable.moveOf(entry));
+        assertEquals(-250, TranspositionTable.scoreOf(entry));
+        assertEquals(7, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.boundOf(entry));
+        assertEquals(0.5, table.getHitRate());
+    }
+
+    @Test
+    void store_withoutMove() {
+        table.store(42, -1, 0, 1, TranspositionTable.BOUND_UPPER);
+        assertEquals(-1, TranspositionTable.moveOf(table.probe(42)));
+        table.store(42, 0x55, 0, 2, TranspositionTable.BOUND_UPPER);
+        table.store(42, -1, 0, 3, TranspositionTable.BOUND_UPPER);
+        assertEquals(0x55, TranspositionTable.moveOf(table.probe(42)));
+    }
+
+    @Test
+    void store_keepsDeeperEntries() {
+        long buckets = table.capacity() / 4;
+        for (int i = 0; i < 4; i++) {
+            table.store(i * buckets, 1, 0, 10 + i, TranspositionTable.BOUND_EXACT);
+        }
+        table.store(4 * buckets, 1, 0, 1, TranspositionTable.BOUND_EXACT);
+        assertEquals(0, table.probe(0));
+        for (int i = 1; i <= 4; i++) {
+            assertNotEquals(0, table.probe(i * buckets));
+        }
+    }
+
+    @Test
+    void clear() {
+        table.store(42, 1, 0, 1, TranspositionTable.BOUND_EXACT);
+        assertTrue(table.getFillRate() > 0);
+        table.clear();
+        assertEquals(0, table.probe(42));
+        assertEquals(0, table.getFillRate());
+        assertEquals(0, table.getStores());
+    }
+
+    @Test
+    void search_withSharedTable() {
+        var search = new AlphaBetaSearch(table);
+        var board = BitBoard.initial();
+        var first = search.search(board, 10_000, 8);
+        var second = search.search(board, 10_000, 8);
+        assertEquals(first.score(), second.score());
+        assertTrue(second.nodes() < first.nodes());
+        assertTrue(table.getHits() > 0);
+    }
+}
@@ -0,0 +1,91 @@
+package game.book;
+
+import game.ai.BookPlayer;
+import game.ai.Player;
+import game.engine.BitBoard;
+import game.engine.Symmetry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    @TempDir
+    static Path directory;
+
+    static Path path;
+
+    static OpeningBook book;
+
+    @BeforeAll
+    static void generateBook() throws IOException {
+        path = directory.resolve("book.bin");
+        int count = new BookGenerator(4, 4, 2, 1).generate(path);
+        book = OpeningBook.open(path);
+        assertEquals(count, book.size());
+        assertEquals(OpeningBook.HEADER_BYTES + count * (Long.BYTES + Short.BYTES), Files.size(path));
+    }
+
+    @Test
+    void generate_coversTheSamePositionsWithAnyThreadCount() throws IOException {
+        var singleThreaded = directory.resolve("single.bin");
+        new BookGenerator(4, 4, 1, 1).generate(singleThreaded);
+        int hashesEnd = OpeningBook.HEADER_BYTES + book.size() * Long.BYTES;
+        assertArrayEquals(Arrays.copyOf(Files.readAllBytes(path), hashesEnd),
+                Arrays.copyOf(Files.readAllBytes(singleThreaded), hashesEnd));
+    }
+
+    @Test
+    void lookup_returnsTheSameMoveForEverySymmetricPosition() {
+        var board = BitBoard.initial();
+        board.makeMove(firstMove(board));
+        int move = book.lookup(board);
+        assertTrue(board.isLegal(move));
+        for (int transform = 0; transform < Symmetry.COUNT; transform++) {
+            var image = Symmetry.transform(transform, board);
+            assertEquals(Symmetry.transformMove(transform, move), book.lookup(image), image.toString());
+        }
+    }
+
+    @Test
+    void lookup_missesPositionsOutsideTheBook() {
+        var board = new BitBoard(0b1011, 0b1011 << 16, BitBoard.BLUE);
+        assertEquals(-1, book.lookup(board));
+    }
+
+    @Test
+    void bookPlayer_searchesOnlyOutsideTheBook() {
+        int[] searched = new int[1];
+        Player fallback = position -> {
+            searched[0]++;
+            return firstMove(position);
+        };
+        var player = new BookPlayer(book, fallback);
+        assertEquals(book.lookup(BitBoard.initial()), player.chooseMove(BitBoard.initial()));
+        assertEquals(0, searched[0]);
+        var outside = new BitBoard(0b1011, 0b1011 << 16, BitBoard.BLUE);
+        assertEquals(firstMove(outside), player.chooseMove(outside));
+        assertEquals(1, searched[0]);
+    }
+
+    @Test
+    void open_rejectsOtherFiles() throws IOException {
+        var other = directory.resolve("other.bin");
+        Files.write(other, new byte[OpeningBook.HEADER_BYTES]);
+        assertThrows(IOException.class, () -> OpeningBook.open(other));
+        assertTrue(OpeningBook.openIfExists(directory.resolve("missing.bin")).isEmpty());
+    }
+
+    private static int firstMove(BitBoard board) {
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        board.generateMoves(moves);
+        return moves[0];
+    }
+}
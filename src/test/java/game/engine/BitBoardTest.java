@@ -0,0 +1,98 @@
+package game.engine;
+
+import game.model.CircleType;
+import game.model.Direction;
+import game.model.GameModel;
+import game.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+    BitBoard board = BitBoard.initial();
+
+    @Test
+    void initial() {
+        assertEquals(0b1010_0000_0000_0000_0101, board.getPieces(CircleType.BLUE));
+        assertEquals(0b0101_0000_0000_0000_1010, board.getPieces(CircleType.RED));
+        assertEquals(BitBoard.BLUE, board.getSideToMove());
+        var model = new GameModel();
+        if (model.getPlayerTurn() % 2 != 0) {
+            model.increasePlayerTurn();
+        }
+        assertEquals(BitBoard.of(model), board);
+    }
+
+    @Test
+    void generateMoves() {
+        var model = new GameModel();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < model.getCircleCount(); i++) {
+            if (model.getCircleType(i) == CircleType.BLUE) {
+                var from = model.getCirclePosition(i);
+                for (var direction : model.getValidMoves(i)) {
+                    expected.add(BitBoard.encodeMove(BitBoard.cellOf(from), BitBoard.cellOf(from.getPositionAt(direction))));
+                }
+            }
+        }
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        int count = board.generateMoves(moves);
+        Set<Integer> actual = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            actual.add(moves[i]);
+            assertTrue(board.isLegal(moves[i]));
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void makeMove_unmakeMove() {
+        var copy = new BitBoard(board);
+        int move = BitBoard.encodeMove(BitBoard.cellOf(0, 0), BitBoard.cellOf(1, 0));
+        board.makeMove(move);
+        assertEquals(BitBoard.RED, board.getSideToMove());
+        assertNotEquals(copy, board);
+        assertFalse(board.isLegal(move));
+        board.unmakeMove(move);
+        assertEquals(copy, board);
+    }
+
+    @Test
+    void getHash() {
+        long initialHash = board.getHash();
+        int move = BitBoard.encodeMove(BitBoard.cellOf(0, 0), BitBoard.cellOf(1, 0));
+        board.makeMove(move);
+        assertNotEquals(initialHash, board.getHash());
+        assertEquals(Zobrist.hash(board.getPieces(BitBoard.BLUE), board.getPieces(BitBoard.RED), BitBoard.RED), board.getHash());
+        board.unmakeMove(move);
+        assertEquals(initialHash, board.getHash());
+        var model = new GameModel();
+        assertEquals(Zobrist.hash(model), BitBoard.of(model).getHash());
+    }
+
+    @Test
+    void hasMoves() {
+        assertTrue(board.hasMoves());
+        int blue = 1 << BitBoard.cellOf(0, 0);
+        int red = 1 << BitBoard.cellOf(0, 1) | 1 << BitBoard.cellOf(1, 0);
+        assertFalse(new BitBoard(blue, red, BitBoard.BLUE).hasMoves());
+    }
+
+    @Test
+    void directionOf() {
+        int from = BitBoard.cellOf(2, 1);
+        assertSame(Direction.UP, BitBoard.directionOf(BitBoard.encodeMove(from, BitBoard.cellOf(1, 1))));
+        assertSame(Direction.LEFT, BitBoard.directionOf(BitBoard.encodeMove(from, BitBoard.cellOf(2, 0))));
+        assertEquals(new Position(2, 1), BitBoard.positionOf(from));
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BitBoard(1, 1, BitBoard.BLUE));
+        assertThrows(IllegalArgumentException.class, () -> new BitBoard(1 << BitBoard.CELLS, 0, BitBoard.BLUE));
+    }
+}
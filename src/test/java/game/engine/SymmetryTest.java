@@ -0,0 +1,69 @@
+package game.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetryTest {
+
+    BitBoard board = new BitBoard(0b0000_0000_0001_0010_0011, 0b1000_0100_0000_0000_0000, BitBoard.BLUE);
+
+    @Test
+    void transform_isInvolution() {
+        for (int transform = 0; transform < Symmetry.COUNT; transform++) {
+            assertEquals(board, Symmetry.transform(transform, Symmetry.transform(transform, board)));
+        }
+    }
+
+    @Test
+    void transformCell() {
+        assertEquals(BitBoard.cellOf(0, 3), Symmetry.transformCell(1, BitBoard.cellOf(0, 0)));
+        assertEquals(BitBoard.cellOf(4, 0), Symmetry.transformCell(2, BitBoard.cellOf(0, 0)));
+        assertEquals(BitBoard.cellOf(3, 2), Symmetry.transformCell(3, BitBoard.cellOf(1, 1)));
+    }
+
+    @Test
+    void canonical_isSharedByAllImages() {
+        var canonical = Symmetry.canonical(board);
+        Set<BitBoard> images = new HashSet<>();
+        for (int transform = 0; transform < Symmetry.COUNT; transform++) {
+            var image = Symmetry.transform(transform, board);
+            images.add(image);
+            assertEquals(canonical, Symmetry.canonical(image));
+            assertEquals(Symmetry.canonicalKey(board), Symmetry.canonicalKey(image));
+        }
+        assertEquals(Symmetry.COUNT, images.size());
+        assertEquals(Symmetry.IDENTITY, Symmetry.canonicalTransform(canonical));
+    }
+
+    @Test
+    void initial_isSymmetricUnderColourSwap() {
+        var initial = BitBoard.initial();
+        var swapped = Symmetry.transform(5, initial);
+        assertEquals(initial.getPieces(BitBoard.BLUE), swapped.getPieces(BitBoard.BLUE));
+        assertEquals(initial.getPieces(BitBoard.RED), swapped.getPieces(BitBoard.RED));
+        assertEquals(BitBoard.RED, swapped.getSideToMove());
+    }
+
+    @Test
+    void transformMove() {
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        int count = board.generateMoves(moves);
+        for (int transform = 0; transform < Symmetry.COUNT; transform++) {
+            var image = Symmetry.transform(transform, board);
+            for (int i = 0; i < count; i++) {
+                int imageMove = Symmetry.transformMove(transform, moves[i]);
+                assertTrue(image.isLegal(imageMove));
+                assertEquals(moves[i], Symmetry.transformMove(transform, imageMove));
+                var after = new BitBoard(board);
+                after.makeMove(moves[i]);
+                image.makeMove(imageMove);
+                assertEquals(Symmetry.transform(transform, after), image);
+                image.unmakeMove(imageMove);
+            }
+        }
+    }
+}
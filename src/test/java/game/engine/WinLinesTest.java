@@ -0,0 +1,57 @@
+package game.engine;
+
+import game.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WinLinesTest {
+
+    static int mask(int... cells) {
+        int mask = 0;
+        for (int i = 0; i < cells.length; i += 2) {
+            mask |= 1 << BitBoard.cellOf(cells[i], cells[i + 1]);
+        }
+        return mask;
+    }
+
+    @Test
+    void count() {
+        assertEquals(34, WinLines.count());
+    }
+
+    @Test
+    void winningLine() {
+        assertEquals(mask(0, 0, 1, 1, 2, 2), WinLines.winningLine(mask(0, 0, 1, 1, 2, 2, 0, 1)));
+        assertEquals(mask(1, 1, 1, 2, 1, 3), WinLines.winningLine(mask(1, 1, 4, 3, 1, 2, 1, 3)));
+        assertEquals(mask(4, 0, 3, 0, 2, 0), WinLines.winningLine(mask(4, 0, 3, 1, 3, 0, 2, 0)));
+        assertEquals(mask(2, 1, 3, 2, 4, 3), WinLines.winningLine(mask(2, 1, 3, 2, 4, 3, 0, 0)));
+        assertEquals(0, WinLines.winningLine(mask(0, 0, 0, 1, 0, 3, 1, 2)));
+        assertEquals(0, WinLines.winningLine(mask(0, 0, 2, 0, 4, 0, 1, 1)));
+    }
+
+    @Test
+    void winningLine_throughCell() {
+        int pieces = mask(1, 0, 1, 1, 1, 2, 4, 3);
+        assertEquals(mask(1, 0, 1, 1, 1, 2), WinLines.winningLine(pieces, BitBoard.cellOf(1, 2)));
+        assertEquals(0, WinLines.winningLine(pieces, BitBoard.cellOf(4, 3)));
+    }
+
+    @Test
+    void winningLine_afterMove() {
+        var board = new BitBoard(mask(0, 0, 1, 1, 3, 2), mask(0, 3, 4, 0), BitBoard.BLUE);
+        int move = BitBoard.encodeMove(BitBoard.cellOf(3, 2), BitBoard.cellOf(2, 2));
+        board.makeMove(move);
+        assertEquals(mask(0, 0, 1, 1, 2, 2), board.winningLine(move));
+        assertTrue(board.hasLine(BitBoard.BLUE));
+        assertFalse(board.hasLine(BitBoard.RED));
+    }
+
+    @Test
+    void toPositions() {
+        assertEquals(List.of(new Position(0, 0), new Position(1, 1), new Position(2, 2)),
+                WinLines.toPositions(mask(2, 2, 0, 0, 1, 1)));
+    }
+}
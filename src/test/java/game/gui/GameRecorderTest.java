@@ -0,0 +1,62 @@
+package game.gui;
+
+import game.history.GameRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRecorderTest {
+
+    @Test
+    void flush_writesOnlyTheResultLeftAfterUndo() {
+        List<GameRecord> records = new ArrayList<>();
+        var recorder = new GameRecorder(records::add);
+        var blueWins = new GameRecord("Blue", "Red", "2024-01-01", new int[]{1, 2, 3});
+        var redWins = new GameRecord("Red", "Blue", "2024-01-01", new int[]{1, 2, 4, 5});
+        recorder.finish(blueWins);
+        recorder.takeBack();
+        recorder.finish(blueWins);
+        recorder.takeBack();
+        recorder.finish(redWins);
+        recorder.flush();
+        recorder.flush();
+        assertEquals(List.of(redWins), records);
+    }
+
+    @Test
+    void flush_withoutResult() {
+        List<GameRecord> records = new ArrayList<>();
+        var recorder = new GameRecorder(records::add);
+        recorder.flush();
+        recorder.finish(new GameRecord("Blue", "Red", "2024-01-01", new int[]{1}));
+        recorder.takeBack();
+        recorder.flush();
+        assertEquals(List.of(), records);
+    }
+
+    @Test
+    void flush_dropsAResultThatCannotBeWritten() {
+        List<GameRecord> records = new ArrayList<>();
+        var failing = new boolean[]{true};
+        var recorder = new GameRecorder(record -> {
+            if (failing[0]) {
+                throw new UncheckedIOException(new IOException("No space left on device"));
+            }
+            records.add(record);
+        });
+        recorder.finish(new GameRecord("Blue", "Red", "2024-01-01", new int[]{1}));
+        assertDoesNotThrow(recorder::flush);
+        failing[0] = false;
+        recorder.flush();
+        assertEquals(List.of(), records);
+        var next = new GameRecord("Red", "Blue", "2024-01-02", new int[]{2});
+        recorder.finish(next);
+        recorder.flush();
+        assertEquals(List.of(next), records);
+    }
+}
@@ -0,0 +1,25 @@
+package game.gui;
+
+import game.model.Direction;
+import game.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObservableGameModelTest {
+
+    @Test
+    void positionProperty_followsMoves() {
+        var model = new ObservableGameModel();
+        List<Position> changes = new ArrayList<>();
+        model.positionProperty(0).addListener((observable, oldPosition, newPosition) -> changes.add(newPosition));
+        assertEquals(new Position(0, 0), model.positionProperty(0).get());
+        model.move(0, Direction.DOWN);
+        assertEquals(new Position(1, 0), model.positionProperty(0).get());
+        assertEquals(List.of(new Position(1, 0)), changes);
+        assertEquals(new Position(0, 1), model.positionProperty(1).get());
+    }
+}
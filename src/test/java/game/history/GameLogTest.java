@@ -0,0 +1,109 @@
+package game.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static GameRecord game(int number) {
+        return new GameRecord("Blue " + number, "Red " + number, "2022-05-01", new int[]{number % 256, 7, 12, 255});
+    }
+
+    private static void assertSameGame(GameRecord expected, GameRecord actual) {
+        assertEquals(expected.winner(), actual.winner());
+        assertEquals(expected.loser(), actual.loser());
+        assertEquals(expected.date(), actual.date());
+        assertArrayEquals(expected.moves(), actual.moves());
+    }
+
+    @Test
+    void append_roundTripsThroughReadAll() throws Exception {
+        var file = directory.resolve("games.log");
+        try (var writer = GameLogWriter.open(file, 0, 0)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.append(game(i));
+            }
+            writer.flush().get(10, TimeUnit.SECONDS);
+            assertEquals(1000, GameLog.readAll(file).size());
+        }
+        try (var writer = GameLogWriter.open(file)) {
+            writer.append(new GameRecord("Kovács Éva", "Nagy Péter", "2022-05-02", new int[0]));
+        }
+        var games = GameLog.readAll(file);
+        assertEquals(1001, games.size());
+        for (int i = 0; i < 1000; i++) {
+            assertSameGame(game(i), games.get(i));
+        }
+        assertEquals("Kovács Éva", games.get(1000).winner());
+        assertEquals(0, games.get(1000).moves().length);
+    }
+
+    @Test
+    void open_cutsOffATornRecord() throws IOException {
+        var file = directory.resolve("games.log");
+        try (var writer = GameLogWriter.open(file)) {
+            writer.append(game(1));
+            writer.append(game(2));
+        }
+        long size = Files.size(file);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+        assertEquals(1, GameLog.readAll(file).size());
+
+        try (var writer = GameLogWriter.open(file)) {
+            writer.append(game(3));
+        }
+        var games = GameLog.readAll(file);
+        assertEquals(2, games.size());
+        assertSameGame(game(1), games.get(0));
+        assertSameGame(game(3), games.get(1));
+    }
+
+    @Test
+    void readAll_stopsAtACorruptRecord() throws IOException {
+        var file = directory.resolve("games.log");
+        try (var writer = GameLogWriter.open(file)) {
+            writer.append(game(1));
+            writer.append(game(2));
+        }
+        var bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 6] ^= 1;
+        Files.write(file, bytes);
+        assertEquals(1, GameLog.readAll(file).size());
+    }
+
+    @Test
+    void open_rejectsAnotherFile() throws IOException {
+        var file = directory.resolve("data.json");
+        Files.writeString(file, "{\"winner\" : \"Blue\"}");
+        assertThrows(IOException.class, () -> GameLogWriter.open(file));
+        assertTrue(GameLog.readAll(directory.resolve("missing.log")).isEmpty());
+    }
+
+    @Test
+    void append_rejectsMovesOutsideOneByte() {
+        var record = new GameRecord("Blue", "Red", "2022-05-01", new int[]{256});
+        assertThrows(IllegalArgumentException.class, () -> GameLog.recordBytes(record));
+    }
+
+    @Test
+    void append_failsAfterClose() throws IOException {
+        var writer = GameLogWriter.open(directory.resolve("games.log"));
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.append(game(1)));
+        assertTrue(writer.flush().isDone());
+    }
+}
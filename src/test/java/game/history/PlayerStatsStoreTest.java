@@ -0,0 +1,103 @@
+package game.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStatsStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static GameRecord game(String winner, String loser) {
+        return new GameRecord(winner, loser, "2022-05-01", new int[]{1, 2, 3});
+    }
+
+    private Path log(List<GameRecord> games) throws IOException {
+        var log = directory.resolve("games.log");
+        try (var writer = GameLogWriter.open(log)) {
+            games.forEach(writer::append);
+        }
+        return log;
+    }
+
+    @Test
+    void record_updatesWinsStreaksAndHeadToHead() throws IOException {
+        var store = PlayerStatsStore.open(directory.resolve("players.idx"), directory.resolve("games.log"));
+        store.record(game("Anna", "Bob"));
+        store.record(game("Anna", "Bob"));
+        store.record(game("Anna", "Cecil"));
+        store.record(game("Bob", "Anna"));
+
+        var anna = store.get("Anna").orElseThrow();
+        assertEquals(3, anna.wins());
+        assertEquals(1, anna.losses());
+        assertEquals(-1, anna.streak());
+        assertEquals(3, anna.longestWinStreak());
+        assertEquals(new PlayerStats.HeadToHead(2, 1), anna.against("Bob"));
+        assertEquals(new PlayerStats.HeadToHead(1, 0), anna.against("Cecil"));
+        assertEquals(new PlayerStats.HeadToHead(0, 0), anna.against("Dora"));
+        assertEquals(1, store.get("Bob").orElseThrow().streak());
+        assertTrue(store.get("Dora").isEmpty());
+
+        assertEquals(List.of("Anna", "Bob", "Cecil"), store.leaderboard(5).stream().map(PlayerStats::name).toList());
+        assertEquals(1, store.leaderboard(1).size());
+    }
+
+    @Test
+    void gamesAgainstThemselves_areNotCounted() throws IOException {
+        var log = log(List.of(game("Anna", "Bob"), game("Blue", "Blue")));
+        var store = PlayerStatsStore.open(directory.resolve("players.idx"), log);
+        store.record(game("Anna", "Anna"));
+        store.record(game(null, ""));
+        assertEquals(2, store.size());
+        assertTrue(store.get("Blue").isEmpty());
+        var anna = store.get("Anna").orElseThrow();
+        assertEquals(1, anna.wins());
+        assertEquals(0, anna.losses());
+        assertEquals(1, anna.streak());
+        assertEquals(new PlayerStats.HeadToHead(0, 0), anna.against("Anna"));
+    }
+
+    @Test
+    void open_loadsTheSavedIndexAndReplaysNewerGames() throws IOException {
+        var games = List.of(game("Anna", "Bob"), game("Bob", "Cecil"), game("Anna", "Cecil"));
+        var log = log(games);
+        var index = directory.resolve("players.idx");
+        var store = PlayerStatsStore.open(index, log);
+        assertEquals(3, store.size());
+        store.save();
+
+        try (var writer = GameLogWriter.open(log)) {
+            var game = game("Cecil", "Anna");
+            writer.append(game);
+            store.record(game);
+        }
+        var reopened = PlayerStatsStore.open(index, log);
+        assertEquals(store.leaderboard(10), reopened.leaderboard(10));
+        assertEquals(new PlayerStats.HeadToHead(1, 1), reopened.get("Anna").orElseThrow().against("Cecil"));
+
+        reopened.save();
+        assertEquals(store.leaderboard(10), PlayerStatsStore.open(index, log).leaderboard(10));
+    }
+
+    @Test
+    void open_rebuildsADamagedIndex() throws IOException {
+        var log = log(List.of(game("Anna", "Bob"), game("Anna", "Bob")));
+        var index = directory.resolve("players.idx");
+        PlayerStatsStore.open(index, log).save();
+        var bytes = Files.readAllBytes(index);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(index, bytes);
+
+        var store = PlayerStatsStore.open(index, log);
+        assertEquals(2, store.get("Anna").orElseThrow().wins());
+        assertEquals(-2, store.get("Bob").orElseThrow().streak());
+    }
+}
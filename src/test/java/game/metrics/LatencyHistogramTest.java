@@ -0,0 +1,55 @@
+package game.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketOf_isExactForSmallValues() {
+        for (int value = 0; value < 2 * LatencyHistogram.SUB_BUCKETS; value++) {
+            assertEquals(value, LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(value)));
+        }
+    }
+
+    @Test
+    void upperBoundOf_boundsEveryValueWithinThreePercent() {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 2; value = value * 3 + 1) {
+            long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(value));
+            assertTrue(upperBound >= value);
+            assertTrue(upperBound - value <= value / LatencyHistogram.SUB_BUCKETS);
+        }
+    }
+
+    @Test
+    void getValueAtPercentile() {
+        var histogram = new LatencyHistogram();
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500, histogram.getSum());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean());
+        assertEquals(500, histogram.getValueAtPercentile(50), 500 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(990, histogram.getValueAtPercentile(99), 990 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void add() {
+        var first = new LatencyHistogram();
+        var second = new LatencyHistogram();
+        first.record(10);
+        second.record(20);
+        second.record(30);
+        first.add(second);
+        assertEquals(3, first.getCount());
+        assertEquals(60, first.getSum());
+        assertEquals(30, first.getMax());
+        first.reset();
+        assertEquals(0, first.getCount());
+        assertEquals(0, first.getValueAtPercentile(50));
+    }
+}
@@ -0,0 +1,90 @@
+package game.metrics;
+
+import game.model.Direction;
+import game.model.GameModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void metrics_areCreatedOncePerName() {
+        var registry = new MetricsRegistry();
+        var counter = registry.counter("moves_total", "Moves");
+        assertSame(counter, registry.counter("moves_total", "Moves"));
+        assertSame(registry.histogram("latency_nanoseconds", "Latency"), registry.histogram("latency_nanoseconds", "Latency"));
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("moves_total", "Moves"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("Moves Total", "Moves"));
+    }
+
+    @Test
+    void toPrometheus_writesEveryKindOfMetric() {
+        var registry = new MetricsRegistry();
+        registry.counter("moves_total", "Moves made").add(42);
+        registry.gauge("hit_rate", "Hit rate", () -> 0.25);
+        var histogram = registry.histogram("latency_nanoseconds", "Move latency");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        var text = registry.toPrometheus();
+        assertTrue(text.contains("# HELP moves_total Moves made\n# TYPE moves_total counter\nmoves_total 42\n"), text);
+        assertTrue(text.contains("# TYPE hit_rate gauge\nhit_rate 0.25\n"), text);
+        assertTrue(text.contains("# TYPE latency_nanoseconds summary\n"), text);
+        assertTrue(text.contains("latency_nanoseconds{quantile=\"0.5\"} 50\n"), text);
+        assertTrue(text.contains("latency_nanoseconds_sum 5050\nlatency_nanoseconds_count 100\n"), text);
+        assertTrue(text.indexOf("hit_rate") < text.indexOf("latency_nanoseconds") && text.indexOf("latency_nanoseconds") < text.indexOf("moves_total"));
+    }
+
+    @Test
+    void exposeOverJmx_registersExistingAndNewMetrics() throws Exception {
+        var registry = new MetricsRegistry();
+        var server = MBeanServerFactory.newMBeanServer();
+        registry.counter("moves_total", "Moves").add(3);
+        registry.exposeOverJmx(server);
+        registry.histogram("latency_nanoseconds", "Latency").record(1000);
+        assertEquals(3L, server.getAttribute(new ObjectName("game:type=Counter,name=moves_total"), "Count"));
+        var histogram = new ObjectName("game:type=LatencyHistogram,name=latency_nanoseconds");
+        assertEquals(1L, server.getAttribute(histogram, "Count"));
+        assertTrue((long) server.getAttribute(histogram, "P99") >= 1000 * 0.97);
+        registry.unexposeOverJmx();
+        assertFalse(server.isRegistered(histogram));
+    }
+
+    @Test
+    void prometheusDump_replacesTheFile() throws Exception {
+        var registry = new MetricsRegistry();
+        var counter = registry.counter("moves_total", "Moves");
+        var path = directory.resolve("metrics.prom");
+        try (var dump = PrometheusDump.start(registry, path, 60_000)) {
+            counter.increment();
+            dump.dump();
+            assertTrue(Files.readString(path).contains("moves_total 1\n"));
+            counter.increment();
+        }
+        assertTrue(Files.readString(path).contains("moves_total 2\n"));
+        assertFalse(Files.exists(directory.resolve("metrics.prom.tmp")));
+    }
+
+    @Test
+    void gameModel_countsMovesAndWinChecks() {
+        var moves = MetricsRegistry.global().counter("game_model_moves_total", "Moves made on game models");
+        var winChecks = MetricsRegistry.global().counter("game_model_win_checks_total", "Win checks on game models");
+        var model = new GameModel();
+        long movesBefore = moves.getCount();
+        long winChecksBefore = winChecks.getCount();
+        model.move(0, Direction.DOWN);
+        model.isLastMoveWin();
+        assertTrue(moves.getCount() >= movesBefore + 1);
+        assertTrue(winChecks.getCount() >= winChecksBefore + 1);
+    }
+}
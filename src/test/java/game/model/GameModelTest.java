@@ -2,6 +2,9 @@ package game.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -56,6 +59,8 @@ public class GameModelTest {
         assertFalse(model1.checkColWin(new Position(0,0), new Position(1,0), new Position(3,0)));
         assertTrue(model1.checkColWin(new Position(0,1), new Position(1,1), new Position(2,1)));
         assertTrue(model1.checkColWin(new Position(1,4), new Position(2,4), new Position(3,4)));
+        assertFalse(model1.checkColWin(new Position(0,2), new Position(2,2), new Position(4,2)));
+        assertFalse(model1.isWin(List.of(new Position(0, 2), new Position(2, 2), new Position(4, 2))));
     }
 
     @Test
@@ -69,4 +74,202 @@ public class GameModelTest {
         List<Position> positions3 = new ArrayList<>(Arrays.asList(new Position(0, 1), new Position(5, 2), new Position(0, 3), new Position(0, 4)));
         assertFalse(model1.diagWins(positions3));
     }
+
+    @Test
+    void generateMoves() {
+        var model = new GameModel();
+        while (model.getPlayerTurn() % 2 != 0) {
+            model.increasePlayerTurn();
+        }
+        int[] moves = new int[model.getCircleCount() * GameModel.DIRECTION_COUNT];
+        int count = model.generateMoves(moves);
+        assertEquals(4, count);
+        for (int i = 0; i < count; i++) {
+            int circleID = GameModel.moveCircleID(moves[i]);
+            assertEquals(CircleType.BLUE, model.getCircleType(circleID));
+            assertTrue(model.isValidMove(circleID, GameModel.moveDirection(moves[i])));
+            assertTrue(model.getValidMoves(circleID).contains(GameModel.moveDirection(moves[i])));
+        }
+        assertEquals(1, model.generateMoves(0, moves));
+        assertEquals(GameModel.encodeMove(0, Direction.DOWN), moves[0]);
+    }
+
+    @Test
+    void move_updatesCircleLookup() {
+        var model = new GameModel();
+        assertEquals(0, model.getCircleID(new Position(0, 0)).getAsInt());
+        model.makeMove(GameModel.encodeMove(0, Direction.DOWN));
+        assertTrue(model.getCircleID(new Position(0, 0)).isEmpty());
+        assertEquals(0, model.getCircleID(new Position(1, 0)).getAsInt());
+        assertEquals(4, model.getCircleCell(0));
+        assertEquals(0, model.getCircleIDAt(4));
+        assertEquals(-1, model.getCircleIDAt(0));
+        assertSame(Position.of(1, 0), model.getCirclePosition(0));
+        assertThrows(IllegalArgumentException.class, () -> model.move(1, Direction.UP));
+        assertThrows(IllegalArgumentException.class, () -> model.move(1, Direction.RIGHT));
+    }
+
+    @Test
+    void move_notifiesListeners() {
+        var model = new GameModel();
+        List<String> moves = new ArrayList<>();
+        MoveListener listener = (circleID, oldPosition, newPosition) -> moves.add(circleID + ":" + oldPosition + "->" + newPosition);
+        model.addMoveListener(listener);
+        model.move(0, Direction.DOWN);
+        model.removeMoveListener(listener);
+        model.move(0, Direction.UP);
+        assertEquals(List.of("0:(0,0)->(1,0)"), moves);
+    }
+
+    /**
+     * The model is used by headless tools, so its classes may only import the
+     * JDK and the packages listed here, not JavaFX.
+     */
+    @Test
+    void modelImportsOnlyAllowedPackages() throws IOException {
+        var allowed = List.of("java.", "game.model.", "game.metrics.", "game.trace.");
+        List<Path> sources;
+        try (var files = Files.list(Path.of("src/main/java/game/model"))) {
+            sources = files.filter(file -> file.toString().endsWith(".java")).toList();
+        }
+        assertTrue(sources.contains(Path.of("src/main/java/game/model/GameModel.java")));
+        for (var source : sources) {
+            for (var line : Files.readAllLines(source)) {
+                if (line.startsWith("import ")) {
+                    var name = line.substring("import ".length()).replace("static ", "").strip();
+                    assertTrue(allowed.stream().anyMatch(name::startsWith), source + ": " + line);
+                }
+            }
+        }
+    }
+
+    @Test
+    void unmakeMove_andRedoMove() {
+        var model = new GameModel();
+        var start = model.toString();
+        model.makeMove(GameModel.encodeMove(0, Direction.DOWN));
+        model.makeMove(GameModel.encodeMove(1, Direction.DOWN));
+        var afterTwoMoves = model.toString();
+        assertEquals(2, model.getMoveCount());
+        assertEquals(GameModel.encodeMove(1, Direction.DOWN), model.unmakeMove());
+        assertEquals(GameModel.encodeMove(0, Direction.DOWN), model.unmakeMove());
+        assertEquals(start, model.toString());
+        assertFalse(model.canUndo());
+        assertThrows(IllegalStateException.class, model::unmakeMove);
+        assertTrue(model.canRedo());
+        model.redoMove();
+        model.redoMove();
+        assertFalse(model.canRedo());
+        assertEquals(afterTwoMoves, model.toString());
+        model.unmakeMove();
+        model.makeMove(GameModel.encodeMove(2, Direction.DOWN));
+        assertFalse(model.canRedo());
+        assertThrows(IllegalStateException.class, model::redoMove);
+    }
+
+    @Test
+    void snapshot_isNotAffectedByLaterMoves() {
+        var model = new GameModel();
+        model.makeMove(GameModel.encodeMove(0, Direction.DOWN));
+        var snapshot = model.snapshot();
+        model.makeMove(GameModel.encodeMove(1, Direction.DOWN));
+        model.unmakeMove();
+        model.unmakeMove();
+        model.makeMove(GameModel.encodeMove(2, Direction.DOWN));
+        assertEquals(1, snapshot.getMoveCount());
+        assertEquals(GameModel.encodeMove(0, Direction.DOWN), snapshot.getMove(0));
+        assertEquals(new Position(1, 0), snapshot.getCirclePosition(0));
+        assertEquals(new Position(0, 2), snapshot.getCirclePosition(2));
+        assertEquals(-1, snapshot.getCircleIDAt(0));
+        assertEquals(model.getPlayerTurn(), snapshot.getPlayerTurn());
+
+        var fork = new GameModel(snapshot);
+        fork.makeMove(GameModel.encodeMove(3, Direction.DOWN));
+        assertEquals(new Position(0, 3), snapshot.getCirclePosition(3));
+        assertEquals(new Position(1, 3), fork.getCirclePosition(3));
+        assertEquals(new Position(0, 3), model.getCirclePosition(3));
+        assertEquals(GameModel.encodeMove(3, Direction.DOWN), fork.unmakeMove());
+        assertEquals(GameModel.encodeMove(0, Direction.DOWN), fork.unmakeMove());
+        assertEquals(1, snapshot.getMoveCount());
+    }
+
+    @Test
+    void standardRules_matchTheOriginalStarterState() {
+        var model = new GameModel(GameRules.STANDARD);
+        assertEquals("[BLUE(0,0),RED(0,1),BLUE(0,2),RED(0,3),BLUE(4,1),RED(4,0),BLUE(4,3),RED(4,2)]", model.toString());
+        assertEquals(model.toString(), new GameModel().toString());
+        assertSame(GameRules.STANDARD, model.getRules());
+    }
+
+    @Test
+    void gameRules_rejectImpossibleVariants() {
+        assertThrows(IllegalArgumentException.class, () -> new GameRules(2, 4, 5, 3));
+        assertThrows(IllegalArgumentException.class, () -> new GameRules(5, 4, 4, 6));
+        assertThrows(IllegalArgumentException.class, () -> new GameRules(5, 4, 2, 3));
+        assertEquals(32, new GameRules(32, 32, 16, 5).initialCircles().length);
+    }
+
+    @Test
+    void isWinAt_onLargeBoard() {
+        var rules = new GameRules(32, 32, 16, 5);
+        var model = new GameModel(rules);
+        assertEquals(32, model.getCircleCount());
+        assertEquals(17, model.generateMoves(new int[32 * GameModel.DIRECTION_COUNT]));
+        for (int cell = 0; cell < rules.cellCount(); cell++) {
+            assertFalse(model.isWinAt(cell));
+        }
+
+        var circles = new ArrayList<Circle>();
+        for (int i = 0; i < 5; i++) {
+            circles.add(new Circle(CircleType.BLUE, new Position(10 + i, 20 - i)));
+        }
+        circles.add(new Circle(CircleType.RED, new Position(15, 15)));
+        var diagonal = new GameModel(rules, circles.toArray(Circle[]::new));
+        assertTrue(diagonal.isWinAt(rules.cellOf(new Position(12, 18))));
+        assertEquals(5, diagonal.getWinningLine().size());
+        assertFalse(diagonal.isWinAt(rules.cellOf(new Position(15, 15))));
+
+        circles.set(0, new Circle(CircleType.RED, new Position(10, 20)));
+        var blocked = new GameModel(rules, circles.toArray(Circle[]::new));
+        assertFalse(blocked.isWinAt(rules.cellOf(new Position(12, 18))));
+    }
+
+    @Test
+    void isLastMoveWin_matchesIsWin() {
+        var model = new GameModel(
+                new Circle(CircleType.BLUE, new Position(1, 0)),
+                new Circle(CircleType.BLUE, new Position(1, 1)),
+                new Circle(CircleType.BLUE, new Position(2, 2)),
+                new Circle(CircleType.RED, new Position(4, 0)));
+        assertFalse(model.isLastMoveWin());
+        model.move(2, Direction.UP);
+        assertTrue(model.isLastMoveWin());
+        assertEquals(List.of(new Position(1, 0), new Position(1, 1), new Position(1, 2)), model.getWinningLine());
+        assertTrue(model.isWin(positionsOf(model, CircleType.BLUE)));
+        assertEquals(List.of(new Position(1, 0), new Position(1, 1), new Position(1, 2)), model.getWinningLine());
+        model.move(3, Direction.UP);
+        assertFalse(model.isLastMoveWin());
+        assertFalse(model.isWin(positionsOf(model, CircleType.RED)));
+    }
+
+    private static List<Position> positionsOf(GameModel model, CircleType type) {
+        List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < model.getCircleCount(); i++) {
+            if (model.getCircleType(i) == type) {
+                positions.add(model.getCirclePosition(i));
+            }
+        }
+        return positions;
+    }
+
+    @Test
+    void getWinningLine_isImmutableAndClearedByTheNextCheck() {
+        var model = new GameModel();
+        assertTrue(model.isWin(List.of(new Position(2, 0), new Position(2, 1), new Position(2, 2))));
+        var line = model.getWinningLine();
+        assertEquals(List.of(new Position(2, 0), new Position(2, 1), new Position(2, 2)), line);
+        assertThrows(UnsupportedOperationException.class, () -> line.add(new Position(2, 3)));
+        assertFalse(model.isLastMoveWin() || model.isWinAt(0));
+        assertEquals(List.of(), model.getWinningLine());
+    }
 }
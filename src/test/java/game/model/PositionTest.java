@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class PositionTest {
 
@@ -24,6 +25,14 @@ class PositionTest {
         assertPosition(0, -1, position.getPositionAt(Direction.LEFT));
     }
 
+    @Test
+    void of() {
+        assertSame(Position.of(2, 3), Position.of(2, 3));
+        assertSame(Position.of(1, 0), position.getPositionAt(Direction.DOWN));
+        assertEquals(new Position(2, 3), Position.of(2, 3));
+        assertPosition(-1, 0, Position.of(-1, 0));
+    }
+
     @Test
     void testToString() {
         assertEquals("(0,0)", position.toString());
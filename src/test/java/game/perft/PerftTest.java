@@ -0,0 +1,62 @@
+package game.perft;
+
+import game.engine.BitBoard;
+import game.model.CircleType;
+import game.model.GameModel;
+import game.model.GameRules;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    static final String STARTER = "BRBR/..../..../..../RBRB";
+
+    @Test
+    void count_fromTheStarterPosition() {
+        var model = Perft.parsePosition(GameRules.STANDARD, STARTER, CircleType.BLUE);
+        assertEquals(BitBoard.initial(), BitBoard.of(model));
+        var perft = new Perft(1, 0);
+        long[] expected = {1, 4, 22, 154, 1046};
+        for (int depth = 0; depth < expected.length; depth++) {
+            assertEquals(expected[depth], perft.count(model, depth).nodes());
+            assertEquals(expected[depth], perft.count(BitBoard.of(model), depth).nodes());
+        }
+        assertEquals(63132, perft.count(BitBoard.initial(), 6).nodes());
+    }
+
+    @Test
+    void divide_matchesBetweenEnginesThreadsAndCache() {
+        var model = Perft.parsePosition(GameRules.STANDARD, "B.BR/.R../..B./R..B/..R.", CircleType.RED);
+        var expected = new Perft(1, 0).count(model, 6);
+        assertEquals(expected.divisions(), new Perft(2, 0).count(BitBoard.of(model), 6).divisions());
+        assertEquals(expected.divisions(), new Perft(2, 1).count(model, 6).divisions());
+        assertEquals(expected.divisions(), new Perft(1, 1).count(BitBoard.of(model), 6).divisions());
+        assertEquals(expected.nodes(), expected.divisions().stream().mapToLong(Perft.Division::nodes).sum());
+    }
+
+    @Test
+    void count_stopsAtWinsAndPositionsWithoutMoves() {
+        var model = Perft.parsePosition(GameRules.STANDARD, "BB.R/..B./..../R..R/...R", CircleType.BLUE);
+        var result = new Perft(1, 0).count(model, 3);
+        var win = result.divisions().stream().filter(division -> division.move().equals("1,2 UP")).findFirst();
+        assertEquals(1, win.orElseThrow().nodes());
+        assertEquals(result.nodes(), new Perft(1, 0).count(BitBoard.of(model), 3).nodes());
+
+        var blocked = Perft.parsePosition(GameRules.STANDARD, "BR../R.../..../..../....", CircleType.BLUE);
+        assertEquals(1, new Perft(1, 0).count(blocked, 4).nodes());
+    }
+
+    @Test
+    void count_onOtherRules() {
+        var rules = new GameRules(6, 6, 6, 4);
+        var model = new GameModel(rules);
+        while (model.getPlayerTurn() % 2 != 0) {
+            model.increasePlayerTurn();
+        }
+        int[] moves = new int[model.getCircleCount() * GameModel.DIRECTION_COUNT];
+        assertEquals(model.generateMoves(moves), new Perft(1, 0).count(model, 1).nodes());
+        assertEquals(new Perft(1, 0).count(model, 4).nodes(), new Perft(2, 1).count(model, 4).nodes());
+        assertThrows(IllegalArgumentException.class, () -> Perft.parsePosition(rules, STARTER, CircleType.BLUE));
+    }
+}
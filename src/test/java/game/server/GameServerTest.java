@@ -0,0 +1,99 @@
+package game.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+
+    private GameServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new GameServer(new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    private final class Connection implements AutoCloseable {
+
+        final Socket socket;
+        final BufferedReader in;
+        final PrintWriter out;
+
+        Connection() throws IOException {
+            socket = new Socket("127.0.0.1", server.getPort());
+            socket.setSoTimeout(5000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+        }
+
+        String request(String line) throws IOException {
+            out.println(line);
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    void match_validatesMovesOnTheServer() throws IOException {
+        try (var first = new Connection(); var second = new Connection()) {
+            assertEquals("WAITING", first.request("JOIN Anna"));
+            var start = second.request("JOIN Bob").split(" ");
+            assertEquals("START", start[0]);
+            assertEquals("RED", start[1]);
+            assertEquals("Anna", start[2]);
+            assertEquals("START BLUE Bob " + start[3], first.in.readLine());
+
+            var mover = start[3].equals("BLUE") ? first : second;
+            var other = mover == first ? second : first;
+            assertTrue(other.request("MOVE 0 0 DOWN").startsWith("ERROR Not your turn"));
+            var ownRow = start[3].equals("BLUE") ? "0 0" : "0 1";
+            var opponentRow = start[3].equals("BLUE") ? "0 1" : "0 0";
+            assertTrue(mover.request("MOVE " + opponentRow + " DOWN").startsWith("ERROR No "));
+            assertTrue(mover.request("MOVE " + ownRow + " UP").startsWith("ERROR Invalid move"));
+            assertTrue(mover.request("MOVE " + ownRow + " SIDEWAYS").startsWith("ERROR Invalid move"));
+
+            var moved = "MOVED " + start[3] + " " + ownRow + " DOWN";
+            assertEquals(moved, mover.request("MOVE " + ownRow + " DOWN"));
+            assertEquals(moved, other.in.readLine());
+            assertEquals(1, server.getMoves());
+            assertEquals(1, server.getActiveMatches());
+
+            mover.out.println("QUIT");
+            var end = start[3].equals("BLUE") ? "END RED RESIGN" : "END BLUE RESIGN";
+            assertEquals(end, other.in.readLine());
+            assertEquals(1, server.getCompletedMatches());
+            assertEquals("WAITING", other.request("JOIN Bob"));
+        }
+    }
+
+    @Test
+    void loadTest_playsConcurrentMatchesToTheEnd() throws IOException {
+        var client = new LoadTestClient(new InetSocketAddress("127.0.0.1", server.getPort()), 50, 2, 7);
+        client.run();
+        assertEquals(100, client.getCompletedMatches());
+        assertEquals(0, client.getErrors());
+        assertEquals(client.getMoves(), server.getMoves());
+        assertEquals(client.getMoves(), client.getRoundTrip().getCount());
+        assertEquals(0, server.getActiveMatches());
+    }
+}
@@ -0,0 +1,87 @@
+package game.sim;
+
+import game.ai.Player;
+import game.ai.Players;
+import game.ai.RandomPlayer;
+import game.engine.BitBoard;
+import game.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRunnerTest {
+
+    @Test
+    void play_isDeterministicForTheSameSeed() {
+        var runner = new GameRunner(200, new LatencyHistogram());
+        var first = runner.play(0, new RandomPlayer(), new RandomPlayer(), BitBoard.RED, 42);
+        var second = runner.play(0, new RandomPlayer(), new RandomPlayer(), BitBoard.RED, 42);
+        assertEquals(first.winner(), second.winner());
+        assertArrayEquals(first.moves(), second.moves());
+    }
+
+    @Test
+    void play_replaysToTheReportedResult() {
+        var latency = new LatencyHistogram();
+        var runner = new GameRunner(200, latency);
+        for (long seed = 0; seed < 50; seed++) {
+            var result = runner.play(seed, new RandomPlayer(), new RandomPlayer(), (int) seed % 2, seed);
+            var board = new BitBoard(BitBoard.initial().getPieces(BitBoard.BLUE), BitBoard.initial().getPieces(BitBoard.RED),
+                    result.startSide());
+            int lastMove = -1;
+            for (int move : result.moves()) {
+                assertTrue(board.isLegal(move));
+                board.makeMove(move);
+                lastMove = move;
+            }
+            if (result.winner() != GameResult.DRAW) {
+                assertTrue(board.winningLine(lastMove) != 0 || !board.hasMoves());
+                assertEquals(board.getSideToMove() ^ 1, result.winner());
+            }
+        }
+        assertTrue(latency.getCount() > 0);
+    }
+
+    @Test
+    void play_searchBeatsRandom() {
+        var runner = new GameRunner(200, new LatencyHistogram());
+        var search = Players.parse("search:depth=4,hash=1");
+        for (long seed = 0; seed < 4; seed++) {
+            var result = runner.play(seed, search.get(), new RandomPlayer(), (int) seed % 2, seed);
+            assertEquals(BitBoard.BLUE, result.winner());
+        }
+    }
+
+    @Test
+    void selfPlay_isIndependentOfTheThreadCount() {
+        var single = new SelfPlay(RandomPlayer::new, RandomPlayer::new, 1, 7, 200);
+        var parallel = new SelfPlay(RandomPlayer::new, RandomPlayer::new, 3, 7, 200);
+        single.run(100, null);
+        parallel.run(100, null);
+        assertEquals(single.getWins(BitBoard.BLUE), parallel.getWins(BitBoard.BLUE));
+        assertEquals(single.getWins(BitBoard.RED), parallel.getWins(BitBoard.RED));
+        assertEquals(single.getMoves(), parallel.getMoves());
+        assertEquals(single.getMoves(), single.getMoveLatency().getCount());
+    }
+
+    @Test
+    void selfPlay_closesThePlayersOfEveryThread() {
+        var created = new AtomicInteger();
+        var closed = new AtomicInteger();
+        Supplier<Player> factory = () -> {
+            created.incrementAndGet();
+            return new RandomPlayer() {
+                @Override
+                public void close() {
+                    closed.incrementAndGet();
+                }
+            };
+        };
+        new SelfPlay(factory, factory, 3, 7, 200).run(20, null);
+        assertEquals(6, created.get());
+        assertEquals(created.get(), closed.get());
+    }
+}
@@ -0,0 +1,82 @@
+package game.tablebase;
+
+import game.engine.BitBoard;
+import game.engine.Symmetry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTablebaseTest {
+
+    @TempDir
+    static Path directory;
+
+    static MappedTablebase tablebase;
+
+    static MappedTablebase canonicalTablebase;
+
+    static BitBoard board = BitBoard.initial();
+
+    static int winningMove = BitBoard.encodeMove(BitBoard.cellOf(0, 0), BitBoard.cellOf(1, 0));
+
+    @BeforeAll
+    static void writeTablebase() throws IOException {
+        short[] entries = new short[PositionIndex.SIZE];
+        short draw = TablebaseFormat.encode(Outcome.DRAW, 0);
+        Arrays.fill(entries, draw);
+        var child = new BitBoard(board);
+        child.makeMove(winningMove);
+        for (int transform = 0; transform < Symmetry.COUNT; transform++) {
+            entries[PositionIndex.indexOf(Symmetry.transform(transform, board))] = TablebaseFormat.encode(Outcome.WIN, 5);
+            entries[PositionIndex.indexOf(Symmetry.transform(transform, child))] = TablebaseFormat.encode(Outcome.LOSS, 4);
+        }
+        var path = directory.resolve("tablebase.bin");
+        TablebaseFormat.write(path, entries);
+        tablebase = MappedTablebase.open(path);
+        var canonicalPath = directory.resolve("canonical.bin");
+        TablebaseFormat.writeCanonical(canonicalPath, entries);
+        canonicalTablebase = MappedTablebase.open(canonicalPath);
+        assertTrue(Files.size(canonicalPath) < Files.size(path) / 2);
+    }
+
+    @Test
+    void outcome_distance() {
+        assertEquals(Outcome.WIN, tablebase.outcome(board));
+        assertEquals(5, tablebase.distance(board));
+        assertEquals(Outcome.DRAW, tablebase.outcome(PositionIndex.positionOf(12345)));
+    }
+
+    @Test
+    void bestMove() {
+        assertEquals(winningMove, tablebase.bestMove(board));
+    }
+
+    @Test
+    void canonical() {
+        assertFalse(tablebase.isCanonical());
+        assertTrue(canonicalTablebase.isCanonical());
+        assertEquals(winningMove, canonicalTablebase.bestMove(board));
+        for (int transform = 0; transform < Symmetry.COUNT; transform++) {
+            var image = Symmetry.transform(transform, board);
+            assertEquals(Outcome.WIN, canonicalTablebase.outcome(image));
+            assertEquals(5, canonicalTablebase.distance(image));
+        }
+        assertEquals(Outcome.DRAW, canonicalTablebase.outcome(PositionIndex.positionOf(12345)));
+    }
+
+    @Test
+    void open_shouldThrowIOException() throws IOException {
+        var path = directory.resolve("invalid.bin");
+        Files.write(path, new byte[TablebaseFormat.HEADER_BYTES]);
+        assertThrows(IOException.class, () -> MappedTablebase.open(path));
+        assertTrue(MappedTablebase.openIfExists(path).isEmpty());
+        assertTrue(MappedTablebase.openIfExists(directory.resolve("missing.bin")).isEmpty());
+    }
+}
@@ -0,0 +1,47 @@
+package game.tablebase;
+
+import game.engine.BitBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionIndexTest {
+
+    @Test
+    void size() {
+        assertEquals(4845, PositionIndex.BLUE_COMBINATIONS);
+        assertEquals(1820, PositionIndex.RED_COMBINATIONS);
+        assertEquals(17_635_800, PositionIndex.SIZE);
+    }
+
+    @Test
+    void indexOf_positionOf() {
+        var random = new SplittableRandom(1);
+        for (int i = 0; i < 10_000; i++) {
+            int index = random.nextInt(PositionIndex.SIZE);
+            var board = PositionIndex.positionOf(index);
+            assertEquals(4, Integer.bitCount(board.getPieces(BitBoard.BLUE)));
+            assertEquals(4, Integer.bitCount(board.getPieces(BitBoard.RED)));
+            assertEquals(index, PositionIndex.indexOf(board));
+        }
+    }
+
+    @Test
+    void indexOf_bounds() {
+        assertEquals(0, PositionIndex.indexOf(0b1111, 0b1111_0000, BitBoard.BLUE));
+        int last = PositionIndex.indexOf(0b1111 << 16, 0b1111 << 12, BitBoard.RED);
+        assertEquals(PositionIndex.SIZE - 1, last);
+        assertEquals(BitBoard.initial(), PositionIndex.positionOf(PositionIndex.indexOf(BitBoard.initial())));
+    }
+
+    @Test
+    void encode() {
+        short entry = TablebaseFormat.encode(Outcome.LOSS, 37);
+        assertEquals(Outcome.LOSS, TablebaseFormat.outcomeOf(entry));
+        assertEquals(37, TablebaseFormat.distanceOf(entry));
+        assertEquals(Outcome.DRAW, TablebaseFormat.outcomeOf(TablebaseFormat.encode(Outcome.DRAW, TablebaseFormat.MAX_DISTANCE)));
+        assertThrows(IllegalArgumentException.class, () -> TablebaseFormat.encode(Outcome.WIN, TablebaseFormat.MAX_DISTANCE + 1));
+    }
+}
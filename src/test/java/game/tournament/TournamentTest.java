@@ -0,0 +1,102 @@
+package game.tournament;
+
+import game.ai.Players;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void elo_matchesTheLogisticCurve() {
+        assertEquals(0, Elo.difference(0.5), 1e-9);
+        assertEquals(200, Elo.difference(Elo.score(200)), 1e-9);
+        assertEquals(-190.8, Elo.difference(0.25), 0.1);
+        var estimate = Elo.estimate(60, 20, 20);
+        assertEquals(Elo.difference(0.7), estimate.elo(), 1e-9);
+        assertTrue(estimate.error() > 30 && estimate.error() < 100, estimate.toString());
+        assertTrue(Elo.estimate(600, 200, 200).error() < estimate.error() / 2);
+    }
+
+    @Test
+    void sprt_acceptsTheHypothesisTheResultsSupport() {
+        var sprt = new Sprt(0, 10, 0.05, 0.05);
+        assertEquals(Sprt.Decision.CONTINUE, sprt.test(0, 0, 0));
+        assertEquals(Sprt.Decision.CONTINUE, sprt.test(55, 0, 45));
+        assertEquals(Sprt.Decision.ACCEPT_H1, sprt.test(6000, 0, 4000));
+        assertEquals(Sprt.Decision.ACCEPT_H0, sprt.test(4000, 2000, 4000));
+        assertEquals(Sprt.Decision.ACCEPT_H0, sprt.test(0, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> new Sprt(10, 0, 0.05, 0.05));
+    }
+
+    @Test
+    void pairings_alternateTheFirstMoveAndStopEarly() {
+        var tournament = tournament(Tournament.Format.ROUND_ROBIN, 40, new Sprt(0, 10, 0.05, 0.05));
+        assertEquals(3, tournament.getPairings().size());
+        tournament.run(null);
+        var randomVsSearch = tournament.getPairings().get(0);
+        assertEquals(Sprt.Decision.ACCEPT_H0, randomVsSearch.getDecision());
+        assertTrue(randomVsSearch.getGames() < 40);
+        var randomVsRandom = tournament.getPairings().get(1);
+        assertEquals(40, randomVsRandom.getGames());
+        long[] score = tournament.score(1);
+        assertEquals(randomVsSearch.getGames() + tournament.getPairings().get(2).getGames(), score[0] + score[1] + score[2]);
+    }
+
+    @Test
+    void gauntlet_onlyPairsTheFirstPlayer() {
+        var tournament = tournament(Tournament.Format.GAUNTLET, 4, null);
+        assertEquals(2, tournament.getPairings().size());
+        for (var pairing : tournament.getPairings()) {
+            assertEquals(0, pairing.getFirst());
+        }
+    }
+
+    @Test
+    void checkpoint_resumesAnInterruptedRun() throws Exception {
+        var path = directory.resolve("tournament.ckpt");
+        var complete = tournament(Tournament.Format.ROUND_ROBIN, 20, null);
+        try (var checkpoint = Checkpoint.open(path, complete.describe())) {
+            complete.run(checkpoint);
+        }
+        var lines = Files.readAllLines(path);
+        assertEquals(1 + 3 * 20, lines.size());
+
+        Files.write(path, lines.subList(0, 31));
+        Files.writeString(path, "2 1", StandardOpenOption.APPEND);
+        var resumed = tournament(Tournament.Format.ROUND_ROBIN, 20, null);
+        try (var checkpoint = Checkpoint.open(path, resumed.describe())) {
+            assertEquals(30, checkpoint.getResults().size());
+            resumed.run(checkpoint);
+        }
+        assertEquals(1 + 3 * 20, Files.readAllLines(path).size());
+        for (int i = 0; i < 3; i++) {
+            var expected = complete.getPairings().get(i);
+            var actual = resumed.getPairings().get(i);
+            assertEquals(expected.getWins(), actual.getWins());
+            assertEquals(expected.getDraws(), actual.getDraws());
+            assertEquals(expected.getLosses(), actual.getLosses());
+        }
+
+        var other = tournament(Tournament.Format.GAUNTLET, 20, null);
+        assertThrows(IOException.class, () -> Checkpoint.open(path, other.describe()));
+    }
+
+    private static Tournament tournament(Tournament.Format format, int games, Sprt sprt) {
+        var entrants = List.of(
+                new Tournament.Entrant("random", Players.parse("random")),
+                new Tournament.Entrant("search", Players.parse("search:depth=2")),
+                new Tournament.Entrant("random2", Players.parse("random")));
+        return new Tournament(entrants, format, games, 2, 7, 100, sprt);
+    }
+}
@@ -0,0 +1,96 @@
+package game.trace;
+
+import game.model.Circle;
+import game.model.CircleType;
+import game.model.Direction;
+import game.model.GameModel;
+import game.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventTracerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void record_fromManyThreads_keepsTheOrderOfEveryThread() throws Exception {
+        var path = directory.resolve("trace.bin");
+        int perThread = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        long recorded;
+        try (var tracer = EventTracer.open(path, 1 << 10)) {
+            for (int t = 0; t < 4; t++) {
+                int id = t;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        tracer.record(EventType.MOVE_MADE, id, i);
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (var thread : threads) {
+                thread.join();
+            }
+            assertEquals(4L * perThread, tracer.getRecorded() + tracer.getDropped());
+            recorded = tracer.getRecorded();
+        }
+        var events = EventTracer.read(path);
+        assertEquals(recorded, events.size());
+        assertEquals(EventTracer.HEADER_BYTES + events.size() * (long) EventTracer.RECORD_BYTES, Files.size(path));
+        Map<Long, Long> last = new HashMap<>();
+        for (var event : events) {
+            assertEquals(EventType.MOVE_MADE, event.type());
+            long previous = last.getOrDefault(event.a(), -1L);
+            assertTrue(event.b() > previous);
+            last.put(event.a(), event.b());
+        }
+    }
+
+    @Test
+    void trace_recordsModelMovesAndWins() throws IOException {
+        var path = directory.resolve("model.bin");
+        var model = new GameModel(
+                new Circle(CircleType.BLUE, new Position(1, 0)),
+                new Circle(CircleType.BLUE, new Position(1, 1)),
+                new Circle(CircleType.BLUE, new Position(2, 2)),
+                new Circle(CircleType.RED, new Position(4, 0)));
+        try (var tracer = EventTracer.open(path)) {
+            Trace.install(tracer);
+            model.move(2, Direction.UP);
+            assertTrue(model.isLastMoveWin());
+            Trace.searchIteration(7, -25, 1234);
+        } finally {
+            Trace.install(null);
+        }
+        model.move(3, Direction.UP);
+        var events = EventTracer.read(path);
+        assertEquals(3, events.size());
+        assertEquals(EventType.MOVE_MADE, events.get(0).type());
+        assertEquals(10, events.get(0).a());
+        assertEquals(6, events.get(0).b());
+        assertEquals(EventType.WIN_DETECTED, events.get(1).type());
+        assertEquals(6, events.get(1).a());
+        assertEquals(0, events.get(1).b());
+        assertEquals("depth 7 score -25 nodes 1234", events.get(2).type().describe(events.get(2).a(), events.get(2).b()));
+        assertTrue(events.get(0).nanos() <= events.get(2).nanos());
+    }
+
+    @Test
+    void read_rejectsOtherFiles() throws IOException {
+        var path = directory.resolve("other.bin");
+        Files.write(path, new byte[3]);
+        assertThrows(IOException.class, () -> EventTracer.read(path));
+        assertThrows(IllegalArgumentException.class, () -> EventTracer.open(directory.resolve("x.bin"), 1000));
+    }
+}